@@ -0,0 +1,149 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+import de.gerdiproject.astyle.preferences.FeedbackStyle;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+
+/**
+ * This helper class offers static methods for creating the formatter
+ * configurations of the benchmarks, without requiring a running workbench.
+ *
+ * @author GeRDI Project
+ */
+public class BenchmarkConfigurations
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private BenchmarkConfigurations()
+    {
+
+    }
+
+
+    /**
+     * Creates a configuration for a specified formatter.
+     *
+     * @param formatter either {@linkplain BenchmarkConstants#STUB_FORMATTER} or
+     *          {@linkplain BenchmarkConstants#ASTYLE_FORMATTER}
+     * @param workingDirectory a folder in which the stub formatter can be installed
+     *
+     * @throws IOException if the stub formatter could not be installed
+     * @throws IllegalArgumentException if the formatter is unknown
+     * @throws IllegalStateException if the real formatter is requested, but its paths are not defined
+     *
+     * @return a configuration that uses the formatter
+     */
+    public static FormatterConfiguration create(String formatter, Path workingDirectory) throws IOException
+    {
+        switch (formatter) {
+            case BenchmarkConstants.STUB_FORMATTER:
+                return createStubConfiguration(workingDirectory);
+
+            case BenchmarkConstants.ASTYLE_FORMATTER:
+                return createAStyleConfiguration();
+
+            default:
+                throw new IllegalArgumentException(formatter);
+        }
+    }
+
+
+    /**
+     * Installs a shell script that mimics the output of AStyle without reading
+     * or changing any file, and creates a configuration that uses it. This measures
+     * the overhead of the pipeline without the cost of the actual formatting.
+     *
+     * @param workingDirectory the folder in which the script is installed
+     *
+     * @throws IOException if the script could not be written
+     *
+     * @return a configuration that uses the stub formatter
+     */
+    public static FormatterConfiguration createStubConfiguration(Path workingDirectory) throws IOException
+    {
+        final Path binFolder = workingDirectory.resolve(BenchmarkConstants.STUB_BIN_FOLDER);
+        final Path binary = binFolder.resolve(BenchmarkConstants.STUB_BINARY_NAME);
+        final Path optionsFile = workingDirectory.resolve(BenchmarkConstants.STUB_OPTIONS_FILE);
+
+        Files.createDirectories(binFolder);
+        Files.write(binary, BenchmarkConstants.STUB_SCRIPT.getBytes(StandardCharsets.UTF_8));
+        Files.write(optionsFile, new byte[0]);
+
+        if (!binary.toFile().setExecutable(true))
+            throw new IOException(binary.toString());
+
+        return createConfiguration(binFolder.toString(), optionsFile.toString());
+    }
+
+
+    /**
+     * Creates a configuration for the AStyle installation that is defined via
+     * the system properties {@linkplain BenchmarkConstants#ASTYLE_BIN_PROPERTY} and
+     * {@linkplain BenchmarkConstants#ASTYLE_OPTIONS_PROPERTY}.
+     *
+     * @throws IllegalStateException if a system property is missing
+     *
+     * @return a configuration that uses AStyle
+     */
+    public static FormatterConfiguration createAStyleConfiguration()
+    {
+        final String binaryPath = System.getProperty(BenchmarkConstants.ASTYLE_BIN_PROPERTY);
+        final String optionsFilePath = System.getProperty(BenchmarkConstants.ASTYLE_OPTIONS_PROPERTY);
+
+        if (binaryPath == null || optionsFilePath == null
+            || !new File(binaryPath).isDirectory() || !new File(optionsFilePath).isFile())
+            throw new IllegalStateException(BenchmarkConstants.ERROR_NO_ASTYLE);
+
+        return createConfiguration(binaryPath, optionsFilePath);
+    }
+
+
+    /**
+     * Creates a configuration that uses the default values of all preferences,
+     * except for the formatter paths.
+     *
+     * @param binaryPath the unescaped path of the AStyle bin directory
+     * @param optionsFilePath the unescaped path of the AStyle options file
+     *
+     * @return a configuration that uses the formatter
+     */
+    private static FormatterConfiguration createConfiguration(String binaryPath, String optionsFilePath)
+    {
+        return new FormatterConfiguration(
+                   binaryPath,
+                   optionsFilePath,
+                   FeedbackStyle.TextBox,
+                   false,
+                   0,
+                   Runtime.getRuntime().availableProcessors(),
+                   AStylePreferenceConstants.SAVE_QUIET_PERIOD_DEFAULT,
+                   AStylePreferenceConstants.PROCESS_TIMEOUT_DEFAULT,
+                   AStylePreferenceConstants.INCLUDE_PATTERNS_DEFAULT,
+                   AStylePreferenceConstants.EXCLUDE_PATTERNS_DEFAULT,
+                   "",
+                   AStylePreferenceConstants.SHARED_CACHE_SIZE_DEFAULT);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+/**
+ * This class offers constants that are used by the formatting benchmarks.
+ *
+ * @author GeRDI Project
+ */
+public class BenchmarkConstants
+{
+    public static final String STUB_FORMATTER = "stub";
+    public static final String ASTYLE_FORMATTER = "astyle";
+
+    public static final String ASTYLE_BIN_PROPERTY = "astyle.bin";
+    public static final String ASTYLE_OPTIONS_PROPERTY = "astyle.options";
+    public static final String ERROR_NO_ASTYLE = "The real formatter requires the system properties -D"
+                                                 + ASTYLE_BIN_PROPERTY + "=<AStyle bin directory> and -D"
+                                                 + ASTYLE_OPTIONS_PROPERTY + "=<AStyle options file>";
+
+    public static final String TEMP_DIRECTORY_PREFIX = "astyle-benchmark";
+    public static final String SOURCE_FOLDER = "src";
+    public static final String STUB_BIN_FOLDER = "bin";
+    public static final String STUB_BINARY_NAME = "astyle";
+    public static final String STUB_OPTIONS_FILE = "astylerc";
+
+    // the stub reports every file that it receives as formatted, like AStyle does on the first run
+    public static final String STUB_SCRIPT = "#!/bin/sh\n"
+                                             + "for arg in \"$@\"; do\n"
+                                             + "  case \"$arg\" in\n"
+                                             + "    --*) ;;\n"
+                                             + "    *) arg=\"${arg#\\\"}\"; echo \"Formatted  ${arg%\\\"}\" ;;\n"
+                                             + "  esac\n"
+                                             + "done\n";
+
+    public static final int FILES_PER_PACKAGE = 100;
+    public static final int PACKAGES_PER_LEVEL = 10;
+    public static final int METHODS_PER_CLASS = 12;
+    public static final String PACKAGE_NAME = "pkg%d";
+    public static final String CLASS_NAME = "Synthetic%d";
+    public static final String JAVA_FILE_NAME = "%s.java";
+
+    public static final String OPTION_PREFIX = "--";
+    public static final char OPTION_VALUE_SEPARATOR = '=';
+    public static final String ERROR_UNKNOWN_OPTION = "Unknown option: %s";
+    public static final String FILES_OPTION = "files";
+    public static final String SAVE_RATE_OPTION = "rate";
+    public static final String DURATION_OPTION = "duration";
+    public static final String SAVE_ALL_PROBABILITY_OPTION = "save-all-probability";
+    public static final String SAVE_ALL_SIZE_OPTION = "save-all-size";
+    public static final String MEDIAN_FILE_SIZE_OPTION = "median-size";
+    public static final String FILE_SIZE_SIGMA_OPTION = "size-sigma";
+    public static final String BASE_LATENCY_OPTION = "latency";
+    public static final String LATENCY_PER_KILOBYTE_OPTION = "latency-per-kb";
+    public static final String QUIET_PERIOD_OPTION = "quiet-period";
+    public static final String SEED_OPTION = "seed";
+
+    public static final String FILES_DEFAULT = "200";
+    public static final String SAVE_RATE_DEFAULT = "5";
+    public static final String DURATION_DEFAULT = "30";
+    public static final String SAVE_ALL_PROBABILITY_DEFAULT = "0.1";
+    public static final String SAVE_ALL_SIZE_DEFAULT = "8";
+    public static final String MEDIAN_FILE_SIZE_DEFAULT = "8000";
+    public static final String FILE_SIZE_SIGMA_DEFAULT = "1.0";
+    public static final String BASE_LATENCY_DEFAULT = "30";
+    public static final String LATENCY_PER_KILOBYTE_DEFAULT = "0.5";
+    public static final String QUIET_PERIOD_DEFAULT = "300";
+    public static final String SEED_DEFAULT = "42";
+
+    public static final String SIMULATED_FILE_FOLDER = "simulated";
+    public static final String SIMULATED_FILE_NAME = "Simulated%d.java";
+
+    public static final String SIMULATION_STARTED = "Simulating %d saves per second of %d files for %d seconds...";
+    public static final String REPORT_SAVES = "Saves:               %d (%d single saves, %d Save All bursts)";
+    public static final String REPORT_BATCHES = "Formatting batches:  %d (%d formatted files)";
+    public static final String REPORT_LATENCY = "Save latency:        p50 %.1f ms, p99 %.1f ms, max %.1f ms";
+    public static final String REPORT_QUEUE_DEPTH = "Queue depth:         mean %.1f, max %d";
+    public static final String REPORT_DROPPED = "Dropped formats:     %d";
+    public static final String REPORT_DUPLICATED = "Duplicated formats:  %d";
+
+
+    /**
+     * Private constructor, because this is just a collection of constants.
+     */
+    private BenchmarkConstants()
+    {
+
+    }
+}
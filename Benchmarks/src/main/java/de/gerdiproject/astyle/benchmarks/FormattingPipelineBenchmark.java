@@ -0,0 +1,259 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.FormatterOutputSink;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+
+/**
+ * This benchmark measures the stages of the pipeline that formats multiple files
+ * with external formatter processes: the construction of the process command lines,
+ * spawning the processes while capturing their output, and assembling the feedback
+ * message from the captured output. Each stage is measured on its own and as part
+ * of the complete pipeline, by default with a stub formatter that only prints the output
+ * that AStyle would print. A real AStyle installation is measured with {@code -p formatter=astyle}.
+ *
+ * @author GeRDI Project
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FormattingPipelineBenchmark
+{
+    @Param({"1", "1000", "20000"})
+    public int fileCount;
+
+    // the real formatter requires an AStyle installation, and is selected via -p formatter=astyle
+    @Param({BenchmarkConstants.STUB_FORMATTER})
+    public String formatter;
+
+    private SyntheticSourceTree sourceTree;
+    private FormatterConfiguration configuration;
+    private List<ProcessBuilder> formattingBuilders;
+    private List<String> recordedOutput;
+    private String errorPrefix;
+    private String successMessage;
+
+
+    /**
+     * Generates the source tree, creates the formatter configuration, and records
+     * the output of one formatting run, which is replayed when the result assembly
+     * is measured on its own.
+     *
+     * @throws IOException if the source tree or the stub formatter could not be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        sourceTree = SyntheticSourceTree.create(
+                         Files.createTempDirectory(BenchmarkConstants.TEMP_DIRECTORY_PREFIX),
+                         fileCount);
+        configuration = BenchmarkConfigurations.create(formatter, sourceTree.getRoot());
+        formattingBuilders = FormattingUtils.createDefaultFormattingProcesses(sourceTree.getFiles(), configuration);
+        errorPrefix = String.format(AStyleHandlerConstants.CANNOT_FORMAT_FILES, fileCount);
+        successMessage = String.format(AStyleHandlerConstants.CAN_FORMAT_FILES, fileCount);
+
+        final List<String> output = Collections.synchronizedList(new ArrayList<>());
+        final FormatterOutputSink recordingSink = new FormatterOutputSink(true, null)
+        {
+            @Override
+            public void accept(String line)
+            {
+                output.add(line);
+                super.accept(line);
+            }
+        };
+        runFormattingProcesses(formattingBuilders, recordingSink);
+        recordedOutput = new ArrayList<>(output);
+
+        sourceTree.reset();
+    }
+
+
+    /**
+     * Deletes the source tree and the stub formatter.
+     *
+     * @throws IOException if a file could not be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        sourceTree.delete();
+    }
+
+
+    /**
+     * Measures the construction of the process builders, which includes
+     * distributing the files to shards of equal size.
+     *
+     * @return the process builders
+     */
+    @Benchmark
+    public List<ProcessBuilder> constructProcesses()
+    {
+        return FormattingUtils.createDefaultFormattingProcesses(sourceTree.getFiles(), configuration);
+    }
+
+
+    /**
+     * Measures spawning the formatter processes and capturing their output.
+     *
+     * @param unformattedTree reverts the changes of the previous invocation
+     *
+     * @return the sink that captured the output
+     */
+    @Benchmark
+    public FormatterOutputSink spawnAndCapture(UnformattedTree unformattedTree)
+    {
+        final FormatterOutputSink outputSink = createOutputSink(new LinkedList<>());
+        runFormattingProcesses(formattingBuilders, outputSink);
+        return outputSink;
+    }
+
+
+    /**
+     * Measures parsing the recorded output of a formatting run and
+     * assembling the feedback message from it.
+     *
+     * @return the feedback message
+     */
+    @Benchmark
+    public FeedbackMessage assembleResult()
+    {
+        final FormatterOutputSink outputSink = createOutputSink(new LinkedList<>());
+
+        for (String line : recordedOutput)
+            outputSink.accept(line);
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, outputSink.toString()));
+    }
+
+
+    /**
+     * Measures all stages of the pipeline together.
+     *
+     * @param unformattedTree reverts the changes of the previous invocation
+     *
+     * @return the feedback message
+     */
+    @Benchmark
+    public FeedbackMessage formatFiles(UnformattedTree unformattedTree)
+    {
+        final List<ProcessBuilder> builders =
+            FormattingUtils.createDefaultFormattingProcesses(sourceTree.getFiles(), configuration);
+        final FormatterOutputSink outputSink = createOutputSink(new LinkedList<>());
+        runFormattingProcesses(builders, outputSink);
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, outputSink.toString()));
+    }
+
+
+    /**
+     * Creates a sink that collects the formatted files, like the plugin does
+     * in order to refresh them afterwards.
+     *
+     * @param formattedFiles the list to which the formatted files are added
+     *
+     * @return a new output sink
+     */
+    private static FormatterOutputSink createOutputSink(List<File> formattedFiles)
+    {
+        final List<File> synchronizedFiles = Collections.synchronizedList(formattedFiles);
+        return new FormatterOutputSink(true, synchronizedFiles::add, null);
+    }
+
+
+    /**
+     * Runs formatting processes and fails the benchmark if the formatting fails,
+     * because an invocation that fails early would distort the results.
+     *
+     * @param builders the builders of the formatting processes
+     * @param outputSink the sink that receives the output of all processes
+     *
+     * @throws IllegalStateException if the formatting failed
+     */
+    private void runFormattingProcesses(List<ProcessBuilder> builders, FormatterOutputSink outputSink)
+    {
+        final FeedbackMessage errorFeedback = FormattingUtils.runFormattingProcesses(
+                                                  builders,
+                                                  errorPrefix,
+                                                  sourceTree.getTotalSize(),
+                                                  outputSink,
+                                                  null,
+                                                  new NullProgressMonitor(),
+                                                  configuration);
+
+        if (errorFeedback != null)
+            throw new IllegalStateException(errorFeedback.getMessage());
+    }
+
+
+    /**
+     * This state reverts the formatting of the source tree before every invocation
+     * of a benchmark that runs the formatter, so that the real formatter always
+     * needs to change every file. The stub formatter never changes any file.
+     *
+     * @author GeRDI Project
+     */
+    @State(Scope.Benchmark)
+    public static class UnformattedTree
+    {
+        /**
+         * Reverts the formatting of the source tree.
+         *
+         * @param benchmark the benchmark state that holds the source tree
+         *
+         * @throws IOException if a file could not be written
+         */
+        @Setup(Level.Invocation)
+        public void reset(FormattingPipelineBenchmark benchmark) throws IOException
+        {
+            if (BenchmarkConstants.ASTYLE_FORMATTER.equals(benchmark.formatter))
+                benchmark.sourceTree.reset();
+        }
+    }
+}
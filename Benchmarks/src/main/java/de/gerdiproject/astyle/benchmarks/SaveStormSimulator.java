@@ -0,0 +1,224 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * This headless load simulator drives the auto-format path of the plugin with
+ * a storm of saves. Saves arrive at random intervals with a configurable mean rate,
+ * some of them as Save All bursts of multiple files. The saves are passed to a
+ * {@linkplain SimulatedSaveListener}, which hands them to the batching dispatcher of the
+ * plugin, whose formatter is replaced by a stub with a latency that grows with the
+ * simulated file sizes. Frequently edited files are saved more often than others.
+ * <br>
+ * Usage: {@code java -cp benchmarks.jar de.gerdiproject.astyle.benchmarks.SaveStormSimulator
+ * [--files=200] [--rate=5] [--duration=30] [--save-all-probability=0.1] [--save-all-size=8]
+ * [--median-size=8000] [--size-sigma=1.0] [--latency=30] [--latency-per-kb=0.5]
+ * [--quiet-period=300] [--seed=42]}
+ *
+ * @author GeRDI Project
+ */
+public class SaveStormSimulator
+{
+    private final Map<String, String> options;
+    private final Random random;
+
+
+    /**
+     * Constructor that parses the command line options.
+     *
+     * @param args options of the form {@code --name=value}
+     *
+     * @throws IllegalArgumentException if an option is unknown
+     */
+    public SaveStormSimulator(String[] args)
+    {
+        this.options = new HashMap<>();
+        options.put(BenchmarkConstants.FILES_OPTION, BenchmarkConstants.FILES_DEFAULT);
+        options.put(BenchmarkConstants.SAVE_RATE_OPTION, BenchmarkConstants.SAVE_RATE_DEFAULT);
+        options.put(BenchmarkConstants.DURATION_OPTION, BenchmarkConstants.DURATION_DEFAULT);
+        options.put(BenchmarkConstants.SAVE_ALL_PROBABILITY_OPTION, BenchmarkConstants.SAVE_ALL_PROBABILITY_DEFAULT);
+        options.put(BenchmarkConstants.SAVE_ALL_SIZE_OPTION, BenchmarkConstants.SAVE_ALL_SIZE_DEFAULT);
+        options.put(BenchmarkConstants.MEDIAN_FILE_SIZE_OPTION, BenchmarkConstants.MEDIAN_FILE_SIZE_DEFAULT);
+        options.put(BenchmarkConstants.FILE_SIZE_SIGMA_OPTION, BenchmarkConstants.FILE_SIZE_SIGMA_DEFAULT);
+        options.put(BenchmarkConstants.BASE_LATENCY_OPTION, BenchmarkConstants.BASE_LATENCY_DEFAULT);
+        options.put(BenchmarkConstants.LATENCY_PER_KILOBYTE_OPTION, BenchmarkConstants.LATENCY_PER_KILOBYTE_DEFAULT);
+        options.put(BenchmarkConstants.QUIET_PERIOD_OPTION, BenchmarkConstants.QUIET_PERIOD_DEFAULT);
+        options.put(BenchmarkConstants.SEED_OPTION, BenchmarkConstants.SEED_DEFAULT);
+
+        for (String arg : args) {
+            final int separatorIndex = arg.indexOf(BenchmarkConstants.OPTION_VALUE_SEPARATOR);
+
+            if (!arg.startsWith(BenchmarkConstants.OPTION_PREFIX) || separatorIndex == -1)
+                throw new IllegalArgumentException(String.format(BenchmarkConstants.ERROR_UNKNOWN_OPTION, arg));
+
+            final String name = arg.substring(BenchmarkConstants.OPTION_PREFIX.length(), separatorIndex);
+
+            if (!options.containsKey(name))
+                throw new IllegalArgumentException(String.format(BenchmarkConstants.ERROR_UNKNOWN_OPTION, arg));
+
+            options.put(name, arg.substring(separatorIndex + 1));
+        }
+
+        this.random = new Random(getLong(BenchmarkConstants.SEED_OPTION));
+    }
+
+
+    /**
+     * Runs the simulation and prints its report.
+     *
+     * @param args options of the form {@code --name=value}
+     *
+     * @throws InterruptedException if the simulation was interrupted
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        System.out.println(new SaveStormSimulator(args).run().createReport());
+    }
+
+
+    /**
+     * Saves random files until the duration of the simulation has passed,
+     * and waits for all resulting formatting batches to finish.
+     *
+     * @throws InterruptedException if the simulation was interrupted
+     *
+     * @return the statistics of the simulation
+     */
+    public SaveStormStatistics run() throws InterruptedException
+    {
+        final int fileCount = (int) getLong(BenchmarkConstants.FILES_OPTION);
+        final double saveRate = getDouble(BenchmarkConstants.SAVE_RATE_OPTION);
+        final long duration = getLong(BenchmarkConstants.DURATION_OPTION);
+        final double saveAllProbability = getDouble(BenchmarkConstants.SAVE_ALL_PROBABILITY_OPTION);
+        final int maxSaveAllSize = Math.max(1, Math.min(fileCount, (int) getLong(BenchmarkConstants.SAVE_ALL_SIZE_OPTION)));
+
+        final List<File> files = new ArrayList<>(fileCount);
+        final Map<File, Long> fileSizes = new HashMap<>();
+        final double medianSize = getDouble(BenchmarkConstants.MEDIAN_FILE_SIZE_OPTION);
+        final double sizeSigma = getDouble(BenchmarkConstants.FILE_SIZE_SIGMA_OPTION);
+
+        // file sizes follow a log-normal distribution
+        for (int i = 0; i < fileCount; i++) {
+            final File file = new File(BenchmarkConstants.SIMULATED_FILE_FOLDER, String.format(BenchmarkConstants.SIMULATED_FILE_NAME, i));
+            files.add(file);
+            fileSizes.put(file, Math.round(medianSize * Math.exp(sizeSigma * random.nextGaussian())));
+        }
+
+        final SaveStormStatistics statistics = new SaveStormStatistics();
+        final SimulatedDispatcher dispatcher = new SimulatedDispatcher(
+            statistics,
+            fileSizes,
+            getLong(BenchmarkConstants.QUIET_PERIOD_OPTION),
+            getLong(BenchmarkConstants.BASE_LATENCY_OPTION),
+            getDouble(BenchmarkConstants.LATENCY_PER_KILOBYTE_OPTION));
+        final SimulatedSaveListener saveListener = new SimulatedSaveListener(dispatcher);
+
+        System.out.println(String.format(BenchmarkConstants.SIMULATION_STARTED, (int) saveRate, fileCount, duration));
+
+        final long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(duration);
+        long nextSaveTime = System.nanoTime();
+
+        while (true) {
+            // the intervals between saves are exponentially distributed
+            nextSaveTime += (long)(-Math.log(1.0 - random.nextDouble()) / saveRate * TimeUnit.SECONDS.toNanos(1));
+
+            if (nextSaveTime > endTime)
+                break;
+
+            LockSupport.parkNanos(nextSaveTime - System.nanoTime());
+
+            if (random.nextDouble() < saveAllProbability) {
+                final List<File> dirtyFiles = pickFiles(files, 1 + random.nextInt(maxSaveAllSize));
+                statistics.recordSaveAll(dirtyFiles, System.nanoTime());
+                saveListener.saveAll(dirtyFiles);
+            } else {
+                final File savedFile = pickFiles(files, 1).get(0);
+                statistics.recordSave(savedFile, System.nanoTime());
+                saveListener.save(savedFile);
+            }
+
+            statistics.recordQueueDepth(dispatcher.getPendingTargetCount());
+        }
+
+        // wait for the quiet period and the last batch
+        while (dispatcher.getPendingTargetCount() != 0 || dispatcher.getState() != Job.NONE)
+            dispatcher.join();
+
+        return statistics;
+    }
+
+
+    /**
+     * Picks distinct random files, preferring the files with low indices,
+     * because a few files are edited far more often than the others.
+     *
+     * @param files all files that can be saved
+     * @param count the number of files that are picked
+     *
+     * @return a list of distinct files
+     */
+    private List<File> pickFiles(List<File> files, int count)
+    {
+        final Set<File> pickedFiles = new LinkedHashSet<>();
+
+        while (pickedFiles.size() < count) {
+            final double skewedRandom = Math.pow(random.nextDouble(), 3);
+            pickedFiles.add(files.get((int)(skewedRandom * files.size())));
+        }
+
+        return new ArrayList<>(pickedFiles);
+    }
+
+
+    /**
+     * Parses the value of an integer option.
+     *
+     * @param name the name of the option
+     *
+     * @return the value of the option
+     */
+    private long getLong(String name)
+    {
+        return Long.parseLong(options.get(name));
+    }
+
+
+    /**
+     * Parses the value of a decimal option.
+     *
+     * @param name the name of the option
+     *
+     * @return the value of the option
+     */
+    private double getDouble(String name)
+    {
+        return Double.parseDouble(options.get(name));
+    }
+}
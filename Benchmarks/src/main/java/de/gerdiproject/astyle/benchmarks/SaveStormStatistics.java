@@ -0,0 +1,222 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class tracks the saves of a simulated save storm and the formatting batches
+ * that are started for them. A save is covered by a formatting batch if the batch
+ * starts after the save, because the formatter reads the saved content.
+ * A save that is never covered is a dropped format, and a file that is formatted
+ * although none of its saves is pending is a duplicated format.
+ *
+ * @author GeRDI Project
+ */
+public class SaveStormStatistics
+{
+    private static final double NANOS_PER_MILLISECOND = 1000000.0;
+
+    private final Map<File, List<Long>> pendingSaves;
+    private final List<Long> latencies;
+    private int saveCount;
+    private int saveAllCount;
+    private int singleSaveCount;
+    private int batchCount;
+    private int formattedFileCount;
+    private int duplicatedFormatCount;
+    private int maxQueueDepth;
+    private long queueDepthSum;
+    private int queueDepthSampleCount;
+
+
+    /**
+     * Constructor that creates empty statistics.
+     */
+    public SaveStormStatistics()
+    {
+        this.pendingSaves = new HashMap<>();
+        this.latencies = new ArrayList<>();
+    }
+
+
+    /**
+     * Records that a single file was saved via the Save command.
+     *
+     * @param file the saved file
+     * @param time the {@linkplain System#nanoTime()} of the save
+     */
+    public synchronized void recordSave(File file, long time)
+    {
+        singleSaveCount++;
+        addPendingSave(file, time);
+    }
+
+
+    /**
+     * Records that multiple files were saved via the Save All command.
+     *
+     * @param files the saved files
+     * @param time the {@linkplain System#nanoTime()} of the save
+     */
+    public synchronized void recordSaveAll(Collection<File> files, long time)
+    {
+        saveAllCount++;
+
+        for (File file : files)
+            addPendingSave(file, time);
+    }
+
+
+    /**
+     * Records the number of files that wait for the quiet period to pass.
+     *
+     * @param queueDepth the number of pending files of the dispatcher
+     */
+    public synchronized void recordQueueDepth(int queueDepth)
+    {
+        maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+        queueDepthSum += queueDepth;
+        queueDepthSampleCount++;
+    }
+
+
+    /**
+     * Records the start of a formatting batch and removes the saves that
+     * are covered by it from the pending saves.
+     *
+     * @param files the files that are formatted by the batch
+     *
+     * @return the times of the saves that are covered by the batch
+     */
+    public synchronized List<Long> startBatch(Collection<File> files)
+    {
+        final List<Long> coveredSaves = new LinkedList<>();
+        batchCount++;
+        formattedFileCount += files.size();
+
+        for (File file : files) {
+            final List<Long> saveTimes = pendingSaves.remove(file);
+
+            if (saveTimes == null)
+                duplicatedFormatCount++;
+            else
+                coveredSaves.addAll(saveTimes);
+        }
+
+        return coveredSaves;
+    }
+
+
+    /**
+     * Records the end of a formatting batch and the latencies of all saves
+     * that were covered by it.
+     *
+     * @param coveredSaves the times of the saves that are covered by the batch
+     * @param time the {@linkplain System#nanoTime()} at which the batch finished
+     */
+    public synchronized void finishBatch(List<Long> coveredSaves, long time)
+    {
+        for (long saveTime : coveredSaves)
+            latencies.add(time - saveTime);
+    }
+
+
+    /**
+     * Returns the number of saves that were not covered by any formatting batch.
+     *
+     * @return the number of dropped formats
+     */
+    public synchronized int getDroppedFormatCount()
+    {
+        int droppedFormatCount = 0;
+
+        for (List<Long> saveTimes : pendingSaves.values())
+            droppedFormatCount += saveTimes.size();
+
+        return droppedFormatCount;
+    }
+
+
+    /**
+     * Creates a human readable report of the statistics.
+     *
+     * @return a report of the statistics
+     */
+    public synchronized String createReport()
+    {
+        final long[] sortedLatencies = new long[latencies.size()];
+
+        for (int i = 0; i < sortedLatencies.length; i++)
+            sortedLatencies[i] = latencies.get(i);
+
+        Arrays.sort(sortedLatencies);
+
+        final double meanQueueDepth = queueDepthSampleCount == 0 ? 0 : (double) queueDepthSum / queueDepthSampleCount;
+
+        return String.join(
+                   System.lineSeparator(),
+                   String.format(BenchmarkConstants.REPORT_SAVES, saveCount, singleSaveCount, saveAllCount),
+                   String.format(BenchmarkConstants.REPORT_BATCHES, batchCount, formattedFileCount),
+                   String.format(
+                       BenchmarkConstants.REPORT_LATENCY,
+                       getPercentile(sortedLatencies, 50) / NANOS_PER_MILLISECOND,
+                       getPercentile(sortedLatencies, 99) / NANOS_PER_MILLISECOND,
+                       getPercentile(sortedLatencies, 100) / NANOS_PER_MILLISECOND),
+                   String.format(BenchmarkConstants.REPORT_QUEUE_DEPTH, meanQueueDepth, maxQueueDepth),
+                   String.format(BenchmarkConstants.REPORT_DROPPED, getDroppedFormatCount()),
+                   String.format(BenchmarkConstants.REPORT_DUPLICATED, duplicatedFormatCount));
+    }
+
+
+    /**
+     * Adds a save to the saves that wait for a formatting batch.
+     *
+     * @param file the saved file
+     * @param time the {@linkplain System#nanoTime()} of the save
+     */
+    private void addPendingSave(File file, long time)
+    {
+        saveCount++;
+        pendingSaves.computeIfAbsent(file, (File f) -> new LinkedList<>()).add(time);
+    }
+
+
+    /**
+     * Retrieves a percentile of sorted values, using the nearest-rank method.
+     *
+     * @param sortedValues values that are sorted in ascending order
+     * @param percentile a percentile between 1 and 100
+     *
+     * @return the value at the percentile, or 0 if there are no values
+     */
+    private static long getPercentile(long[] sortedValues, int percentile)
+    {
+        if (sortedValues.length == 0)
+            return 0;
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+
+import de.gerdiproject.astyle.jobs.FormattingDispatcher;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+
+/**
+ * This dispatcher batches saved files exactly like the dispatcher of the plugin,
+ * but replaces the formatter with a stub that blocks for a controllable duration
+ * and records which saves are covered by each batch.
+ *
+ * @author GeRDI Project
+ */
+public class SimulatedDispatcher extends FormattingDispatcher
+{
+    private final SaveStormStatistics statistics;
+    private final Map<File, Long> fileSizes;
+    private final long quietPeriod;
+    private final long baseLatency;
+    private final double latencyPerKilobyte;
+
+
+    /**
+     * Constructor that requires the latency model of the stub formatter.
+     *
+     * @param statistics the statistics that record the batches
+     * @param fileSizes the simulated number of bytes of each file
+     * @param quietPeriod the milliseconds that must pass without a save before saved files are formatted
+     * @param baseLatency the milliseconds that each formatting batch takes at least
+     * @param latencyPerKilobyte the additional milliseconds per formatted kilobyte
+     */
+    public SimulatedDispatcher(SaveStormStatistics statistics, Map<File, Long> fileSizes, long quietPeriod, long baseLatency, double latencyPerKilobyte)
+    {
+        super();
+        this.statistics = statistics;
+        this.fileSizes = fileSizes;
+        this.quietPeriod = quietPeriod;
+        this.baseLatency = baseLatency;
+        this.latencyPerKilobyte = latencyPerKilobyte;
+    }
+
+
+    @Override
+    protected List<FeedbackMessage> formatBatch(Map<File, IProject> batch, IProgressMonitor monitor)
+    {
+        final List<Long> coveredSaves = statistics.startBatch(batch.keySet());
+        long batchSize = 0;
+
+        for (File file : batch.keySet())
+            batchSize += fileSizes.getOrDefault(file, 0L);
+
+        try {
+            Thread.sleep(baseLatency + (long)(latencyPerKilobyte * batchSize / 1024));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        statistics.finishBatch(coveredSaves, System.nanoTime());
+        return Collections.emptyList();
+    }
+
+
+    @Override
+    protected ISchedulingRule createBatchRule(Map<File, IProject> batch)
+    {
+        // there is no workspace whose projects could be locked
+        return null;
+    }
+
+
+    @Override
+    protected long getQuietPeriod()
+    {
+        return quietPeriod;
+    }
+}
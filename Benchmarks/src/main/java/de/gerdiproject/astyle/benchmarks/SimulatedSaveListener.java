@@ -0,0 +1,86 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.listeners.SaveListener;
+
+/**
+ * This listener receives the same save commands as the listener of the plugin,
+ * but takes the saved files from the simulation instead of the workbench.
+ *
+ * @author GeRDI Project
+ */
+public class SimulatedSaveListener extends SaveListener
+{
+    private List<File> savedFiles;
+
+
+    /**
+     * Constructor that requires the dispatcher which formats saved files in batches.
+     *
+     * @param dispatcher the dispatcher that formats saved files in batches
+     */
+    public SimulatedSaveListener(SimulatedDispatcher dispatcher)
+    {
+        super(dispatcher);
+        this.savedFiles = Collections.emptyList();
+    }
+
+
+    /**
+     * Simulates the Save command of an editor.
+     *
+     * @param file the file that is saved
+     */
+    public void save(File file)
+    {
+        savedFiles = Collections.singletonList(file);
+        postExecuteSuccess(AStyleHandlerConstants.SAVE_COMMAND, null);
+    }
+
+
+    /**
+     * Simulates the Save All command.
+     *
+     * @param files the files of all dirty editors
+     */
+    public void saveAll(List<File> files)
+    {
+        savedFiles = files;
+        postExecuteSuccess(AStyleHandlerConstants.SAVE_ALL_COMMAND, null);
+    }
+
+
+    @Override
+    protected void enqueueActiveFile()
+    {
+        getFormattingDispatcher().enqueue(savedFiles.get(0), null);
+    }
+
+
+    @Override
+    protected void enqueueSavedEditors()
+    {
+        for (File file : savedFiles)
+            getFormattingDispatcher().enqueue(file, null);
+    }
+}
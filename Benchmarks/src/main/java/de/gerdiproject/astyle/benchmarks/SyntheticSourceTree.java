@@ -0,0 +1,233 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class creates a tree of generated Java source files that can be formatted
+ * by the benchmarks. The files are distributed to nested packages of equal size and
+ * are deliberately badly formatted, so that AStyle needs to change every one of them.
+ *
+ * @author GeRDI Project
+ */
+public class SyntheticSourceTree
+{
+    private final Path root;
+    private final List<File> files;
+    private final long totalSize;
+
+
+    /**
+     * Constructor that requires the generated files.
+     *
+     * @param root the folder that contains the source folder
+     * @param files the generated source files
+     * @param totalSize the number of bytes of all generated files together
+     */
+    private SyntheticSourceTree(Path root, List<File> files, long totalSize)
+    {
+        this.root = root;
+        this.files = Collections.unmodifiableList(files);
+        this.totalSize = totalSize;
+    }
+
+
+    /**
+     * Generates a source tree within a specified folder.
+     *
+     * @param root the folder in which the source folder is created
+     * @param fileCount the number of source files that are generated
+     *
+     * @throws IOException if a file could not be written
+     *
+     * @return the generated source tree
+     */
+    public static SyntheticSourceTree create(Path root, int fileCount) throws IOException
+    {
+        final Path sourceFolder = root.resolve(BenchmarkConstants.SOURCE_FOLDER);
+        final List<File> files = new ArrayList<>(fileCount);
+        long totalSize = 0;
+
+        for (int i = 0; i < fileCount; i++) {
+            final Path packageFolder = getPackageFolder(sourceFolder, i / BenchmarkConstants.FILES_PER_PACKAGE);
+            final String className = String.format(BenchmarkConstants.CLASS_NAME, i);
+            final Path sourceFile = packageFolder.resolve(String.format(BenchmarkConstants.JAVA_FILE_NAME, className));
+
+            Files.createDirectories(packageFolder);
+            final byte[] content = createUnformattedSource(sourceFolder.relativize(packageFolder), className);
+            Files.write(sourceFile, content);
+
+            files.add(sourceFile.toFile());
+            totalSize += content.length;
+        }
+
+        return new SyntheticSourceTree(root, files, totalSize);
+    }
+
+
+    /**
+     * Reverts the formatting of all generated files by generating them again.
+     *
+     * @throws IOException if a file could not be written
+     */
+    public void reset() throws IOException
+    {
+        final Path sourceFolder = root.resolve(BenchmarkConstants.SOURCE_FOLDER);
+
+        for (File file : files) {
+            final Path sourceFile = file.toPath();
+            final String fileName = sourceFile.getFileName().toString();
+            final String className = fileName.substring(0, fileName.lastIndexOf('.'));
+
+            Files.write(sourceFile, createUnformattedSource(sourceFolder.relativize(sourceFile.getParent()), className));
+        }
+    }
+
+
+    /**
+     * Deletes the folder that contains the source tree, including all of its files.
+     *
+     * @throws IOException if a file could not be deleted
+     */
+    public void delete() throws IOException
+    {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+            {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException
+            {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+
+    /**
+     * Returns the folder that contains the source folder.
+     *
+     * @return the folder that contains the source folder
+     */
+    public Path getRoot()
+    {
+        return root;
+    }
+
+
+    /**
+     * Returns all generated source files.
+     *
+     * @return an unmodifiable list of all generated source files
+     */
+    public List<File> getFiles()
+    {
+        return files;
+    }
+
+
+    /**
+     * Returns the number of bytes of all generated files together.
+     *
+     * @return the number of bytes of all generated files together
+     */
+    public long getTotalSize()
+    {
+        return totalSize;
+    }
+
+
+    /**
+     * Returns the folder of a package. The package index is split into digits,
+     * each of which names one level of nested packages, so that no folder
+     * contains more than a few subfolders.
+     *
+     * @param sourceFolder the source folder that contains all packages
+     * @param packageIndex the index of the package
+     *
+     * @return the folder of the package
+     */
+    private static Path getPackageFolder(Path sourceFolder, int packageIndex)
+    {
+        final List<String> levels = new ArrayList<>();
+        int remainder = packageIndex;
+
+        do {
+            levels.add(String.format(BenchmarkConstants.PACKAGE_NAME, remainder % BenchmarkConstants.PACKAGES_PER_LEVEL));
+            remainder /= BenchmarkConstants.PACKAGES_PER_LEVEL;
+        } while (remainder != 0);
+
+        Path packageFolder = sourceFolder;
+
+        for (int i = levels.size() - 1; i >= 0; i--)
+            packageFolder = packageFolder.resolve(levels.get(i));
+
+        return packageFolder;
+    }
+
+
+    /**
+     * Generates the content of a source file with inconsistent indentation,
+     * missing blank lines, and braces that are placed on the wrong lines.
+     *
+     * @param packagePath the path of the package relative to the source folder
+     * @param className the name of the generated class
+     *
+     * @return the UTF-8 bytes of the source file
+     */
+    private static byte[] createUnformattedSource(Path packagePath, String className)
+    {
+        final StringBuilder source = new StringBuilder(4096);
+        source.append("package ").append(packagePath.toString().replace(File.separatorChar, '.')).append(";\n");
+        source.append("import java.util.List;\nimport java.util.ArrayList;\n");
+        source.append("public class ").append(className).append(" {\n");
+        source.append("private final List<String> values=new ArrayList<>();\n");
+
+        for (int i = 0; i < BenchmarkConstants.METHODS_PER_CLASS; i++) {
+            source.append("      public int method").append(i).append("(int value){\n");
+            source.append("  if(value>").append(i).append("){\n");
+            source.append("        values.add(String.valueOf(value));\n");
+            source.append("   return value*").append(i + 1).append(";}\n");
+            source.append("else {\n");
+            source.append("for(int j=0;j<value;j++) values.add(\"").append(className).append("\");\n");
+            source.append("    return values.size();\n");
+            source.append("  }\n");
+            source.append("}\n");
+        }
+
+        source.append("}\n");
+        return source.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -15,12 +15,35 @@
  */
 package de.gerdiproject.astyle;
 
+import java.io.File;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.IStartup;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.cache.FormattedStateIndex;
+import de.gerdiproject.astyle.cache.HarvesterScriptCache;
+import de.gerdiproject.astyle.cache.PathFilterCache;
+import de.gerdiproject.astyle.cache.SharedFormatCache;
+import de.gerdiproject.astyle.cache.SourceRootCache;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.jobs.FormattingDispatcher;
 import de.gerdiproject.astyle.listeners.AutoFormatChangedListener;
+import de.gerdiproject.astyle.listeners.ConfigurationChangedListener;
+import de.gerdiproject.astyle.listeners.DirtyFileTracker;
+import de.gerdiproject.astyle.listeners.FilePatternsChangedListener;
+import de.gerdiproject.astyle.listeners.FormatterPathsChangedListener;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.FormatterProcessPool;
+import de.gerdiproject.astyle.process.FormatterTimeoutRecorder;
 
 /**
  * The activator class controls the plug-in life cycle.
@@ -35,6 +58,36 @@ public class Activator extends AbstractUIPlugin implements IStartup
     // The shared instance
     private static Activator plugin;
 
+    // snapshot of the AStyle preferences
+    private ConfigurationChangedListener configurationListener;
+
+    // pre-started AStyle processes
+    private FormatterProcessPool formatterPool;
+
+    // hashes of file contents that are already formatted
+    private FormattedFileCache formattedFileCache;
+
+    // files that changed since they were formatted
+    private DirtyFileTracker dirtyFileTracker;
+
+    // projects that are formatted by a harvester script
+    private HarvesterScriptCache harvesterScriptCache;
+
+    // source folders of projects
+    private SourceRootCache sourceRootCache;
+
+    // compiled file patterns of projects
+    private PathFilterCache pathFilterCache;
+
+    // formatters that did not finish in time
+    private FormatterTimeoutRecorder timeoutRecorder;
+
+    // collects saved files and formats them in batches
+    private FormattingDispatcher formattingDispatcher;
+
+    // formatted files that are shared with other workspaces
+    private SharedFormatCache sharedFormatCache;
+
 
     /**
      * The constructor
@@ -58,18 +111,83 @@ public class Activator extends AbstractUIPlugin implements IStartup
         super.start(context);
         plugin = this;
 
+        // resolve the preferences before anything is formatted
+        configurationListener = new ConfigurationChangedListener(getPreferenceStore());
+        getPreferenceStore().addPropertyChangeListener(configurationListener);
+
+        formatterPool = new FormatterProcessPool();
+        formattedFileCache = new FormattedFileCache(new FormattedStateIndex(getStateLocation().toFile()));
+        formattingDispatcher = new FormattingDispatcher();
+        timeoutRecorder = new FormatterTimeoutRecorder();
+
         plugin.getPreferenceStore().addPropertyChangeListener(new AutoFormatChangedListener());
+        plugin.getPreferenceStore().addPropertyChangeListener(new FormatterPathsChangedListener(formattedFileCache));
+
+        startDirtyFileTracking();
+        plugin.getPreferenceStore().addPropertyChangeListener(new FilePatternsChangedListener(dirtyFileTracker));
+
+        harvesterScriptCache = new HarvesterScriptCache();
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(harvesterScriptCache, IResourceChangeEvent.POST_CHANGE);
+
+        sourceRootCache = new SourceRootCache();
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(sourceRootCache, IResourceChangeEvent.POST_CHANGE);
+
+        pathFilterCache = new PathFilterCache();
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(pathFilterCache, IResourceChangeEvent.POST_CHANGE);
     }
 
 
     @Override
     public void stop(BundleContext context) throws Exception
     {
+        // abort pending formatting jobs
+        Job.getJobManager().cancel(AStyleHandlerConstants.FORMATTING_JOB_FAMILY);
+
+        // kill idle formatter processes
+        formatterPool.shutdown();
+
+        // compact the index of formatted files, so that the next startup is fast
+        formattedFileCache.close();
+
+        synchronized (this) {
+            if (sharedFormatCache != null)
+                sharedFormatCache.dispose();
+        }
+
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        workspace.removeResourceChangeListener(dirtyFileTracker);
+        workspace.removeResourceChangeListener(harvesterScriptCache);
+        workspace.removeResourceChangeListener(sourceRootCache);
+        workspace.removeResourceChangeListener(pathFilterCache);
+        workspace.removeSaveParticipant(PLUGIN_ID);
+
         plugin = null;
         super.stop(context);
     }
 
 
+    /**
+     * Restores the files that changed since they were formatted, and starts
+     * tracking further changes.
+     *
+     * @throws CoreException if the save participant could not be registered
+     */
+    private void startDirtyFileTracking() throws CoreException
+    {
+        final File stateFile = getStateLocation().append(AStyleHandlerConstants.DIRTY_FILES_STATE_FILE).toFile();
+        dirtyFileTracker = new DirtyFileTracker(stateFile);
+
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        final ISavedState lastState = workspace.addSaveParticipant(PLUGIN_ID, dirtyFileTracker);
+
+        // replay the changes that happened since the state was saved
+        if (lastState != null)
+            lastState.processResourceChangeEvents(dirtyFileTracker);
+
+        workspace.addResourceChangeListener(dirtyFileTracker, IResourceChangeEvent.POST_CHANGE);
+    }
+
+
     /**
      * Returns the shared instance
      *
@@ -81,6 +199,131 @@ public class Activator extends AbstractUIPlugin implements IStartup
     }
 
 
+    /**
+     * Returns the snapshot of the current AStyle preferences.
+     *
+     * @return the snapshot of the current AStyle preferences
+     */
+    public FormatterConfiguration getConfiguration()
+    {
+        return configurationListener != null ? configurationListener.getConfiguration() : null;
+    }
+
+
+    /**
+     * Returns the pool of pre-started formatter processes.
+     *
+     * @return the pool of pre-started formatter processes
+     */
+    public FormatterProcessPool getFormatterPool()
+    {
+        return formatterPool;
+    }
+
+
+    /**
+     * Returns the cache of file contents that are already formatted.
+     *
+     * @return the cache of file contents that are already formatted
+     */
+    public FormattedFileCache getFormattedFileCache()
+    {
+        return formattedFileCache;
+    }
+
+
+    /**
+     * Returns the tracker of files that changed since they were formatted.
+     *
+     * @return the tracker of files that changed since they were formatted
+     */
+    public DirtyFileTracker getDirtyFileTracker()
+    {
+        return dirtyFileTracker;
+    }
+
+
+    /**
+     * Returns the cache of projects that are formatted by a harvester script.
+     *
+     * @return the cache of projects that are formatted by a harvester script
+     */
+    public HarvesterScriptCache getHarvesterScriptCache()
+    {
+        return harvesterScriptCache;
+    }
+
+
+    /**
+     * Returns the cache of the source folders of projects.
+     *
+     * @return the cache of the source folders of projects
+     */
+    public SourceRootCache getSourceRootCache()
+    {
+        return sourceRootCache;
+    }
+
+
+    /**
+     * Returns the cache of the compiled file patterns of projects.
+     *
+     * @return the cache of the compiled file patterns of projects
+     */
+    public PathFilterCache getPathFilterCache()
+    {
+        return pathFilterCache;
+    }
+
+
+    /**
+     * Returns the recorder of formatters that did not finish in time.
+     *
+     * @return the recorder of formatters that did not finish in time
+     */
+    public FormatterTimeoutRecorder getTimeoutRecorder()
+    {
+        return timeoutRecorder;
+    }
+
+
+    /**
+     * Returns the dispatcher that formats saved files in batches.
+     *
+     * @return the dispatcher that formats saved files in batches
+     */
+    public FormattingDispatcher getFormattingDispatcher()
+    {
+        return formattingDispatcher;
+    }
+
+
+    /**
+     * Returns the cache of formatted files that are shared with other workspaces.
+     * The cache is only replaced if its directory or size limit changes, so that it
+     * keeps track of the bytes that were written since its last garbage collection.
+     *
+     * @param root the directory of the cache
+     * @param maxSize the number of bytes that the cache may occupy
+     *
+     * @return the shared format cache
+     */
+    public synchronized SharedFormatCache getSharedFormatCache(File root, long maxSize)
+    {
+        if (sharedFormatCache == null
+            || !sharedFormatCache.getRoot().equals(root)
+            || sharedFormatCache.getMaxSize() != maxSize) {
+
+            if (sharedFormatCache != null)
+                sharedFormatCache.dispose();
+
+            sharedFormatCache = new SharedFormatCache(root, maxSize);
+        }
+
+        return sharedFormatCache;
+    }
+
+
     /**
      * Returns an image descriptor for the image file at the given
      * plug-in relative path
@@ -0,0 +1,65 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+/**
+ * This class offers constants that are used by the {@linkplain FormattedFileCache}.
+ *
+ * @author GeRDI Project
+ */
+public class AStyleCacheConstants
+{
+    public static final int MAX_FORMATTED_ENTRIES = 50000;
+    public static final int MAX_FILE_STATES = 50000;
+
+    public static final String HASH_ALGORITHM = "SHA-1";
+    public static final String VERSION_CMD_PARAM = "--version";
+    public static final String FINGERPRINT_SEPARATOR = "|";
+
+    public static final String STATE_INDEX_FILE = "formattedState.%d.idx";
+    public static final String STATE_INDEX_FILE_PATTERN = "formattedState\\.(\\d+)\\.idx";
+    public static final String STATE_JOURNAL_FILE = "formattedState.log";
+    public static final int STATE_INDEX_MAGIC = 0x41534958;
+    public static final int STATE_JOURNAL_MAGIC = 0x41534A4C;
+    public static final int STATE_FORMAT_VERSION = 1;
+    public static final int HASH_LENGTH = 20;
+    public static final int MIN_COMPACTION_ENTRIES = 10000;
+    public static final long TIMESTAMP_GRANULARITY = 2000;
+
+    public static final String SHARED_CACHE_TEMP_FOLDER = "tmp";
+    public static final String SHARED_CACHE_ENTRY_SUFFIX = ".fmt";
+    public static final String SHARED_CACHE_TEMP_SUFFIX = ".tmp";
+    public static final String SHARED_CACHE_GC_JOB_NAME = "AStyle: Cleaning up the Shared Format Cache";
+    public static final int SHARED_CACHE_KEY_FOLDER_LENGTH = 2;
+    public static final int SHARED_CACHE_GC_TRIGGER_DIVISOR = 10;
+    public static final int SHARED_CACHE_GC_TARGET_PERCENT = 80;
+    public static final long SHARED_CACHE_TOUCH_INTERVAL = 600000;
+    public static final long SHARED_CACHE_STALE_TEMP_AGE = 3600000;
+
+    public static final String CLASSPATH_FILE = ".classpath";
+    public static final String JAVA_CORE_CLASS = "org.eclipse.jdt.core.JavaCore";
+    public static final String PROJECT_SETTINGS_FILE = ".settings/%s.prefs";
+
+
+    /**
+     * Private constructor, because this is just a collection of constants.
+     */
+    private AStyleCacheConstants()
+    {
+
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.AStyleProcessConstants;
+import de.gerdiproject.astyle.process.FormatterOutputSink;
+import de.gerdiproject.astyle.process.StreamPump;
+import de.gerdiproject.astyle.utils.ProcessUtils;
+
+/**
+ * This cache remembers the contents of files that are already formatted.
+ * Entries are keyed by the hash of the file content and a fingerprint of the
+ * formatter configuration, which consists of the hash of the options file and
+ * the version of the AStyle binary.
+ * Both the number of remembered contents and the number of memorized file
+ * hashes are bounded, evicting the least recently used entries.
+ * Formatted workspace files are additionally persisted in a {@linkplain FormattedStateIndex},
+ * so that they do not need to be read or formatted again after a restart.
+ *
+ * @author GeRDI Project
+ */
+public class FormattedFileCache
+{
+    private final Map<String, Boolean> formattedContents;
+    private final Map<String, FileState> fileStates;
+    private final Map<String, String> binaryVersions;
+    private final FormattedStateIndex stateIndex;
+
+
+    /**
+     * Constructor that creates an empty cache, which is not persisted.
+     */
+    public FormattedFileCache()
+    {
+        this(null);
+    }
+
+
+    /**
+     * Constructor that creates a cache which persists formatted workspace files.
+     *
+     * @param stateIndex the index in which formatted workspace files are persisted, or null
+     */
+    public FormattedFileCache(FormattedStateIndex stateIndex)
+    {
+        this.stateIndex = stateIndex;
+        this.formattedContents = new LruMap<>(AStyleCacheConstants.MAX_FORMATTED_ENTRIES);
+        this.fileStates = new LruMap<>(AStyleCacheConstants.MAX_FILE_STATES);
+        this.binaryVersions = new LruMap<>(AStyleCacheConstants.MAX_FILE_STATES);
+    }
+
+
+    /**
+     * Checks if a content hash was previously marked as being formatted
+     * with a specified formatter configuration.
+     *
+     * @param contentHash the hash of a file content
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return true if the content is known to be formatted
+     */
+    public synchronized boolean isFormatted(String contentHash, String fingerprint)
+    {
+        return formattedContents.containsKey(contentHash + fingerprint);
+    }
+
+
+    /**
+     * Remembers that a content is formatted with respect to a specified formatter configuration.
+     *
+     * @param contentHash the hash of a formatted file content
+     * @param fingerprint the fingerprint of the formatter configuration
+     */
+    public synchronized void markFormatted(String contentHash, String fingerprint)
+    {
+        formattedContents.put(contentHash + fingerprint, Boolean.TRUE);
+    }
+
+
+    /**
+     * Checks if a file content was previously marked as being formatted with
+     * a specified formatter configuration, either since the start of Eclipse
+     * or, if the file is part of the workspace, before.
+     *
+     * @param file the file of which the content is checked
+     * @param contentHash the hash of the current file content
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return true if the content is known to be formatted
+     */
+    public boolean isFormatted(File file, String contentHash, String fingerprint)
+    {
+        if (isFormatted(contentHash, fingerprint))
+            return true;
+
+        final String workspacePath = stateIndex != null ? getWorkspacePath(file) : null;
+        return workspacePath != null && stateIndex.isFormatted(workspacePath, contentHash, fingerprint);
+    }
+
+
+    /**
+     * Remembers that the content of a file is formatted with respect to a specified
+     * formatter configuration. If the file is part of the workspace, this is persisted.
+     *
+     * @param file the formatted file
+     * @param contentHash the hash of the formatted file content
+     * @param fingerprint the fingerprint of the formatter configuration
+     */
+    public void markFormatted(File file, String contentHash, String fingerprint)
+    {
+        markFormatted(contentHash, fingerprint);
+
+        final String workspacePath = stateIndex != null ? getWorkspacePath(file) : null;
+
+        if (workspacePath != null)
+            stateIndex.put(workspacePath, file.lastModified(), file.length(), contentHash, fingerprint);
+    }
+
+
+    /**
+     * Persists all pending changes of the index of formatted files.
+     */
+    public void close()
+    {
+        if (stateIndex != null)
+            stateIndex.close();
+    }
+
+
+    /**
+     * Forgets all formatted contents and binary versions.
+     * This is required if the formatter paths change.
+     */
+    public synchronized void clear()
+    {
+        formattedContents.clear();
+        binaryVersions.clear();
+    }
+
+
+    /**
+     * Returns the hash of a file content. The file is only read if its
+     * size or modification date changed since the last time its hash was computed,
+     * or if it was modified within the timestamp granularity of that time. Such racily
+     * clean files may have changed again without changing their modification date.
+     *
+     * @param file the file of which the content hash is retrieved
+     *
+     * @throws IOException if the file could not be read
+     *
+     * @return the hash of the file content
+     */
+    public String getContentHash(File file) throws IOException
+    {
+        final String path = file.getAbsolutePath();
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+
+        synchronized (this) {
+            final FileState state = fileStates.get(path);
+
+            if (state != null && state.lastModified == lastModified && state.length == length && !state.isRacilyClean())
+                return state.contentHash;
+        }
+
+        // files that did not change since they were indexed need not be read
+        final String workspacePath = stateIndex != null ? getWorkspacePath(file) : null;
+        final String indexedHash = workspacePath != null
+                                   ? stateIndex.getContentHash(workspacePath, lastModified, length)
+                                   : null;
+
+        if (indexedHash != null) {
+            updateContentHash(file, lastModified, length, indexedHash);
+            return indexedHash;
+        }
+
+        final String contentHash = hash(Files.readAllBytes(file.toPath()));
+        updateContentHash(file, lastModified, length, contentHash);
+
+        if (workspacePath != null)
+            stateIndex.refresh(workspacePath, lastModified, length, contentHash);
+
+        return contentHash;
+    }
+
+
+    /**
+     * Memorizes the hash of a file content that was just read or written,
+     * sparing a future read of the file.
+     *
+     * @param file the file of which the content hash is memorized
+     * @param contentHash the hash of the current file content
+     */
+    public void updateContentHash(File file, String contentHash)
+    {
+        updateContentHash(file, file.lastModified(), file.length(), contentHash);
+    }
+
+
+    /**
+     * Retrieves a fingerprint of the formatter configuration that is used for formatting a file.
+     * If the project uses a harvester formatting script, the fingerprint consists of the contents
+     * of the script folder. Otherwise, the fingerprint consists of the options file content and
+     * the version of the AStyle binary that are defined in the plugin preferences.
+     *
+     * @param harvesterScript the harvester formatting script of a project, or null if the project has none
+     *
+     * @return a fingerprint of the formatter configuration, or null if it could not be determined
+     */
+    public String getFingerprint(File harvesterScript)
+    {
+        return getFingerprint(harvesterScript, FormatterConfiguration.getCurrent());
+    }
+
+
+    /**
+     * Retrieves a fingerprint of the formatter configuration that is used for formatting a file,
+     * using a formatter configuration that need not be the one of the plugin preferences.
+     *
+     * @param harvesterScript the harvester formatting script of a project, or null if the project has none
+     * @param configuration the configuration that defines the options file and AStyle binary
+     *
+     * @return a fingerprint of the formatter configuration, or null if it could not be determined
+     */
+    public String getFingerprint(File harvesterScript, FormatterConfiguration configuration)
+    {
+        final StringBuilder fingerprintBuilder = new StringBuilder();
+
+        try {
+            if (harvesterScript != null) {
+                // the script folder also contains the options file
+                final File[] scriptFiles = harvesterScript.getParentFile().listFiles(File::isFile);
+
+                if (scriptFiles == null)
+                    return null;
+
+                Arrays.sort(scriptFiles);
+
+                for (File scriptFile : scriptFiles)
+                    fingerprintBuilder.append(scriptFile.getName())
+                    .append(AStyleCacheConstants.FINGERPRINT_SEPARATOR)
+                    .append(getContentHash(scriptFile))
+                    .append(AStyleCacheConstants.FINGERPRINT_SEPARATOR);
+            } else {
+                if (!configuration.isFormatterDefined())
+                    return null;
+
+                final String binaryVersion = getBinaryVersion(configuration);
+
+                if (binaryVersion == null)
+                    return null;
+
+                fingerprintBuilder.append(getContentHash(new File(configuration.getOptionsFilePath())))
+                .append(AStyleCacheConstants.FINGERPRINT_SEPARATOR)
+                .append(binaryVersion);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        return hash(fingerprintBuilder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Computes the hash of a byte array.
+     *
+     * @param content the bytes that are to be hashed
+     *
+     * @return a Base64 representation of the hash
+     */
+    public static String hash(byte[] content)
+    {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(AStyleCacheConstants.HASH_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(content));
+
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Memorizes the hash of a file content along with the file attributes
+     * at the time of reading.
+     *
+     * @param file the file of which the content hash is memorized
+     * @param lastModified the modification date of the file
+     * @param length the size of the file in bytes
+     * @param contentHash the hash of the file content
+     */
+    private synchronized void updateContentHash(File file, long lastModified, long length, String contentHash)
+    {
+        fileStates.put(file.getAbsolutePath(), new FileState(lastModified, length, contentHash, System.currentTimeMillis()));
+    }
+
+
+    /**
+     * Converts the absolute path of a file to its workspace relative path.
+     *
+     * @param file a file
+     *
+     * @return the workspace relative path of the file, or null if it is not part of the workspace
+     */
+    private static String getWorkspacePath(File file)
+    {
+        final IFile workspaceFile = ResourcesPlugin.getWorkspace().getRoot()
+                                    .getFileForLocation(Path.fromOSString(file.getAbsolutePath()));
+
+        return workspaceFile != null ? workspaceFile.getFullPath().toPortableString() : null;
+    }
+
+
+    /**
+     * Retrieves the version of an AStyle binary by executing it. Versions are
+     * memorized for as long as the binary is not modified.
+     *
+     * @param configuration the configuration that specifies the AStyle binary
+     *
+     * @return the version of the AStyle binary, or null if it could not be executed
+     */
+    private String getBinaryVersion(FormatterConfiguration configuration)
+    {
+        final String binary = String.format(AStyleHandlerConstants.ASTYLE_BIN_CMD, configuration.getBinaryPath());
+        final String versionKey = binary + new File(binary).lastModified();
+
+        synchronized (this) {
+            final String binaryVersion = binaryVersions.get(versionKey);
+
+            if (binaryVersion != null)
+                return binaryVersion;
+        }
+
+        try {
+            final Process versionProcess = new ProcessBuilder(
+                configuration.getBinaryCommand(),
+                AStyleCacheConstants.VERSION_CMD_PARAM)
+            .redirectErrorStream(true)
+            .start();
+
+            // a hanging binary must not block the formatting forever
+            final FormatterOutputSink versionSink = new FormatterOutputSink(true, null);
+            final StreamPump versionPump = StreamPump.start(
+                                               versionProcess.getInputStream(),
+                                               versionSink,
+                                               AStyleProcessConstants.READER_THREAD_NAME);
+
+            if (ProcessUtils.waitFor(versionProcess, AStyleProcessConstants.VERSION_TIMEOUT, new NullProgressMonitor()) != 0)
+                return null;
+
+            versionPump.join();
+            final String binaryVersion = versionSink.toString();
+
+            synchronized (this) {
+                binaryVersions.put(versionKey, binaryVersion);
+            }
+            return binaryVersion;
+
+        } catch (IOException | TimeoutException e) {
+            return null;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+
+    /**
+     * This class represents the attributes of a file at the time its content was hashed.
+     *
+     * @author GeRDI Project
+     */
+    private static class FileState
+    {
+        private final long lastModified;
+        private final long length;
+        private final String contentHash;
+        private final long recordedTime;
+
+
+        /**
+         * Constructor that sets all fields.
+         *
+         * @param lastModified the modification date of the file
+         * @param length the size of the file in bytes
+         * @param contentHash the hash of the file content
+         * @param recordedTime the time at which the state was recorded
+         */
+        FileState(long lastModified, long length, String contentHash, long recordedTime)
+        {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.contentHash = contentHash;
+            this.recordedTime = recordedTime;
+        }
+
+
+        /**
+         * Checks if the file may have been modified again within the timestamp
+         * granularity of the time at which the state was recorded, in which case
+         * its modification date cannot tell if its content changed.
+         *
+         * @return true if the file content must be hashed again
+         */
+        boolean isRacilyClean()
+        {
+            return lastModified >= recordedTime - AStyleCacheConstants.TIMESTAMP_GRANULARITY;
+        }
+    }
+}
@@ -0,0 +1,692 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This index persists which files are formatted, so that this knowledge survives
+ * a restart of Eclipse. Every workspace relative file path is mapped to the
+ * modification date, size, and content hash of the file, and to the fingerprint of
+ * the formatter configuration that formatted it.
+ * <br>
+ * The index consists of two files in the plugin state location. New entries are appended
+ * to a journal file, which is read completely on startup. Whenever the journal becomes
+ * large, and when the index is closed, all entries are compacted into an index file that
+ * is sorted by path. The index file is memory mapped and searched in place, so loading
+ * it does not depend on the number of entries. Index files are numbered by generation,
+ * because a mapped file cannot be replaced on all platforms.
+ *
+ * @author GeRDI Project
+ */
+public class FormattedStateIndex
+{
+    // magic number, version, entry count
+    private static final int INDEX_HEADER_LENGTH = 12;
+
+    // magic number, version
+    private static final int JOURNAL_HEADER_LENGTH = 8;
+
+    // the length of a path is stored as an unsigned short
+    private static final int MAX_PATH_LENGTH = 0xFFFF;
+
+    // the size of racily clean files, which never matches an actual file size
+    private static final long SMUDGED_LENGTH = -1;
+
+    private final File stateFolder;
+    private final Map<String, IndexEntry> journalEntries;
+    private MappedByteBuffer compactedEntries;
+    private int compactedEntryCount;
+    private int generation;
+    private FileChannel journal;
+
+
+    /**
+     * Constructor that loads the index from a folder.
+     *
+     * @param stateFolder the folder in which the index is persisted
+     */
+    public FormattedStateIndex(File stateFolder)
+    {
+        this.stateFolder = stateFolder;
+        this.journalEntries = new HashMap<>();
+        this.compactedEntries = null;
+        this.compactedEntryCount = 0;
+        this.generation = 0;
+
+        loadIndex();
+        loadJournal();
+    }
+
+
+    /**
+     * Retrieves the content hash of a file, if the file did not change since it was indexed.
+     *
+     * @param path the workspace relative path of the file
+     * @param lastModified the current modification date of the file
+     * @param length the current size of the file in bytes
+     *
+     * @return the content hash of the file, or null if it is not indexed or changed since
+     */
+    public synchronized String getContentHash(String path, long lastModified, long length)
+    {
+        final IndexEntry entry = find(path);
+
+        if (entry == null || entry.lastModified != lastModified || entry.length != length)
+            return null;
+
+        return Base64.getEncoder().encodeToString(entry.contentHash);
+    }
+
+
+    /**
+     * Checks if a file content was formatted with a specified formatter configuration.
+     *
+     * @param path the workspace relative path of the file
+     * @param contentHash the hash of the current file content
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return true if the file is known to be formatted
+     */
+    public synchronized boolean isFormatted(String path, String contentHash, String fingerprint)
+    {
+        final IndexEntry entry = find(path);
+
+        return entry != null
+               && Arrays.equals(entry.contentHash, decodeHash(contentHash))
+               && Arrays.equals(entry.fingerprint, decodeHash(fingerprint));
+    }
+
+
+    /**
+     * Updates the modification date and size of an indexed file after its content was
+     * hashed again, if the content did not change since it was indexed. This replaces
+     * racily clean entries, so that the file need not be read again after its modification
+     * date left the timestamp granularity.
+     *
+     * @param path the workspace relative path of the file
+     * @param lastModified the modification date of the file when it was hashed
+     * @param length the size of the file in bytes when it was hashed
+     * @param contentHash the hash of the current file content
+     */
+    public synchronized void refresh(String path, long lastModified, long length, String contentHash)
+    {
+        final IndexEntry entry = find(path);
+
+        if (entry != null && Arrays.equals(entry.contentHash, decodeHash(contentHash)))
+            put(path, lastModified, length, contentHash, Base64.getEncoder().encodeToString(entry.fingerprint));
+    }
+
+
+    /**
+     * Remembers that a file is formatted, by appending an entry to the journal.
+     * The journal is compacted if it contains too many entries.
+     * If the file was modified within the timestamp granularity of the current time,
+     * it may change again without changing its modification date. The size of such
+     * racily clean files is smudged, so that their content is hashed again instead
+     * of trusting the index.
+     *
+     * @param path the workspace relative path of the file
+     * @param lastModified the modification date of the formatted file
+     * @param length the size of the formatted file in bytes
+     * @param contentHash the hash of the formatted content
+     * @param fingerprint the fingerprint of the formatter configuration
+     */
+    public synchronized void put(String path, long lastModified, long length, String contentHash, String fingerprint)
+    {
+        final byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+        final byte[] contentHashBytes = decodeHash(contentHash);
+        final byte[] fingerprintBytes = decodeHash(fingerprint);
+
+        // only hashes that were created by the cache can be stored
+        if (contentHashBytes == null || fingerprintBytes == null || pathBytes.length > MAX_PATH_LENGTH)
+            return;
+
+        final long indexedLength = lastModified >= System.currentTimeMillis() - AStyleCacheConstants.TIMESTAMP_GRANULARITY
+                                   ? SMUDGED_LENGTH
+                                   : length;
+        final IndexEntry entry = new IndexEntry(lastModified, indexedLength, contentHashBytes, fingerprintBytes);
+
+        // do not let the journal grow if nothing changed
+        if (entry.equals(find(path)))
+            return;
+
+        journalEntries.put(path, entry);
+
+        if (journal != null) {
+            try {
+                final ByteBuffer record = ByteBuffer.allocate(getRecordLength(pathBytes));
+                writeRecord(record, pathBytes, entry);
+                record.flip();
+
+                while (record.hasRemaining())
+                    journal.write(record);
+
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeJournal();
+            }
+        }
+
+        if (journalEntries.size() > Math.max(AStyleCacheConstants.MIN_COMPACTION_ENTRIES, compactedEntryCount))
+            compact();
+    }
+
+
+    /**
+     * Compacts the journal into the index file, so that the next startup
+     * does not need to read any journal entries, and closes the journal.
+     */
+    public synchronized void close()
+    {
+        if (!journalEntries.isEmpty())
+            compact();
+
+        closeJournal();
+    }
+
+
+    /**
+     * Maps the index file with the highest generation and deletes all
+     * older index files.
+     */
+    private void loadIndex()
+    {
+        final Pattern indexFilePattern = Pattern.compile(AStyleCacheConstants.STATE_INDEX_FILE_PATTERN);
+        final File[] indexFiles = stateFolder.listFiles();
+
+        if (indexFiles == null)
+            return;
+
+        for (File indexFile : indexFiles) {
+            final Matcher matcher = indexFilePattern.matcher(indexFile.getName());
+
+            if (matcher.matches())
+                generation = Math.max(generation, Integer.parseInt(matcher.group(1)));
+        }
+
+        for (File indexFile : indexFiles) {
+            final Matcher matcher = indexFilePattern.matcher(indexFile.getName());
+
+            if (matcher.matches() && Integer.parseInt(matcher.group(1)) != generation)
+                deleteIndexFile(indexFile);
+        }
+
+        if (generation != 0)
+            mapIndex(getIndexFile(generation));
+    }
+
+
+    /**
+     * Memory maps an index file. If the index file is corrupt, it is ignored.
+     *
+     * @param indexFile the index file that is to be mapped
+     */
+    private void mapIndex(File indexFile)
+    {
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            final MappedByteBuffer mappedIndex = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (mappedIndex.limit() < INDEX_HEADER_LENGTH
+                || mappedIndex.getInt(0) != AStyleCacheConstants.STATE_INDEX_MAGIC
+                || mappedIndex.getInt(4) != AStyleCacheConstants.STATE_FORMAT_VERSION)
+                return;
+
+            final int entryCount = mappedIndex.getInt(8);
+
+            if (entryCount < 0 || mappedIndex.limit() < INDEX_HEADER_LENGTH + 4L * entryCount)
+                return;
+
+            compactedEntries = mappedIndex;
+            compactedEntryCount = entryCount;
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Reads all entries of the journal and opens it for appending further entries.
+     * A journal that ends with an incomplete entry is truncated after the last complete entry,
+     * and a journal with an unknown header is discarded.
+     */
+    private void loadJournal()
+    {
+        final File journalFile = new File(stateFolder, AStyleCacheConstants.STATE_JOURNAL_FILE);
+
+        try {
+            journal = FileChannel.open(
+                          journalFile.toPath(),
+                          StandardOpenOption.CREATE,
+                          StandardOpenOption.READ,
+                          StandardOpenOption.WRITE);
+
+            final ByteBuffer content = ByteBuffer.allocate((int) journal.size());
+
+            while (content.hasRemaining() && journal.read(content) != -1) {
+                // keep reading
+            }
+
+            content.flip();
+
+            if (content.limit() < JOURNAL_HEADER_LENGTH
+                || content.getInt() != AStyleCacheConstants.STATE_JOURNAL_MAGIC
+                || content.getInt() != AStyleCacheConstants.STATE_FORMAT_VERSION) {
+                resetJournal();
+                return;
+            }
+
+            int completeLength = content.position();
+
+            while (content.hasRemaining()) {
+                final String path = readPath(content);
+                final IndexEntry entry = path != null ? readEntry(content) : null;
+
+                if (entry == null)
+                    break;
+
+                journalEntries.put(path, entry);
+                completeLength = content.position();
+            }
+
+            journal.truncate(completeLength);
+            journal.position(completeLength);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeJournal();
+        }
+    }
+
+
+    /**
+     * Removes all entries from the journal file.
+     *
+     * @throws IOException if the journal could not be written
+     */
+    private void resetJournal() throws IOException
+    {
+        final ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_LENGTH);
+        header.putInt(AStyleCacheConstants.STATE_JOURNAL_MAGIC);
+        header.putInt(AStyleCacheConstants.STATE_FORMAT_VERSION);
+        header.flip();
+
+        journal.truncate(0);
+        journal.position(0);
+
+        while (header.hasRemaining())
+            journal.write(header);
+    }
+
+
+    /**
+     * Closes the journal file, after which no further entries are persisted.
+     */
+    private void closeJournal()
+    {
+        if (journal == null)
+            return;
+
+        try {
+            journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        journal = null;
+    }
+
+
+    /**
+     * Merges the journal entries into a new generation of the index file, and
+     * clears the journal. The new index file is written to a temporary file first,
+     * so that a crash never leaves an incomplete index file behind.
+     */
+    private void compact()
+    {
+        final Map<String, IndexEntry> mergedEntries = new TreeMap<>();
+
+        for (int i = 0; i < compactedEntryCount; i++) {
+            final ByteBuffer record = getCompactedRecord(i);
+            mergedEntries.put(readPath(record), readEntry(record));
+        }
+
+        mergedEntries.putAll(journalEntries);
+
+        final int nextGeneration = generation + 1;
+        final File indexFile = getIndexFile(nextGeneration);
+        final File tempFile = new File(indexFile.getPath() + AStyleHandlerConstants.TEMP_FILE_SUFFIX);
+
+        try {
+            writeIndex(tempFile, mergedEntries);
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        final File previousIndexFile = getIndexFile(generation);
+        compactedEntries = null;
+        compactedEntryCount = 0;
+        generation = nextGeneration;
+        mapIndex(indexFile);
+
+        // the journal entries are part of the index file now
+        journalEntries.clear();
+
+        try {
+            if (journal != null)
+                resetJournal();
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeJournal();
+        }
+
+        deleteIndexFile(previousIndexFile);
+    }
+
+
+    /**
+     * Writes an index file that consists of a header, a table of record offsets,
+     * and the records, which are sorted by path.
+     *
+     * @param indexFile the file that is to be written
+     * @param sortedEntries the entries of the index, sorted by path
+     *
+     * @throws IOException if the file could not be written
+     */
+    private static void writeIndex(File indexFile, Map<String, IndexEntry> sortedEntries) throws IOException
+    {
+        final byte[][] paths = new byte[sortedEntries.size()][];
+        int i = 0;
+
+        for (String path : sortedEntries.keySet())
+            paths[i++] = path.getBytes(StandardCharsets.UTF_8);
+
+        try (DataOutputStream output = new DataOutputStream(
+                                               new BufferedOutputStream(Files.newOutputStream(indexFile.toPath())))) {
+            output.writeInt(AStyleCacheConstants.STATE_INDEX_MAGIC);
+            output.writeInt(AStyleCacheConstants.STATE_FORMAT_VERSION);
+            output.writeInt(paths.length);
+
+            int offset = INDEX_HEADER_LENGTH + 4 * paths.length;
+
+            for (byte[] path : paths) {
+                output.writeInt(offset);
+                offset += getRecordLength(path);
+            }
+
+            i = 0;
+
+            for (IndexEntry entry : sortedEntries.values()) {
+                final ByteBuffer record = ByteBuffer.allocate(getRecordLength(paths[i]));
+                writeRecord(record, paths[i++], entry);
+                output.write(record.array());
+            }
+        }
+    }
+
+
+    /**
+     * Retrieves the entry of a path, looking up the journal entries first,
+     * and searching the sorted index file afterwards.
+     *
+     * @param path the workspace relative path of a file
+     *
+     * @return the entry of the path, or null if the path is not indexed
+     */
+    private IndexEntry find(String path)
+    {
+        final IndexEntry journalEntry = journalEntries.get(path);
+
+        if (journalEntry != null)
+            return journalEntry;
+
+        int low = 0;
+        int high = compactedEntryCount - 1;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final ByteBuffer record = getCompactedRecord(middle);
+            final int comparison = readPath(record).compareTo(path);
+
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return readEntry(record);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns a view of a record of the index file.
+     *
+     * @param index the position of the record in the sorted index
+     *
+     * @return a buffer that is positioned at the start of the record
+     */
+    private ByteBuffer getCompactedRecord(int index)
+    {
+        final ByteBuffer record = compactedEntries.duplicate();
+        record.position(compactedEntries.getInt(INDEX_HEADER_LENGTH + 4 * index));
+        return record;
+    }
+
+
+    /**
+     * Returns the index file of a generation.
+     *
+     * @param indexGeneration the generation of the index file
+     *
+     * @return the index file of the generation
+     */
+    private File getIndexFile(int indexGeneration)
+    {
+        return new File(stateFolder, String.format(AStyleCacheConstants.STATE_INDEX_FILE, indexGeneration));
+    }
+
+
+    /**
+     * Deletes an outdated index file. Mapped files cannot be deleted on all platforms,
+     * in which case the file is deleted on the next startup.
+     *
+     * @param indexFile the index file that is to be deleted
+     */
+    private static void deleteIndexFile(File indexFile)
+    {
+        try {
+            Files.deleteIfExists(indexFile.toPath());
+        } catch (IOException e) {
+            // the file is deleted on the next startup
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes of a record.
+     *
+     * @param path the UTF-8 bytes of the path of the record
+     *
+     * @return the number of bytes of the record
+     */
+    private static int getRecordLength(byte[] path)
+    {
+        return 2 + path.length + 8 + 8 + 2 * AStyleCacheConstants.HASH_LENGTH;
+    }
+
+
+    /**
+     * Writes a record, which consists of the length of the path, the path,
+     * the modification date, the size, the content hash, and the fingerprint.
+     *
+     * @param buffer the buffer to which the record is written
+     * @param path the UTF-8 bytes of the path
+     * @param entry the values of the record
+     */
+    private static void writeRecord(ByteBuffer buffer, byte[] path, IndexEntry entry)
+    {
+        buffer.putShort((short) path.length);
+        buffer.put(path);
+        buffer.putLong(entry.lastModified);
+        buffer.putLong(entry.length);
+        buffer.put(entry.contentHash);
+        buffer.put(entry.fingerprint);
+    }
+
+
+    /**
+     * Reads the path at the start of a record.
+     *
+     * @param buffer a buffer that is positioned at the start of a record
+     *
+     * @return the path of the record, or null if the record is incomplete
+     */
+    private static String readPath(ByteBuffer buffer)
+    {
+        if (buffer.remaining() < 2)
+            return null;
+
+        final int pathLength = buffer.getShort() & 0xFFFF;
+
+        if (buffer.remaining() < pathLength)
+            return null;
+
+        final byte[] path = new byte[pathLength];
+        buffer.get(path);
+
+        return new String(path, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Reads the values of a record that follow the path.
+     *
+     * @param buffer a buffer that is positioned after the path of a record
+     *
+     * @return the values of the record, or null if the record is incomplete
+     */
+    private static IndexEntry readEntry(ByteBuffer buffer)
+    {
+        if (buffer.remaining() < 8 + 8 + 2 * AStyleCacheConstants.HASH_LENGTH)
+            return null;
+
+        final long lastModified = buffer.getLong();
+        final long length = buffer.getLong();
+        final byte[] contentHash = new byte[AStyleCacheConstants.HASH_LENGTH];
+        final byte[] fingerprint = new byte[AStyleCacheConstants.HASH_LENGTH];
+        buffer.get(contentHash);
+        buffer.get(fingerprint);
+
+        return new IndexEntry(lastModified, length, contentHash, fingerprint);
+    }
+
+
+    /**
+     * Converts a Base64 hash that was created by the {@linkplain FormattedFileCache}
+     * to its raw bytes.
+     *
+     * @param hash a Base64 representation of a hash
+     *
+     * @return the raw bytes of the hash, or null if it is not a hash of the expected length
+     */
+    private static byte[] decodeHash(String hash)
+    {
+        try {
+            final byte[] hashBytes = Base64.getDecoder().decode(hash);
+            return hashBytes.length == AStyleCacheConstants.HASH_LENGTH ? hashBytes : null;
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * This class represents the indexed state of a formatted file.
+     *
+     * @author GeRDI Project
+     */
+    private static class IndexEntry
+    {
+        private final long lastModified;
+        private final long length;
+        private final byte[] contentHash;
+        private final byte[] fingerprint;
+
+
+        /**
+         * Constructor that sets all fields.
+         *
+         * @param lastModified the modification date of the file
+         * @param length the size of the file in bytes
+         * @param contentHash the raw hash of the file content
+         * @param fingerprint the raw fingerprint of the formatter configuration
+         */
+        IndexEntry(long lastModified, long length, byte[] contentHash, byte[] fingerprint)
+        {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.contentHash = contentHash;
+            this.fingerprint = fingerprint;
+        }
+
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof IndexEntry))
+                return false;
+
+            final IndexEntry other = (IndexEntry) obj;
+            return lastModified == other.lastModified
+                   && length == other.length
+                   && Arrays.equals(contentHash, other.contentHash)
+                   && Arrays.equals(fingerprint, other.fingerprint);
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return Arrays.hashCode(contentHash);
+        }
+    }
+}
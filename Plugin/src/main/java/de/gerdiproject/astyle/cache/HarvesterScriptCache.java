@@ -0,0 +1,125 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This cache remembers which projects are formatted by a harvester formatting script
+ * instead of the AStyle binary that is defined via the plugin preferences.
+ * A project is looked up again as soon as anything within its script folder changes,
+ * or the project itself is opened, closed, moved, or removed.
+ *
+ * @author GeRDI Project
+ */
+public class HarvesterScriptCache implements IResourceChangeListener
+{
+    private static final IPath SCRIPT_FOLDER_PATH = new Path(AStyleHandlerConstants.HARVESTER_FORMATTING_FOLDER);
+
+    private final Map<String, Optional<File>> scriptsByProject;
+
+
+    /**
+     * Constructor that creates an empty cache.
+     */
+    public HarvesterScriptCache()
+    {
+        this.scriptsByProject = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Returns the harvester formatting script of a project.
+     *
+     * @param project the project of which the script is retrieved
+     *
+     * @return the formatting script, or null if the project does not have one
+     */
+    public File getFormattingScript(IProject project)
+    {
+        return scriptsByProject
+               .computeIfAbsent(project.getName(), (String name) -> findFormattingScript(project))
+               .orElse(null);
+    }
+
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event)
+    {
+        final IResourceDelta rootDelta = event.getDelta();
+
+        if (rootDelta == null)
+            return;
+
+        for (IResourceDelta projectDelta : rootDelta.getAffectedChildren()) {
+            if (isScriptChange(projectDelta))
+                scriptsByProject.remove(projectDelta.getResource().getName());
+        }
+    }
+
+
+    /**
+     * Checks if a project delta may have changed the formatting script of the project.
+     *
+     * @param projectDelta the resource delta of a project
+     *
+     * @return true if the formatting script needs to be looked up again
+     */
+    private static boolean isScriptChange(IResourceDelta projectDelta)
+    {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED)
+            return true;
+
+        if ((projectDelta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0)
+            return true;
+
+        return projectDelta.findMember(SCRIPT_FOLDER_PATH) != null;
+    }
+
+
+    /**
+     * Looks up the harvester formatting script of a project in the file system.
+     *
+     * @param project the project of which the script is retrieved
+     *
+     * @return the formatting script, or an empty optional if the project does not have one
+     */
+    private static Optional<File> findFormattingScript(IProject project)
+    {
+        final IPath projectLocation = project.getLocation();
+
+        if (projectLocation == null)
+            return Optional.empty();
+
+        final File formattingScript = new File(projectLocation.toOSString() + AStyleHandlerConstants.HARVESTER_FORMATTING_SCRIPT);
+
+        return formattingScript.isFile() ? Optional.of(formattingScript) : Optional.empty();
+    }
+}
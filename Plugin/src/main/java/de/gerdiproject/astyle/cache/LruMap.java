@@ -0,0 +1,55 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This map evicts its least recently accessed entry when its capacity is exceeded.
+ * It is not thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ *
+ * @author GeRDI Project
+ */
+public class LruMap<K, V> extends LinkedHashMap<K, V>
+{
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+
+    /**
+     * Constructor that creates an empty map.
+     *
+     * @param capacity the maximum number of entries
+     */
+    public LruMap(int capacity)
+    {
+        super(16, 0.75f, true);
+        this.capacity = capacity;
+    }
+
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+    {
+        return size() > capacity;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.PathFilter;
+
+/**
+ * This cache remembers the compiled path filters of projects, so that the project
+ * settings do not need to be looked up whenever a file is checked. A filter is
+ * compiled again as soon as the file patterns of its project change, or the project
+ * itself is opened, closed, moved, or removed. Filters that were compiled for an
+ * outdated {@linkplain FormatterConfiguration} are compiled again as well.
+ *
+ * @author GeRDI Project
+ */
+public class PathFilterCache implements IResourceChangeListener
+{
+    private static final IPath SETTINGS_FILE_PATH =
+        new Path(String.format(AStyleCacheConstants.PROJECT_SETTINGS_FILE, Activator.PLUGIN_ID));
+
+    private final Map<String, CachedFilter> filtersByProject;
+    private final Set<String> observedProjects;
+
+
+    /**
+     * Constructor that creates an empty cache.
+     */
+    public PathFilterCache()
+    {
+        this.filtersByProject = new ConcurrentHashMap<>();
+        this.observedProjects = ConcurrentHashMap.newKeySet();
+    }
+
+
+    /**
+     * Returns the path filter of a project.
+     *
+     * @param project the project of which files are formatted
+     * @param configuration the configuration that provides the workspace file patterns
+     *
+     * @return a filter of paths that are relative to the project folder
+     */
+    public PathFilter getPathFilter(IProject project, FormatterConfiguration configuration)
+    {
+        final CachedFilter cachedFilter = filtersByProject.get(project.getName());
+
+        if (cachedFilter != null && cachedFilter.configuration == configuration)
+            return cachedFilter.filter;
+
+        observeSettings(project);
+
+        final PathFilter filter = configuration.createPathFilter(project);
+        filtersByProject.put(project.getName(), new CachedFilter(configuration, filter));
+        return filter;
+    }
+
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event)
+    {
+        final IResourceDelta rootDelta = event.getDelta();
+
+        if (rootDelta == null)
+            return;
+
+        for (IResourceDelta projectDelta : rootDelta.getAffectedChildren()) {
+            if (isSettingsChange(projectDelta))
+                forgetProject(projectDelta.getResource().getName());
+        }
+    }
+
+
+    /**
+     * Forgets the path filter of a project, so that it is compiled again when it is needed.
+     *
+     * @param projectName the name of the project
+     */
+    private void forgetProject(String projectName)
+    {
+        filtersByProject.remove(projectName);
+    }
+
+
+    /**
+     * Listens to changes of the file patterns in the settings of a project,
+     * unless this is already done.
+     *
+     * @param project the project of which the settings are observed
+     */
+    private void observeSettings(IProject project)
+    {
+        final String projectName = project.getName();
+
+        if (!observedProjects.add(projectName))
+            return;
+
+        final IEclipsePreferences projectPreferences = new ProjectScope(project).getNode(Activator.PLUGIN_ID);
+
+        if (projectPreferences != null)
+            projectPreferences.addPreferenceChangeListener(new ProjectPatternsListener(projectName));
+    }
+
+
+    /**
+     * Checks if a project delta may have changed the settings of the project.
+     * Settings nodes of projects that were closed, moved, or removed are discarded
+     * by Eclipse, so their listeners need to be registered again.
+     *
+     * @param projectDelta the resource delta of a project
+     *
+     * @return true if the path filter needs to be compiled again
+     */
+    private boolean isSettingsChange(IResourceDelta projectDelta)
+    {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED
+            || (projectDelta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0) {
+            observedProjects.remove(projectDelta.getResource().getName());
+            return true;
+        }
+
+        return projectDelta.findMember(SETTINGS_FILE_PATH) != null;
+    }
+
+
+    /**
+     * This listener forgets the path filter of a project when its file patterns change.
+     */
+    private class ProjectPatternsListener implements IPreferenceChangeListener
+    {
+        private final String projectName;
+
+
+        /**
+         * Constructor that requires the observed project.
+         *
+         * @param projectName the name of the observed project
+         */
+        ProjectPatternsListener(String projectName)
+        {
+            this.projectName = projectName;
+        }
+
+
+        @Override
+        public void preferenceChange(PreferenceChangeEvent event)
+        {
+            switch (event.getKey()) {
+                case AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION:
+                case AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION:
+                    forgetProject(projectName);
+                    break;
+
+                default:
+                    // do nothing
+            }
+        }
+    }
+
+
+    /**
+     * This class represents a path filter and the configuration for which it was compiled.
+     */
+    private static class CachedFilter
+    {
+        private final FormatterConfiguration configuration;
+        private final PathFilter filter;
+
+
+        /**
+         * Constructor that requires all fields.
+         *
+         * @param configuration the configuration for which the filter was compiled
+         * @param filter the compiled filter
+         */
+        CachedFilter(FormatterConfiguration configuration, PathFilter filter)
+        {
+            this.configuration = configuration;
+            this.filter = filter;
+        }
+    }
+}
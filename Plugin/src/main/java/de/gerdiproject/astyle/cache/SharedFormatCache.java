@@ -0,0 +1,323 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * This cache stores formatted file contents in a directory that can be shared by
+ * multiple workspaces and headless formatting runs, for instance on a network drive.
+ * Entries are addressed by the hash of the unformatted content and the fingerprint of
+ * the formatter configuration, which covers the options file and the formatter version.
+ * <br>
+ * Entries are written to temporary files and renamed atomically, so that concurrent
+ * processes never read incomplete entries. The modification date of an entry marks its
+ * last use. Whenever a tenth of the size limit was written, the least recently used entries
+ * are deleted until the cache is sufficiently below its size limit.
+ *
+ * @author GeRDI Project
+ */
+public class SharedFormatCache
+{
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final File root;
+    private final long maxSize;
+    private final Job garbageCollectionJob;
+    private long writtenSinceCollection;
+
+
+    /**
+     * Constructor that does not access the cache directory yet.
+     *
+     * @param root the directory of the cache
+     * @param maxSize the number of bytes that the cache may occupy
+     */
+    public SharedFormatCache(File root, long maxSize)
+    {
+        this.root = root;
+        this.maxSize = maxSize;
+        this.writtenSinceCollection = 0;
+        this.garbageCollectionJob = createGarbageCollectionJob();
+    }
+
+
+    /**
+     * Retrieves a formatted content and marks it as recently used.
+     *
+     * @param contentHash the hash of the unformatted content
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return the formatted content, or null if it is not cached
+     */
+    public byte[] get(String contentHash, String fingerprint)
+    {
+        final File entryFile = getEntryFile(contentHash, fingerprint);
+
+        try {
+            final byte[] formattedContent = Files.readAllBytes(entryFile.toPath());
+
+            // touching every entry on every read would flood network drives
+            final long now = System.currentTimeMillis();
+
+            if (now - entryFile.lastModified() > AStyleCacheConstants.SHARED_CACHE_TOUCH_INTERVAL)
+                entryFile.setLastModified(now);
+
+            return formattedContent;
+
+        } catch (NoSuchFileException e) {
+            return null;
+
+        } catch (IOException e) {
+            // another process may have deleted the entry while it was read
+            return null;
+        }
+    }
+
+
+    /**
+     * Stores a formatted content. If another process stores the same entry at
+     * the same time, either of the identical entries is kept.
+     *
+     * @param contentHash the hash of the unformatted content
+     * @param fingerprint the fingerprint of the formatter configuration
+     * @param formattedContent the formatted content
+     */
+    public void put(String contentHash, String fingerprint, byte[] formattedContent)
+    {
+        final File entryFile = getEntryFile(contentHash, fingerprint);
+
+        if (entryFile.isFile())
+            return;
+
+        final File tempFolder = new File(root, AStyleCacheConstants.SHARED_CACHE_TEMP_FOLDER);
+        File tempFile = null;
+
+        try {
+            Files.createDirectories(tempFolder.toPath());
+            Files.createDirectories(entryFile.getParentFile().toPath());
+
+            tempFile = Files.createTempFile(
+                           tempFolder.toPath(),
+                           entryFile.getName(),
+                           AStyleCacheConstants.SHARED_CACHE_TEMP_SUFFIX).toFile();
+            Files.write(tempFile.toPath(), formattedContent);
+            Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+            // the entry is unavailable, or another process created it first
+            if (tempFile != null)
+                tempFile.delete();
+
+            return;
+        }
+
+        synchronized (this) {
+            writtenSinceCollection += formattedContent.length;
+
+            if (writtenSinceCollection > maxSize / AStyleCacheConstants.SHARED_CACHE_GC_TRIGGER_DIVISOR) {
+                writtenSinceCollection = 0;
+                garbageCollectionJob.schedule();
+            }
+        }
+    }
+
+
+    /**
+     * Deletes the least recently used entries if the cache exceeds its size limit,
+     * and deletes temporary files that were abandoned by crashed processes.
+     * Files that are deleted concurrently by other processes are skipped.
+     */
+    public void collectGarbage()
+    {
+        final List<File> entryFiles = new ArrayList<>();
+        long totalSize = 0;
+
+        final File[] keyFolders = root.listFiles(File::isDirectory);
+
+        if (keyFolders == null)
+            return;
+
+        final long staleTime = System.currentTimeMillis() - AStyleCacheConstants.SHARED_CACHE_STALE_TEMP_AGE;
+
+        for (File keyFolder : keyFolders) {
+            final File[] files = keyFolder.listFiles(File::isFile);
+
+            if (files == null)
+                continue;
+
+            final boolean isTempFolder = keyFolder.getName().equals(AStyleCacheConstants.SHARED_CACHE_TEMP_FOLDER);
+
+            for (File file : files) {
+                if (isTempFolder) {
+                    if (file.lastModified() < staleTime)
+                        file.delete();
+                } else if (file.getName().endsWith(AStyleCacheConstants.SHARED_CACHE_ENTRY_SUFFIX)) {
+                    entryFiles.add(file);
+                    totalSize += file.length();
+                }
+            }
+        }
+
+        if (totalSize <= maxSize)
+            return;
+
+        // delete the least recently used entries first
+        final long targetSize = maxSize / 100 * AStyleCacheConstants.SHARED_CACHE_GC_TARGET_PERCENT;
+        entryFiles.sort(Comparator.comparingLong(File::lastModified));
+
+        for (File entryFile : entryFiles) {
+            if (totalSize <= targetSize)
+                break;
+
+            final long length = entryFile.length();
+
+            if (entryFile.delete())
+                totalSize -= length;
+        }
+    }
+
+
+    /**
+     * Returns the directory of the cache.
+     *
+     * @return the directory of the cache
+     */
+    public File getRoot()
+    {
+        return root;
+    }
+
+
+    /**
+     * Returns the number of bytes that the cache may occupy.
+     *
+     * @return the size limit of the cache in bytes
+     */
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+
+    /**
+     * Cancels a scheduled removal of the least recently used entries. This is
+     * required when the cache is replaced by a cache with another directory or size limit.
+     */
+    public void dispose()
+    {
+        garbageCollectionJob.cancel();
+    }
+
+
+    /**
+     * Returns the file of an entry. Entries are distributed to subfolders that
+     * are named after the first characters of the entry key, so that no folder
+     * contains too many files.
+     *
+     * @param contentHash the hash of the unformatted content
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return the file of the entry
+     */
+    private File getEntryFile(String contentHash, String fingerprint)
+    {
+        final String key = toHex(digest(contentHash + AStyleCacheConstants.FINGERPRINT_SEPARATOR + fingerprint));
+        final File keyFolder = new File(root, key.substring(0, AStyleCacheConstants.SHARED_CACHE_KEY_FOLDER_LENGTH));
+
+        return new File(keyFolder, key + AStyleCacheConstants.SHARED_CACHE_ENTRY_SUFFIX);
+    }
+
+
+    /**
+     * Creates a system job that removes the least recently used entries.
+     *
+     * @return a system job that removes the least recently used entries
+     */
+    private Job createGarbageCollectionJob()
+    {
+        final Job job = new Job(AStyleCacheConstants.SHARED_CACHE_GC_JOB_NAME)
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                collectGarbage();
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        job.setPriority(Job.DECORATE);
+
+        return job;
+    }
+
+
+    /**
+     * Computes the hash of an entry key. Unlike {@linkplain FormattedFileCache#hash(byte[])},
+     * the hash is not Base64 encoded, because it is used as a file name.
+     *
+     * @param key the entry key
+     *
+     * @return the raw hash of the key
+     */
+    private static byte[] digest(String key)
+    {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(AStyleCacheConstants.HASH_ALGORITHM);
+            return digest.digest(key.getBytes(StandardCharsets.UTF_8));
+
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Converts bytes to lower case hexadecimal digits.
+     *
+     * @param bytes the bytes that are to be converted
+     *
+     * @return a string of two hexadecimal digits per byte
+     */
+    private static String toHex(byte[] bytes)
+    {
+        final char[] hex = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(hex);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.utils.JavaProjectUtils;
+
+/**
+ * This cache remembers the source folders of projects, as they are defined by the
+ * build path of Java projects. A project is looked up again as soon as its build path
+ * changes, or the project itself is opened, closed, moved, or removed.
+ * If the Java Development Tools are not installed, or a project is no Java project,
+ * the {@value AStyleHandlerConstants#PROJECT_SOURCE_DIRECTORY} folder of the project
+ * is formatted.
+ *
+ * @author GeRDI Project
+ */
+public class SourceRootCache implements IResourceChangeListener
+{
+    private static final IPath CLASSPATH_FILE_PATH = new Path(AStyleCacheConstants.CLASSPATH_FILE);
+
+    private final Map<String, SourceRoots> rootsByProject;
+    private final boolean isJavaToolingAvailable;
+
+
+    /**
+     * Constructor that creates an empty cache.
+     */
+    public SourceRootCache()
+    {
+        this.rootsByProject = new ConcurrentHashMap<>();
+        this.isJavaToolingAvailable = isClassAvailable(AStyleCacheConstants.JAVA_CORE_CLASS);
+    }
+
+
+    /**
+     * Returns the source folders of a project.
+     *
+     * @param project the project of which the source folders are retrieved
+     *
+     * @return the source folders of the project
+     */
+    public SourceRoots getSourceRoots(IProject project)
+    {
+        return rootsByProject.computeIfAbsent(project.getName(), (String name) -> findSourceRoots(project));
+    }
+
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event)
+    {
+        final IResourceDelta rootDelta = event.getDelta();
+
+        if (rootDelta == null)
+            return;
+
+        for (IResourceDelta projectDelta : rootDelta.getAffectedChildren()) {
+            if (isBuildPathChange(projectDelta))
+                rootsByProject.remove(projectDelta.getResource().getName());
+        }
+    }
+
+
+    /**
+     * Checks if a project delta may have changed the build path of the project.
+     *
+     * @param projectDelta the resource delta of a project
+     *
+     * @return true if the source folders need to be looked up again
+     */
+    private static boolean isBuildPathChange(IResourceDelta projectDelta)
+    {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED)
+            return true;
+
+        if ((projectDelta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0)
+            return true;
+
+        return projectDelta.findMember(CLASSPATH_FILE_PATH) != null;
+    }
+
+
+    /**
+     * Looks up the source folders of a project.
+     *
+     * @param project the project of which the source folders are retrieved
+     *
+     * @return the source folders of the project
+     */
+    private SourceRoots findSourceRoots(IProject project)
+    {
+        if (isJavaToolingAvailable) {
+            try {
+                final SourceRoots javaRoots = JavaProjectUtils.getSourceRoots(project);
+
+                if (javaRoots != null && !javaRoots.getSourceFolders().isEmpty())
+                    return javaRoots;
+
+            } catch (CoreException e) {
+                e.printStackTrace();
+            }
+        }
+
+        // fallback: format the default source folder
+        final IFolder sourceFolder = project.getFolder(AStyleHandlerConstants.PROJECT_SOURCE_DIRECTORY);
+        final List<File> sourceFolders = sourceFolder.getLocation() != null
+                                         ? Collections.singletonList(sourceFolder.getLocation().toFile())
+                                         : Collections.emptyList();
+
+        return new SourceRoots(sourceFolders, Collections.emptySet());
+    }
+
+
+    /**
+     * Checks if a class of an optional dependency can be loaded.
+     *
+     * @param className the fully qualified name of the class
+     *
+     * @return true if the class can be loaded
+     */
+    private static boolean isClassAvailable(String className)
+    {
+        try {
+            Class.forName(className, false, SourceRootCache.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
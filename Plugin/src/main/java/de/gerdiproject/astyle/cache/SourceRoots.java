@@ -0,0 +1,87 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.cache;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class represents the source folders of a project that are to be formatted,
+ * along with the output folders of the project that must never be traversed.
+ *
+ * @author GeRDI Project
+ */
+public final class SourceRoots
+{
+    private final List<File> sourceFolders;
+    private final Set<File> outputFolders;
+
+
+    /**
+     * Constructor that requires the folders.
+     *
+     * @param sourceFolders the source folders, none of which lies within another
+     * @param outputFolders the folders to which compiled classes are written
+     */
+    public SourceRoots(List<File> sourceFolders, Set<File> outputFolders)
+    {
+        this.sourceFolders = Collections.unmodifiableList(sourceFolders);
+        this.outputFolders = Collections.unmodifiableSet(outputFolders);
+    }
+
+
+    /**
+     * Returns the source folders, none of which lies within another.
+     *
+     * @return the source folders
+     */
+    public List<File> getSourceFolders()
+    {
+        return sourceFolders;
+    }
+
+
+    /**
+     * Returns the folders to which compiled classes are written.
+     *
+     * @return the output folders
+     */
+    public Set<File> getOutputFolders()
+    {
+        return outputFolders;
+    }
+
+
+    /**
+     * Checks if an output folder lies within a folder, or is the folder itself.
+     *
+     * @param folder the folder that is to be checked
+     *
+     * @return true if the folder contains an output folder
+     */
+    public boolean containsOutputFolder(File folder)
+    {
+        for (File outputFolder : outputFolders) {
+            if (outputFolder.toPath().startsWith(folder.toPath()))
+                return true;
+        }
+
+        return false;
+    }
+}
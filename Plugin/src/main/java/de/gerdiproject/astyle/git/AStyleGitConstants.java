@@ -0,0 +1,94 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+/**
+ * This class offers constants that are used for reading Git repositories.
+ *
+ * @author GeRDI Project
+ */
+public class AStyleGitConstants
+{
+    public static final String GIT_FOLDER = ".git";
+    public static final String GITDIR_PREFIX = "gitdir:";
+    public static final String COMMONDIR_FILE = "commondir";
+    public static final String HEAD_FILE = "HEAD";
+    public static final String SYMBOLIC_REF_PREFIX = "ref:";
+    public static final String PACKED_REFS_FILE = "packed-refs";
+    public static final char PACKED_REFS_COMMENT = '#';
+    public static final char PACKED_REFS_PEELED = '^';
+    public static final String INDEX_FILE = "index";
+    public static final String OBJECTS_FOLDER = "objects";
+    public static final String PACK_FOLDER = "pack";
+    public static final String PACK_SUFFIX = ".pack";
+    public static final String PACK_INDEX_SUFFIX = ".idx";
+    public static final String ALTERNATES_FILE = "info/alternates";
+    public static final char ALTERNATES_COMMENT = '#';
+    public static final char PATH_SEPARATOR = '/';
+
+    public static final int OBJECT_ID_LENGTH = 20;
+    public static final int OBJECT_ID_HEX_LENGTH = 2 * OBJECT_ID_LENGTH;
+    public static final String OBJECT_HASH_ALGORITHM = "SHA-1";
+    public static final String OBJECT_HEADER = "%s %d\0";
+    public static final String COMMIT_TREE_PREFIX = "tree ";
+
+    public static final int OBJECT_TYPE_COMMIT = 1;
+    public static final int OBJECT_TYPE_TREE = 2;
+    public static final int OBJECT_TYPE_BLOB = 3;
+    public static final int OBJECT_TYPE_TAG = 4;
+    public static final int OBJECT_TYPE_OFS_DELTA = 6;
+    public static final int OBJECT_TYPE_REF_DELTA = 7;
+    public static final String[] OBJECT_TYPE_NAMES = { null, "commit", "tree", "blob", "tag" };
+    public static final int MAX_DELTA_CHAIN_LENGTH = 1000;
+
+    public static final int MODE_TYPE_MASK = 0170000;
+    public static final int MODE_TREE = 0040000;
+    public static final int MODE_REGULAR_FILE = 0100000;
+
+    public static final int INDEX_SIGNATURE = 0x44495243;
+    public static final int INDEX_MIN_VERSION = 2;
+    public static final int INDEX_MAX_VERSION = 4;
+    public static final int INDEX_PATH_COMPRESSION_VERSION = 4;
+    public static final int INDEX_ENTRY_STAT_LENGTH = 40;
+    public static final int INDEX_ENTRY_ALIGNMENT = 8;
+    public static final int INDEX_FLAG_ASSUME_VALID = 0x8000;
+    public static final int INDEX_FLAG_EXTENDED = 0x4000;
+    public static final int INDEX_STAGE_MASK = 0x3000;
+    public static final int INDEX_EXTENDED_FLAG_SKIP_WORKTREE = 0x4000;
+
+    public static final int PACK_INDEX_SIGNATURE = 0xff744f63;
+    public static final int PACK_INDEX_VERSION = 2;
+    public static final int PACK_INDEX_FANOUT_SIZE = 256;
+    public static final int PACK_LARGE_OFFSET_FLAG = 0x80000000;
+    public static final int PACK_READ_BUFFER_SIZE = 8192;
+
+    public static final String ERROR_NO_REPOSITORY = "The folder '%s' is not part of a Git repository.";
+    public static final String ERROR_MISSING_OBJECT = "The Git object %s is missing.";
+    public static final String ERROR_CORRUPT_OBJECT = "The Git object %s is corrupt.";
+    public static final String ERROR_UNSUPPORTED_INDEX = "The Git index version %d is not supported.";
+    public static final String ERROR_CORRUPT_INDEX = "The Git index '%s' is corrupt.";
+    public static final String ERROR_CORRUPT_PACK = "The Git pack '%s' is corrupt.";
+
+
+    /**
+     * Private constructor, because this is just a collection of constants.
+     */
+    private AStyleGitConstants()
+    {
+
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class parses the index file of a Git repository, which lists the files that
+ * are staged for the next commit. The versions 2, 3 and 4 of the index format are
+ * supported. Extensions such as the cached tree are skipped, because they are not
+ * needed to compare the index with the working tree.
+ *
+ * @author GeRDI Project
+ */
+public class GitIndex
+{
+    private final List<GitIndexEntry> entries;
+    private final long lastModified;
+
+
+    /**
+     * Constructor that parses an index file.
+     *
+     * @param indexFile the index file of a Git repository
+     *
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public GitIndex(File indexFile) throws IOException
+    {
+        this.lastModified = indexFile.lastModified();
+
+        if (!indexFile.isFile())
+            this.entries = Collections.emptyList();
+        else {
+            try {
+                this.entries = parse(ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath())), indexFile);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_INDEX, indexFile), e);
+            }
+        }
+    }
+
+
+    /**
+     * Returns all entries of the index, sorted by path.
+     *
+     * @return an unmodifiable list of index entries
+     */
+    public List<GitIndexEntry> getEntries()
+    {
+        return Collections.unmodifiableList(entries);
+    }
+
+
+    /**
+     * Checks if a file may have been modified in the same second in which it was staged.
+     * Git calls such entries racily clean, because their modification date cannot tell
+     * if the file changed, so their content needs to be compared.
+     *
+     * @param entry an entry of this index
+     *
+     * @return true if the file content must be compared to detect changes
+     */
+    public boolean isRacilyClean(GitIndexEntry entry)
+    {
+        return entry.getLastModified() >= lastModified;
+    }
+
+
+    /**
+     * Parses all entries of an index.
+     *
+     * @param buffer a buffer that contains the complete index file
+     * @param indexFile the parsed file, used for error messages
+     *
+     * @throws IOException if the index is corrupt or its version is not supported
+     *
+     * @return a list of index entries
+     */
+    private static List<GitIndexEntry> parse(ByteBuffer buffer, File indexFile) throws IOException
+    {
+        if (buffer.getInt() != AStyleGitConstants.INDEX_SIGNATURE)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_INDEX, indexFile));
+
+        final int version = buffer.getInt();
+
+        if (version < AStyleGitConstants.INDEX_MIN_VERSION || version > AStyleGitConstants.INDEX_MAX_VERSION)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_UNSUPPORTED_INDEX, version));
+
+        final int entryCount = buffer.getInt();
+        final List<GitIndexEntry> parsedEntries = new ArrayList<>(entryCount);
+        byte[] previousPath = new byte[0];
+
+        for (int i = 0; i < entryCount; i++) {
+            final int entryStart = buffer.position();
+
+            // skip ctime
+            buffer.position(entryStart + 8);
+            final long mtimeSeconds = buffer.getInt() & 0xFFFFFFFFL;
+            final int mtimeNanos = buffer.getInt();
+
+            // skip dev and ino
+            buffer.position(entryStart + 24);
+            final int mode = buffer.getInt();
+
+            // skip uid and gid
+            buffer.position(entryStart + AStyleGitConstants.INDEX_ENTRY_STAT_LENGTH - 4);
+            final int size = buffer.getInt();
+
+            final byte[] objectId = new byte[AStyleGitConstants.OBJECT_ID_LENGTH];
+            buffer.get(objectId);
+
+            final int flags = buffer.getShort() & 0xFFFF;
+            final int extendedFlags = (flags & AStyleGitConstants.INDEX_FLAG_EXTENDED) != 0
+                                      ? buffer.getShort() & 0xFFFF
+                                      : 0;
+
+            final byte[] path;
+
+            if (version >= AStyleGitConstants.INDEX_PATH_COMPRESSION_VERSION) {
+                // the path replaces a number of trailing bytes of the previous path
+                final int removedLength = (int) readOffsetVarInt(buffer);
+                final byte[] suffix = readNullTerminated(buffer);
+                final int keptLength = previousPath.length - removedLength;
+
+                path = new byte[keptLength + suffix.length];
+                System.arraycopy(previousPath, 0, path, 0, keptLength);
+                System.arraycopy(suffix, 0, path, keptLength, suffix.length);
+            } else {
+                path = readNullTerminated(buffer);
+
+                // entries are padded with 1 to 8 null bytes, one of which terminated the path
+                final int entryLength = buffer.position() - entryStart;
+                final int paddedLength = (entryLength + AStyleGitConstants.INDEX_ENTRY_ALIGNMENT - 1)
+                                         / AStyleGitConstants.INDEX_ENTRY_ALIGNMENT
+                                         * AStyleGitConstants.INDEX_ENTRY_ALIGNMENT;
+                buffer.position(entryStart + paddedLength);
+            }
+
+            previousPath = path;
+
+            final boolean isUnchangedAssumed = (flags & AStyleGitConstants.INDEX_FLAG_ASSUME_VALID) != 0
+                                               || (extendedFlags & AStyleGitConstants.INDEX_EXTENDED_FLAG_SKIP_WORKTREE) != 0;
+
+            parsedEntries.add(new GitIndexEntry(
+                                  new String(path, StandardCharsets.UTF_8),
+                                  mode,
+                                  objectId,
+                                  mtimeSeconds * 1000L + mtimeNanos / 1000000,
+                                  size,
+                                  (flags & AStyleGitConstants.INDEX_STAGE_MASK) >> 12,
+                                  isUnchangedAssumed));
+        }
+
+        return parsedEntries;
+    }
+
+
+    /**
+     * Reads a null terminated byte sequence and skips the terminating null byte.
+     *
+     * @param buffer the buffer from which the bytes are read
+     *
+     * @return the bytes without the null byte
+     */
+    private static byte[] readNullTerminated(ByteBuffer buffer)
+    {
+        final int start = buffer.position();
+        int end = start;
+
+        while (buffer.get(end) != 0)
+            end++;
+
+        final byte[] bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get();
+        return bytes;
+    }
+
+
+    /**
+     * Reads a variable length integer in the offset encoding of Git. Each byte adds seven
+     * bits, and every continued byte adds one to the value, so that no value has multiple encodings.
+     *
+     * @param buffer the buffer from which the integer is read
+     *
+     * @return the decoded integer
+     */
+    private static long readOffsetVarInt(ByteBuffer buffer)
+    {
+        int b = buffer.get() & 0xFF;
+        long value = b & 0x7F;
+
+        while ((b & 0x80) != 0) {
+            b = buffer.get() & 0xFF;
+            value = ((value + 1) << 7) | (b & 0x7F);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+/**
+ * This class represents a file that is listed in the index of a Git repository.
+ * Only the fields that are needed to detect changes are kept.
+ *
+ * @author GeRDI Project
+ */
+public class GitIndexEntry
+{
+    private final String path;
+    private final int mode;
+    private final byte[] objectId;
+    private final long lastModified;
+    private final int size;
+    private final int stage;
+    private final boolean isUnchangedAssumed;
+
+
+    /**
+     * Constructor that requires all fields.
+     *
+     * @param path the path of the file, relative to the working tree and separated by slashes
+     * @param mode the Unix file mode of the file
+     * @param objectId the hash of the staged file content
+     * @param lastModified the modification date of the file in milliseconds, when it was staged
+     * @param size the lower 32 bits of the file size, when it was staged
+     * @param stage the merge stage of the file, which is 0 unless there is a conflict
+     * @param isUnchangedAssumed true if the assume-valid or skip-worktree flag is set
+     */
+    GitIndexEntry(String path, int mode, byte[] objectId, long lastModified, int size, int stage, boolean isUnchangedAssumed)
+    {
+        this.path = path;
+        this.mode = mode;
+        this.objectId = objectId;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.stage = stage;
+        this.isUnchangedAssumed = isUnchangedAssumed;
+    }
+
+
+    /**
+     * Returns the path of the file.
+     *
+     * @return the path of the file, relative to the working tree and separated by slashes
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+
+    /**
+     * Checks if the entry describes a regular file, as opposed to a symbolic link or submodule.
+     *
+     * @return true if the entry describes a regular file
+     */
+    public boolean isRegularFile()
+    {
+        return (mode & AStyleGitConstants.MODE_TYPE_MASK) == AStyleGitConstants.MODE_REGULAR_FILE;
+    }
+
+
+    /**
+     * Returns the hash of the staged file content.
+     *
+     * @return the hash of the staged file content
+     */
+    public byte[] getObjectId()
+    {
+        return objectId;
+    }
+
+
+    /**
+     * Returns the modification date of the file, when it was staged.
+     *
+     * @return the modification date in milliseconds
+     */
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+
+    /**
+     * Checks if a file size matches the staged size. Git only stores
+     * the lower 32 bits of the size.
+     *
+     * @param length the size of the file in bytes
+     *
+     * @return true if the size matches
+     */
+    public boolean hasSize(long length)
+    {
+        return size == (int) length;
+    }
+
+
+    /**
+     * Returns the merge stage of the file.
+     *
+     * @return the merge stage, which is 0 unless there is a conflict
+     */
+    public int getStage()
+    {
+        return stage;
+    }
+
+
+    /**
+     * Checks if Git was told to ignore changes of the file in the working tree.
+     *
+     * @return true if the assume-valid or skip-worktree flag is set
+     */
+    public boolean isUnchangedAssumed()
+    {
+        return isUnchangedAssumed;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+/**
+ * This class represents the decompressed content of a Git object, which
+ * was read either from a loose object file or from a pack.
+ *
+ * @author GeRDI Project
+ */
+class GitObject
+{
+    private final int type;
+    private final byte[] content;
+
+
+    /**
+     * Constructor that requires all fields.
+     *
+     * @param type the type of the object, as it is encoded in packs
+     * @param content the content of the object without the header
+     */
+    GitObject(int type, byte[] content)
+    {
+        this.type = type;
+        this.content = content;
+    }
+
+
+    /**
+     * Returns the type of the object.
+     *
+     * @return the type of the object, as it is encoded in packs
+     */
+    int getType()
+    {
+        return type;
+    }
+
+
+    /**
+     * Returns the content of the object.
+     *
+     * @return the content of the object without the header
+     */
+    byte[] getContent()
+    {
+        return content;
+    }
+}
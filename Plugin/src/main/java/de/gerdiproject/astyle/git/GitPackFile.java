@@ -0,0 +1,415 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * This class reads objects from a pack file of a Git repository, using the version 2
+ * pack index to locate them. Delta compressed objects are resolved against their base
+ * objects, which may be stored in other packs or as loose objects.
+ * <br>
+ * The pack index is read into memory instead of being mapped, so that Git can still
+ * replace or delete the pack while Eclipse is running.
+ *
+ * @author GeRDI Project
+ */
+class GitPackFile implements Closeable
+{
+    private final File packFile;
+    private final ByteBuffer packIndex;
+    private final int objectCount;
+    private final int namesStart;
+    private final int offsetsStart;
+    private final int largeOffsetsStart;
+    private RandomAccessFile pack;
+
+
+    /**
+     * Constructor that reads the index of a pack.
+     *
+     * @param indexFile the index file of the pack
+     * @param packFile the pack file that contains the objects
+     *
+     * @throws IOException if the index cannot be read or has an unsupported version
+     */
+    GitPackFile(File indexFile, File packFile) throws IOException
+    {
+        this.packFile = packFile;
+        this.packIndex = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+        this.pack = null;
+
+        try {
+            if (packIndex.getInt(0) != AStyleGitConstants.PACK_INDEX_SIGNATURE
+                || packIndex.getInt(4) != AStyleGitConstants.PACK_INDEX_VERSION)
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, indexFile));
+
+            this.objectCount = getFanout(AStyleGitConstants.PACK_INDEX_FANOUT_SIZE - 1);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, indexFile), e);
+        }
+
+        // names, CRC32 checksums, offsets, and large offsets are stored in consecutive tables
+        this.namesStart = 8 + 4 * AStyleGitConstants.PACK_INDEX_FANOUT_SIZE;
+        this.offsetsStart = namesStart + objectCount * (AStyleGitConstants.OBJECT_ID_LENGTH + 4);
+        this.largeOffsetsStart = offsetsStart + objectCount * 4;
+    }
+
+
+    /**
+     * Looks up the position of an object within the pack.
+     *
+     * @param objectId the hash of the object
+     *
+     * @return the byte offset of the object within the pack, or -1 if it is not in the pack
+     */
+    long findOffset(byte[] objectId)
+    {
+        final int firstByte = objectId[0] & 0xFF;
+        int low = firstByte == 0 ? 0 : getFanout(firstByte - 1);
+        int high = getFanout(firstByte) - 1;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int comparison = compareName(middle, objectId);
+
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return getOffset(middle);
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Reads and resolves an object of the pack.
+     *
+     * @param offset the byte offset of the object within the pack
+     * @param repository the repository that provides the bases of delta compressed objects
+     *
+     * @throws IOException if the pack cannot be read or is corrupt
+     *
+     * @return the resolved object
+     */
+    synchronized GitObject readObject(long offset, GitRepository repository) throws IOException
+    {
+        if (pack == null)
+            pack = new RandomAccessFile(packFile, "r");
+
+        try {
+            final Deque<byte[]> deltas = new ArrayDeque<>();
+            long currentOffset = offset;
+            GitObject base = null;
+
+            // follow the delta chain until a complete object is found
+            while (base == null) {
+                if (deltas.size() > AStyleGitConstants.MAX_DELTA_CHAIN_LENGTH)
+                    throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+
+                pack.seek(currentOffset);
+                int b = pack.readUnsignedByte();
+                final int type = (b >> 4) & 0x7;
+                long size = b & 0x0F;
+                int shift = 4;
+
+                while ((b & 0x80) != 0) {
+                    b = pack.readUnsignedByte();
+                    size |= (long)(b & 0x7F) << shift;
+                    shift += 7;
+                }
+
+                if (size > Integer.MAX_VALUE)
+                    throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+
+                switch (type) {
+                    case AStyleGitConstants.OBJECT_TYPE_OFS_DELTA:
+                        final long baseDistance = readOffsetVarInt(pack);
+                        deltas.push(inflate(pack.getFilePointer(), (int) size));
+                        currentOffset -= baseDistance;
+                        break;
+
+                    case AStyleGitConstants.OBJECT_TYPE_REF_DELTA:
+                        final byte[] baseId = new byte[AStyleGitConstants.OBJECT_ID_LENGTH];
+                        pack.readFully(baseId);
+                        deltas.push(inflate(pack.getFilePointer(), (int) size));
+                        base = repository.readObject(baseId);
+                        break;
+
+                    case AStyleGitConstants.OBJECT_TYPE_COMMIT:
+                    case AStyleGitConstants.OBJECT_TYPE_TREE:
+                    case AStyleGitConstants.OBJECT_TYPE_BLOB:
+                    case AStyleGitConstants.OBJECT_TYPE_TAG:
+                        base = new GitObject(type, inflate(pack.getFilePointer(), (int) size));
+                        break;
+
+                    default:
+                        throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+                }
+            }
+
+            // apply the deltas, starting with the one that is closest to the base
+            byte[] content = base.getContent();
+
+            while (!deltas.isEmpty())
+                content = applyDelta(content, deltas.pop());
+
+            return new GitObject(base.getType(), content);
+
+        } catch (DataFormatException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile), e);
+        }
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (pack != null) {
+            pack.close();
+            pack = null;
+        }
+    }
+
+
+    /**
+     * Decompresses a zlib stream of the pack.
+     *
+     * @param position the byte offset at which the stream starts
+     * @param size the size of the decompressed data
+     *
+     * @throws IOException if the pack cannot be read or the stream has an unexpected size
+     * @throws DataFormatException if the stream is corrupt
+     *
+     * @return the decompressed data
+     */
+    private byte[] inflate(long position, int size) throws IOException, DataFormatException
+    {
+        final Inflater inflater = new Inflater();
+        final byte[] input = new byte[AStyleGitConstants.PACK_READ_BUFFER_SIZE];
+
+        // one additional byte lets the inflater finish empty streams, and reveals oversized ones
+        final byte[] output = new byte[size + 1];
+        int outputLength = 0;
+
+        try {
+            pack.seek(position);
+
+            while (!inflater.finished() && outputLength <= size) {
+                if (inflater.needsInput()) {
+                    final int inputLength = pack.read(input);
+
+                    if (inputLength < 0)
+                        break;
+
+                    inflater.setInput(input, 0, inputLength);
+                }
+
+                outputLength += inflater.inflate(output, outputLength, output.length - outputLength);
+
+                if (inflater.needsDictionary())
+                    break;
+            }
+
+            if (!inflater.finished() || outputLength != size)
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+
+            final byte[] result = new byte[size];
+            System.arraycopy(output, 0, result, 0, size);
+            return result;
+
+        } finally {
+            inflater.end();
+        }
+    }
+
+
+    /**
+     * Reconstructs an object from its base object and a delta, which consists of
+     * instructions that either copy a range of the base, or insert new bytes.
+     *
+     * @param base the content of the base object
+     * @param delta the decompressed delta
+     *
+     * @throws IOException if the delta does not match the base
+     *
+     * @return the content of the reconstructed object
+     */
+    private byte[] applyDelta(byte[] base, byte[] delta) throws IOException
+    {
+        final ByteBuffer instructions = ByteBuffer.wrap(delta);
+
+        if (readSizeVarInt(instructions) != base.length)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+
+        final byte[] result = new byte[(int) readSizeVarInt(instructions)];
+        int resultLength = 0;
+
+        while (instructions.hasRemaining()) {
+            final int command = instructions.get() & 0xFF;
+
+            if ((command & 0x80) != 0) {
+                // the lower seven bits flag which bytes of the copy offset and size are present
+                int copyOffset = 0;
+                int copySize = 0;
+
+                for (int i = 0; i < 4; i++) {
+                    if ((command & (1 << i)) != 0)
+                        copyOffset |= (instructions.get() & 0xFF) << (8 * i);
+                }
+
+                for (int i = 0; i < 3; i++) {
+                    if ((command & (0x10 << i)) != 0)
+                        copySize |= (instructions.get() & 0xFF) << (8 * i);
+                }
+
+                if (copySize == 0)
+                    copySize = 0x10000;
+
+                System.arraycopy(base, copyOffset, result, resultLength, copySize);
+                resultLength += copySize;
+
+            } else if (command != 0) {
+                instructions.get(result, resultLength, command);
+                resultLength += command;
+
+            } else
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+        }
+
+        if (resultLength != result.length)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_PACK, packFile));
+
+        return result;
+    }
+
+
+    /**
+     * Returns the number of objects whose hash starts with a byte that is less than or equal to a value.
+     *
+     * @param firstByte the unsigned value of the first hash byte
+     *
+     * @return the cumulative number of objects
+     */
+    private int getFanout(int firstByte)
+    {
+        return packIndex.getInt(8 + 4 * firstByte);
+    }
+
+
+    /**
+     * Compares the hash of an object in the pack index with another hash.
+     *
+     * @param index the position of the object in the sorted pack index
+     * @param objectId the hash that is compared
+     *
+     * @return a negative value, zero, or a positive value if the indexed hash is less than,
+     * equal to, or greater than the other hash
+     */
+    private int compareName(int index, byte[] objectId)
+    {
+        final int nameStart = namesStart + index * AStyleGitConstants.OBJECT_ID_LENGTH;
+
+        for (int i = 0; i < AStyleGitConstants.OBJECT_ID_LENGTH; i++) {
+            final int difference = (packIndex.get(nameStart + i) & 0xFF) - (objectId[i] & 0xFF);
+
+            if (difference != 0)
+                return difference;
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Returns the byte offset of an object in the pack. Offsets that do not fit
+     * into 31 bits refer to a table of 64 bit offsets.
+     *
+     * @param index the position of the object in the sorted pack index
+     *
+     * @return the byte offset of the object within the pack
+     */
+    private long getOffset(int index)
+    {
+        final int offset = packIndex.getInt(offsetsStart + 4 * index);
+
+        if ((offset & AStyleGitConstants.PACK_LARGE_OFFSET_FLAG) == 0)
+            return offset;
+
+        return packIndex.getLong(largeOffsetsStart + 8 * (offset & ~AStyleGitConstants.PACK_LARGE_OFFSET_FLAG));
+    }
+
+
+    /**
+     * Reads the distance of the base of an offset delta, which uses the offset encoding of Git.
+     *
+     * @param input the pack, positioned at the encoded distance
+     *
+     * @throws IOException if the pack cannot be read
+     *
+     * @return the distance in bytes
+     */
+    private static long readOffsetVarInt(RandomAccessFile input) throws IOException
+    {
+        int b = input.readUnsignedByte();
+        long value = b & 0x7F;
+
+        while ((b & 0x80) != 0) {
+            b = input.readUnsignedByte();
+            value = ((value + 1) << 7) | (b & 0x7F);
+        }
+
+        return value;
+    }
+
+
+    /**
+     * Reads an object size at the start of a delta, which is encoded in
+     * little endian groups of seven bits.
+     *
+     * @param buffer the delta
+     *
+     * @return the decoded size
+     */
+    private static long readSizeVarInt(ByteBuffer buffer)
+    {
+        long value = 0;
+        int shift = 0;
+        int b;
+
+        do {
+            b = buffer.get() & 0xFF;
+            value |= (long)(b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        return value;
+    }
+}
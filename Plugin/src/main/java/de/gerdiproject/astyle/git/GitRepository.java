@@ -0,0 +1,658 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.git;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This class reads the working tree, the index, and the object database of a Git
+ * repository directly from the file system, so that changed files can be found
+ * without depending on a Git client or another plugin. Only reading is supported.
+ * <br>
+ * A file is considered changed if its staged content differs from the HEAD commit,
+ * or if the file in the working tree differs from its staged content. Like Git, the
+ * modification date and size of a file are compared first, and the content is only
+ * hashed if they do not suffice.
+ *
+ * @author GeRDI Project
+ */
+public class GitRepository implements Closeable
+{
+    private static final int MAX_SYMBOLIC_REF_DEPTH = 5;
+
+    private final File workTree;
+    private final File gitFolder;
+    private final File commonFolder;
+    private List<File> objectFolders;
+    private List<GitPackFile> packs;
+
+
+    /**
+     * Looks for the Git repository that contains a folder, by searching the
+     * folder and its parents for a .git folder, or a .git file that points
+     * to the repository of a linked working tree.
+     *
+     * @param folder a folder of the working tree
+     *
+     * @throws IOException if a .git file cannot be read
+     *
+     * @return the repository, or null if the folder is not part of a repository
+     */
+    public static GitRepository find(File folder) throws IOException
+    {
+        File currentFolder = folder.getAbsoluteFile();
+
+        while (currentFolder != null) {
+            final File dotGit = new File(currentFolder, AStyleGitConstants.GIT_FOLDER);
+
+            if (dotGit.isDirectory())
+                return new GitRepository(currentFolder, dotGit, dotGit);
+
+            if (dotGit.isFile()) {
+                final String gitLink = readFirstLine(dotGit);
+
+                if (gitLink != null && gitLink.startsWith(AStyleGitConstants.GITDIR_PREFIX)) {
+                    final File gitFolder = resolve(currentFolder, gitLink.substring(AStyleGitConstants.GITDIR_PREFIX.length()));
+
+                    // linked working trees share the objects and refs of the main repository
+                    final File commonDirFile = new File(gitFolder, AStyleGitConstants.COMMONDIR_FILE);
+                    final String commonDir = commonDirFile.isFile() ? readFirstLine(commonDirFile) : null;
+                    final File commonFolder = commonDir != null ? resolve(gitFolder, commonDir) : gitFolder;
+
+                    return new GitRepository(currentFolder, gitFolder, commonFolder);
+                }
+            }
+
+            currentFolder = currentFolder.getParentFile();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Private constructor that is invoked by {@linkplain #find(File)}.
+     *
+     * @param workTree the root folder of the working tree
+     * @param gitFolder the folder that contains the HEAD and index of the working tree
+     * @param commonFolder the folder that contains the objects and refs of the repository
+     */
+    private GitRepository(File workTree, File gitFolder, File commonFolder)
+    {
+        this.workTree = workTree;
+        this.gitFolder = gitFolder;
+        this.commonFolder = commonFolder;
+        this.objectFolders = null;
+        this.packs = null;
+    }
+
+
+    /**
+     * Returns the root folder of the working tree.
+     *
+     * @return the root folder of the working tree
+     */
+    public File getWorkTree()
+    {
+        return workTree;
+    }
+
+
+    /**
+     * Retrieves all files within a folder of the working tree that are either staged, or
+     * modified relative to the index. Deleted files, symbolic links, submodules, and files
+     * that Git was told to assume unchanged are omitted, and so are untracked files.
+     *
+     * @param folder a folder of the working tree
+     *
+     * @throws IOException if the repository cannot be read
+     *
+     * @return a list of changed files, sorted by path
+     */
+    public List<File> getChangedFiles(File folder) throws IOException
+    {
+        final String prefix = getRelativePath(folder);
+        final Map<String, byte[]> headFiles = readHeadFiles(prefix);
+        final GitIndex index = new GitIndex(new File(gitFolder, AStyleGitConstants.INDEX_FILE));
+        final Set<File> changedFiles = new LinkedHashSet<>();
+
+        for (GitIndexEntry entry : index.getEntries()) {
+            if (!entry.getPath().startsWith(prefix) || !entry.isRegularFile())
+                continue;
+
+            final File file = new File(workTree, entry.getPath());
+
+            if (!file.isFile() || changedFiles.contains(file))
+                continue;
+
+            final byte[] headObjectId = headFiles.get(entry.getPath());
+            final boolean isStaged = entry.getStage() != 0
+                                     || headObjectId == null
+                                     || !Arrays.equals(headObjectId, entry.getObjectId());
+
+            if (isStaged || !entry.isUnchangedAssumed() && isModified(entry, index, file))
+                changedFiles.add(file);
+        }
+
+        return new ArrayList<>(changedFiles);
+    }
+
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (packs != null) {
+            for (GitPackFile pack : packs)
+                pack.close();
+
+            packs = null;
+        }
+    }
+
+
+    /**
+     * Reads an object from the object database, looking for loose objects
+     * first, and then for packed objects.
+     *
+     * @param objectId the hash of the object
+     *
+     * @throws IOException if the object is missing or cannot be read
+     *
+     * @return the object
+     */
+    synchronized GitObject readObject(byte[] objectId) throws IOException
+    {
+        final String hexId = toHex(objectId);
+
+        for (File objectFolder : getObjectFolders()) {
+            final File looseObject = new File(new File(objectFolder, hexId.substring(0, 2)), hexId.substring(2));
+
+            if (looseObject.isFile())
+                return readLooseObject(looseObject, hexId);
+        }
+
+        for (GitPackFile pack : getPacks()) {
+            final long offset = pack.findOffset(objectId);
+
+            if (offset >= 0)
+                return pack.readObject(offset, this);
+        }
+
+        throw new IOException(String.format(AStyleGitConstants.ERROR_MISSING_OBJECT, hexId));
+    }
+
+
+    /**
+     * Converts a folder of the working tree to a path prefix of the index entries.
+     *
+     * @param folder a folder of the working tree
+     *
+     * @throws IOException if the folder does not lie within the working tree
+     *
+     * @return a slash separated path that ends with a slash, or an empty string for the root folder
+     */
+    private String getRelativePath(File folder) throws IOException
+    {
+        final Path workTreePath = workTree.toPath().toAbsolutePath().normalize();
+        final Path folderPath = folder.toPath().toAbsolutePath().normalize();
+
+        if (!folderPath.startsWith(workTreePath))
+            throw new IOException(String.format(AStyleGitConstants.ERROR_NO_REPOSITORY, folder));
+
+        final StringBuilder prefix = new StringBuilder();
+
+        for (Path name : workTreePath.relativize(folderPath)) {
+            if (!name.toString().isEmpty())
+                prefix.append(name).append(AStyleGitConstants.PATH_SEPARATOR);
+        }
+
+        return prefix.toString();
+    }
+
+
+    /**
+     * Reads the files of the HEAD commit that lie within a folder.
+     *
+     * @param prefix the path prefix of the folder, as returned by {@linkplain #getRelativePath(File)}
+     *
+     * @throws IOException if the commit or its trees cannot be read
+     *
+     * @return a map of slash separated paths to the hashes of the committed file contents,
+     * which is empty if HEAD does not point to a commit yet
+     */
+    private Map<String, byte[]> readHeadFiles(String prefix) throws IOException
+    {
+        final Map<String, byte[]> headFiles = new HashMap<>();
+        final byte[] commitId = resolveHead();
+
+        if (commitId != null) {
+            final GitObject commit = readObject(commitId);
+            final String commitText = new String(commit.getContent(), StandardCharsets.UTF_8);
+
+            if (commit.getType() != AStyleGitConstants.OBJECT_TYPE_COMMIT || !commitText.startsWith(AStyleGitConstants.COMMIT_TREE_PREFIX))
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, toHex(commitId)));
+
+            final int treeIdStart = AStyleGitConstants.COMMIT_TREE_PREFIX.length();
+            final byte[] treeId = fromHex(commitText.substring(treeIdStart, treeIdStart + AStyleGitConstants.OBJECT_ID_HEX_LENGTH));
+            readTree(treeId, "", prefix, headFiles);
+        }
+
+        return headFiles;
+    }
+
+
+    /**
+     * Recursively reads the files of a tree object, skipping all subtrees
+     * that do not lie within a folder.
+     *
+     * @param treeId the hash of the tree object
+     * @param treePath the slash separated path of the tree, ending with a slash unless it is the root tree
+     * @param prefix the path prefix of the folder whose files are read
+     * @param files a map to which the paths and hashes of the files are added
+     *
+     * @throws IOException if the tree cannot be read
+     */
+    private void readTree(byte[] treeId, String treePath, String prefix, Map<String, byte[]> files) throws IOException
+    {
+        final GitObject tree = readObject(treeId);
+
+        if (tree.getType() != AStyleGitConstants.OBJECT_TYPE_TREE)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, toHex(treeId)));
+
+        final byte[] content = tree.getContent();
+        int position = 0;
+
+        // every entry consists of an octal mode, a space, a null terminated name, and a binary hash
+        while (position < content.length) {
+            final int spacePosition = indexOf(content, (byte) ' ', position);
+            final int nullPosition = indexOf(content, (byte) 0, spacePosition);
+
+            if (spacePosition < 0 || nullPosition < 0 || nullPosition + AStyleGitConstants.OBJECT_ID_LENGTH >= content.length)
+                throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, toHex(treeId)));
+
+            final int mode = Integer.parseInt(new String(content, position, spacePosition - position, StandardCharsets.US_ASCII), 8);
+            final String path = treePath + new String(content, spacePosition + 1, nullPosition - spacePosition - 1, StandardCharsets.UTF_8);
+            final byte[] objectId = Arrays.copyOfRange(content, nullPosition + 1, nullPosition + 1 + AStyleGitConstants.OBJECT_ID_LENGTH);
+            position = nullPosition + 1 + AStyleGitConstants.OBJECT_ID_LENGTH;
+
+            if ((mode & AStyleGitConstants.MODE_TYPE_MASK) == AStyleGitConstants.MODE_TREE) {
+                final String subTreePath = path + AStyleGitConstants.PATH_SEPARATOR;
+
+                if (subTreePath.startsWith(prefix) || prefix.startsWith(subTreePath))
+                    readTree(objectId, subTreePath, prefix, files);
+
+            } else if (path.startsWith(prefix))
+                files.put(path, objectId);
+        }
+    }
+
+
+    /**
+     * Checks if a file of the working tree differs from its staged content.
+     *
+     * @param entry the index entry of the file
+     * @param index the index that contains the entry
+     * @param file the file in the working tree
+     *
+     * @throws IOException if the file cannot be read
+     *
+     * @return true if the file was modified since it was staged
+     */
+    private boolean isModified(GitIndexEntry entry, GitIndex index, File file) throws IOException
+    {
+        final Path path = file.toPath();
+        final long length = Files.size(path);
+
+        if (!entry.hasSize(length))
+            return true;
+
+        if (Files.getLastModifiedTime(path).toMillis() == entry.getLastModified() && !index.isRacilyClean(entry))
+            return false;
+
+        return !Arrays.equals(hashBlob(path, length), entry.getObjectId());
+    }
+
+
+    /**
+     * Calculates the hash that a file would have as a blob object.
+     *
+     * @param path the file that is hashed
+     * @param length the size of the file in bytes
+     *
+     * @throws IOException if the file cannot be read
+     *
+     * @return the hash of the blob object
+     */
+    private static byte[] hashBlob(Path path, long length) throws IOException
+    {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance(AStyleGitConstants.OBJECT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        final String header = String.format(
+                                  AStyleGitConstants.OBJECT_HEADER,
+                                  AStyleGitConstants.OBJECT_TYPE_NAMES[AStyleGitConstants.OBJECT_TYPE_BLOB],
+                                  length);
+        digest.update(header.getBytes(StandardCharsets.US_ASCII));
+
+        try (InputStream input = Files.newInputStream(path)) {
+            final byte[] buffer = new byte[AStyleGitConstants.PACK_READ_BUFFER_SIZE];
+            int readBytes;
+
+            while ((readBytes = input.read(buffer)) >= 0)
+                digest.update(buffer, 0, readBytes);
+        }
+
+        return digest.digest();
+    }
+
+
+    /**
+     * Resolves the commit that HEAD points to, following symbolic refs
+     * through loose ref files and the packed-refs file.
+     *
+     * @throws IOException if a ref file cannot be read
+     *
+     * @return the hash of the commit, or null if the current branch has no commits yet
+     */
+    private byte[] resolveHead() throws IOException
+    {
+        String refValue = readFirstLine(new File(gitFolder, AStyleGitConstants.HEAD_FILE));
+
+        for (int depth = 0; refValue != null && depth < MAX_SYMBOLIC_REF_DEPTH; depth++) {
+            if (!refValue.startsWith(AStyleGitConstants.SYMBOLIC_REF_PREFIX))
+                return fromHex(refValue);
+
+            refValue = readRef(refValue.substring(AStyleGitConstants.SYMBOLIC_REF_PREFIX.length()).trim());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Reads the value of a ref, which is either a hash or another symbolic ref.
+     *
+     * @param refName the full name of the ref, such as refs/heads/master
+     *
+     * @throws IOException if a ref file cannot be read
+     *
+     * @return the value of the ref, or null if the ref does not exist
+     */
+    private String readRef(String refName) throws IOException
+    {
+        // per working tree refs are stored in the git folder, and all other refs in the common folder
+        for (File folder : Arrays.asList(gitFolder, commonFolder)) {
+            final File looseRef = new File(folder, refName);
+
+            if (looseRef.isFile())
+                return readFirstLine(looseRef);
+        }
+
+        final File packedRefs = new File(commonFolder, AStyleGitConstants.PACKED_REFS_FILE);
+
+        if (packedRefs.isFile()) {
+            try (BufferedReader reader = Files.newBufferedReader(packedRefs.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()
+                        || line.charAt(0) == AStyleGitConstants.PACKED_REFS_COMMENT
+                        || line.charAt(0) == AStyleGitConstants.PACKED_REFS_PEELED)
+                        continue;
+
+                    final int separator = line.indexOf(' ');
+
+                    if (separator > 0 && line.substring(separator + 1).equals(refName))
+                        return line.substring(0, separator);
+                }
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Reads and decompresses a loose object.
+     *
+     * @param looseObject the file of the object
+     * @param hexId the hexadecimal hash of the object, used for error messages
+     *
+     * @throws IOException if the object cannot be read or is corrupt
+     *
+     * @return the object
+     */
+    private static GitObject readLooseObject(File looseObject, String hexId) throws IOException
+    {
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+
+        try (InputStream input = new InflaterInputStream(Files.newInputStream(looseObject.toPath()))) {
+            final byte[] buffer = new byte[AStyleGitConstants.PACK_READ_BUFFER_SIZE];
+            int readBytes;
+
+            while ((readBytes = input.read(buffer)) >= 0)
+                decompressed.write(buffer, 0, readBytes);
+        }
+
+        // the content is preceded by a header that consists of the type name and the size
+        final byte[] bytes = decompressed.toByteArray();
+        final int spacePosition = indexOf(bytes, (byte) ' ', 0);
+        final int nullPosition = indexOf(bytes, (byte) 0, spacePosition);
+
+        if (spacePosition < 0 || nullPosition < 0)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, hexId));
+
+        final int type = Arrays.asList(AStyleGitConstants.OBJECT_TYPE_NAMES)
+                         .indexOf(new String(bytes, 0, spacePosition, StandardCharsets.US_ASCII));
+
+        if (type < 0)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, hexId));
+
+        return new GitObject(type, Arrays.copyOfRange(bytes, nullPosition + 1, bytes.length));
+    }
+
+
+    /**
+     * Retrieves the object folder of the repository and the object folders
+     * of alternate repositories, which share their objects.
+     *
+     * @throws IOException if the alternates file cannot be read
+     *
+     * @return a list of object folders
+     */
+    private List<File> getObjectFolders() throws IOException
+    {
+        if (objectFolders == null) {
+            final File objectFolder = new File(commonFolder, AStyleGitConstants.OBJECTS_FOLDER);
+            final File alternates = new File(objectFolder, AStyleGitConstants.ALTERNATES_FILE);
+            final List<File> folders = new ArrayList<>();
+            folders.add(objectFolder);
+
+            if (alternates.isFile()) {
+                for (String line : Files.readAllLines(alternates.toPath(), StandardCharsets.UTF_8)) {
+                    final String alternatePath = line.trim();
+
+                    if (!alternatePath.isEmpty() && alternatePath.charAt(0) != AStyleGitConstants.ALTERNATES_COMMENT)
+                        folders.add(resolve(objectFolder, alternatePath));
+                }
+            }
+
+            objectFolders = folders;
+        }
+
+        return objectFolders;
+    }
+
+
+    /**
+     * Retrieves the packs of all object folders. Packs are only loaded once,
+     * because they are immutable.
+     *
+     * @throws IOException if a pack index cannot be read
+     *
+     * @return a list of packs
+     */
+    private List<GitPackFile> getPacks() throws IOException
+    {
+        if (packs == null) {
+            final List<GitPackFile> loadedPacks = new ArrayList<>();
+
+            for (File objectFolder : getObjectFolders()) {
+                final File[] packFiles = new File(objectFolder, AStyleGitConstants.PACK_FOLDER).listFiles(
+                                             (File file) -> file.getName().endsWith(AStyleGitConstants.PACK_SUFFIX));
+
+                if (packFiles == null)
+                    continue;
+
+                for (File packFile : packFiles) {
+                    final String baseName = packFile.getName().substring(0, packFile.getName().length() - AStyleGitConstants.PACK_SUFFIX.length());
+                    final File indexFile = new File(packFile.getParentFile(), baseName + AStyleGitConstants.PACK_INDEX_SUFFIX);
+
+                    if (indexFile.isFile())
+                        loadedPacks.add(new GitPackFile(indexFile, packFile));
+                }
+            }
+
+            packs = loadedPacks;
+        }
+
+        return packs;
+    }
+
+
+    /**
+     * Reads the first line of a small text file.
+     *
+     * @param file the file that is read
+     *
+     * @throws IOException if the file cannot be read
+     *
+     * @return the trimmed first line, or null if the file is empty
+     */
+    private static String readFirstLine(File file) throws IOException
+    {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final String line = reader.readLine();
+            return line != null ? line.trim() : null;
+        }
+    }
+
+
+    /**
+     * Resolves a path that is either absolute or relative to a folder.
+     *
+     * @param folder the folder to which relative paths are resolved
+     * @param path the path that is resolved
+     *
+     * @return the resolved file
+     */
+    private static File resolve(File folder, String path)
+    {
+        return folder.toPath().resolve(path.trim()).normalize().toFile();
+    }
+
+
+    /**
+     * Looks for the first occurrence of a byte in an array.
+     *
+     * @param bytes the array that is searched
+     * @param value the byte that is searched for
+     * @param start the index at which the search starts, or a negative value
+     *
+     * @return the index of the byte, or -1 if it was not found
+     */
+    private static int indexOf(byte[] bytes, byte value, int start)
+    {
+        if (start < 0)
+            return -1;
+
+        for (int i = start; i < bytes.length; i++) {
+            if (bytes[i] == value)
+                return i;
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Converts a binary hash to a hexadecimal string.
+     *
+     * @param objectId the binary hash
+     *
+     * @return a lower case hexadecimal string
+     */
+    private static String toHex(byte[] objectId)
+    {
+        final StringBuilder hex = new StringBuilder(AStyleGitConstants.OBJECT_ID_HEX_LENGTH);
+
+        for (byte b : objectId)
+            hex.append(String.format("%02x", b & 0xFF));
+
+        return hex.toString();
+    }
+
+
+    /**
+     * Converts a hexadecimal hash to a binary hash.
+     *
+     * @param hexId the hexadecimal hash
+     *
+     * @throws IOException if the string is no valid hash
+     *
+     * @return the binary hash
+     */
+    private static byte[] fromHex(String hexId) throws IOException
+    {
+        if (hexId.length() != AStyleGitConstants.OBJECT_ID_HEX_LENGTH)
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, hexId));
+
+        final byte[] objectId = new byte[AStyleGitConstants.OBJECT_ID_LENGTH];
+
+        try {
+            for (int i = 0; i < objectId.length; i++)
+                objectId[i] = (byte) Integer.parseInt(hexId.substring(2 * i, 2 * i + 2), 16);
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format(AStyleGitConstants.ERROR_CORRUPT_OBJECT, hexId), e);
+        }
+
+        return objectId;
+    }
+}
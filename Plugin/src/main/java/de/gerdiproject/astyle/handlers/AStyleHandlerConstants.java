@@ -35,31 +35,74 @@ public class AStyleHandlerConstants
     public static final String CANNOT_FORMAT_PROJECT = "Cannot format Project '%s'!";
     public static final String CAN_FORMAT_FILE = "%%s%%n%%nFormatted File '%s'!";
     public static final String CAN_FORMAT_PROJECT = "%%s%%n%%nFormatted all files in Project '%s'!";
+    public static final String CANNOT_FORMAT_FILES = "Cannot format %d Files!";
+    public static final String CAN_FORMAT_FILES = "%%s%%n%%nFormatted %d Files!";
 
     public static final String ERROR_NO_PROJECT = "You need to select a project from the Project Explorer, or open a file that belongs to a project before formatting!";
     public static final String ERROR_NO_PATH = "%s Please, specify the AStyle paths in the preferences.";
     public static final String ERROR_NO_FILE = "Cannot format! No file or project could be retrieved from the current selection.";
     public static final String ERROR_GENERIC = "%s An error occurred during the formatting process.";
     public static final String ERROR_RETURN = "%s%n%n%s%n%n%s Return code: %d";
+    public static final String ERROR_TIMEOUT = "%s The formatter did not finish within %d seconds and was terminated.";
+    public static final String ERROR_REPEATED_TIMEOUT = "%s%n%nThe formatter '%s' timed out %d times. Please, check its options or formatting script.";
+    public static final String ALREADY_FORMATTED = "All files are already formatted.";
+
+    public static final String CANNOT_CHECK_PROJECT = "Cannot check Project '%s'!";
+    public static final String CHECKED_PROJECT_FORMATTED = "All %d checked files of Project '%s' are formatted.";
+    public static final String CHECKED_PROJECT_UNFORMATTED = "%d of %d checked files of Project '%s' are not formatted:";
+    public static final String CHECK_SHORT_CIRCUITED = "The check stopped after %d unformatted files.";
+    public static final String ERROR_CHECK_HARVESTER = "%s Projects that are formatted by a harvester script cannot be checked without being formatted.";
+    public static final String UNFORMATTED_FILE_LINE = "%s:%d";
+    public static final int CHECK_MAX_OFFENDERS = 100;
+
+    public static final String CANNOT_FORMAT_CHANGED_FILES = "Cannot format the changed Files of Project '%s'!";
+    public static final String CAN_FORMAT_CHANGED_FILES = "%%s%%n%%nFormatted %d changed Files of Project '%s'!";
+    public static final String NO_CHANGED_FILES = "Project '%s' contains no modified or staged source files.";
+    public static final String ERROR_NO_GIT_REPOSITORY = "%s The Project is not part of a Git repository.";
+    public static final String ERROR_GIT = "%s The Git repository could not be read:%n%s";
+
+    public static final String UNFORMATTED_MARKER = "AStyle_Plugin.unformattedMarker";
+    public static final String UNFORMATTED_MARKER_MESSAGE = "The file is not formatted according to the AStyle options, starting at this line.";
+    public static final String EXCLUDED_BY_PATTERNS = "All files are excluded via the file patterns.";
+
+    public static final String FORMATTING_JOB_FAMILY = "AStyle.jobs.formatting";
+    public static final String FORMAT_FILE_JOB_NAME = "AStyle: Formatting File '%s'";
+    public static final String FORMAT_PROJECT_JOB_NAME = "AStyle: Formatting Project '%s'";
+    public static final String BATCH_FORMATTING_JOB_NAME = "AStyle: Formatting saved Files";
+    public static final String FORMAT_SELECTION_JOB_NAME = "AStyle: Formatting %d selected Resources";
+    public static final String CHECK_PROJECT_JOB_NAME = "AStyle: Checking Project '%s'";
+    public static final String FORMAT_CHANGED_FILES_JOB_NAME = "AStyle: Formatting changed Files of Project '%s'";
+    public static final int SAVE_MAX_DELAY_QUIET_PERIODS = 4;
+    public static final long CANCEL_POLLING_INTERVAL = 100;
+    public static final long IN_MEMORY_FORMATTING_TIMEOUT = 3000;
 
     public static final String PROJECT_SOURCE_DIRECTORY = "src";
     public static final String JAVA_FILE_EXTENSION = ".java";
-    public static final String JAVA_FILE_PATH_QUOTED = "\"%s.java\"";
     public static final String FILE_PATH_QUOTED = "\"%s\"";
+    public static final int MAX_COMMAND_LINE_LENGTH = 30000;
 
     public static final String ASTYLE_BIN_CMD = "%s" + File.separatorChar + "astyle";
 
     public static final String OPTIONS_CMD_PARAM = "--options=%s";
-    public static final String RECURSIVE_CMD_PARAM = "--recursive";
     public static final String NO_BACKUP_CMD_PARAM = "--suffix=none";
-    public static final String ONLY_FORMATTED_CMD_PARAM = "--formatted";
 
+    public static final String HARVESTER_FORMATTING_FOLDER = "scripts/formatting";
     public static final String HARVESTER_FORMATTING_SCRIPT = getHarvesterFormattingScriptLocation();
 
+    public static final String DIRTY_FILES_STATE_FILE = "dirtyFiles.txt";
+    public static final String TEMP_FILE_SUFFIX = ".tmp";
+    public static final String HIDDEN_FILE_PREFIX = ".";
+    public static final char PROJECT_PREFIX = '=';
+    public static final char CLEAN_ROOT_PREFIX = '+';
+    public static final char DIRTY_FILE_PREFIX = '-';
+    public static final char FINGERPRINT_PREFIX = '#';
+
     public static final String SAVE_COMMAND = "org.eclipse.ui.file.save";
     public static final String SAVE_AS_COMMAND = "org.eclipse.ui.file.saveAs";
     public static final String SAVE_ALL_COMMAND = "org.eclipse.ui.file.saveAll";
     public static final String FORMAT_PROJECT_COMMAND = "AStyle.commands.formatProjectCommand";
+    public static final String CHECK_PROJECT_COMMAND = "AStyle.commands.checkProjectCommand";
+    public static final String FORMAT_CHANGED_FILES_COMMAND = "AStyle.commands.formatChangedFilesCommand";
     public static final String FORMAT_FILE_COMMAND = "AStyle.commands.formatFileCommand";
     public static final String ECLIPSE_FORMAT_JAVA_COMMAND = "org.eclipse.jdt.ui.edit.text.java.format";
 
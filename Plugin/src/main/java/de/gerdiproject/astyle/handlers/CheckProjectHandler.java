@@ -0,0 +1,55 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.handlers;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.jobs.ProjectCheckJob;
+import de.gerdiproject.astyle.utils.AStyleEclipseUtils;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+
+/**
+ * The handler for the AStyle.commands.checkProjectCommand.
+ * This command attempts to find out which project is currently being worked on,
+ * and checks if all files in the source folders of this project are formatted,
+ * without changing any file.
+ *
+ * @author GeRDI Project
+ *
+ */
+public final class CheckProjectHandler extends AbstractHandler
+{
+    @Override
+    public Object execute(ExecutionEvent event) throws ExecutionException
+    {
+        final IProject project = AStyleEclipseUtils.getActiveProject(event);
+
+        // check project in the background, the job notifies the user about the status
+        if (project != null) {
+            final Job checkJob = new ProjectCheckJob(project, event);
+            checkJob.setPriority(Job.LONG);
+            checkJob.schedule();
+        } else
+            FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT).display(event);
+
+        return null;
+    }
+}
@@ -15,18 +15,24 @@
  */
 package de.gerdiproject.astyle.handlers;
 
+import java.io.File;
+import java.util.List;
 
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.Job;
 
+import de.gerdiproject.astyle.jobs.FormattingJob;
+import de.gerdiproject.astyle.jobs.SelectionFormattingJob;
 import de.gerdiproject.astyle.utils.AStyleEclipseUtils;
 import de.gerdiproject.astyle.utils.FeedbackMessage;
-import de.gerdiproject.astyle.utils.FormattingUtils;
 
 /**
  * The handler for the AStyle_Neon.commands.formatFileCommand.
  * This handler attempts to find out which file is currently being viewed and formats it.
+ * If multiple files, folders or projects are selected in the Explorer, they are all
+ * formatted in a single run.
  *
  * @author Robin Weiss
  *
@@ -36,27 +42,39 @@ public final class FormatFileHandler extends AbstractHandler
     @Override
     public Object execute(ExecutionEvent event)
     {
-        // format file and memorize the status message
-        final FeedbackMessage statusMessage = formatFile(event);
-
-        // notify the user about the status
-        statusMessage.display(event);
+        // format file in the background, the job notifies the user about the status
+        formatFile(event);
 
         return null;
     }
 
 
     /**
-     * Formats a the currently active file.
+     * Formats a the currently active file, or all selected files, in a background job.
      *
      * @param event the event that triggered the formatting
-     *
-     * @return a feedback message of the formatting process
      */
-    public FeedbackMessage formatFile(ExecutionEvent event)
+    public void formatFile(ExecutionEvent event)
     {
+        final List<File> selectedFiles = AStyleEclipseUtils.getSelectedFiles(event);
+
+        // abort if there is nothing to format
+        if (selectedFiles.isEmpty()) {
+            FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE).display(event);
+            return;
+        }
+
+        // format multiple selected resources in a single run
+        if (selectedFiles.size() > 1) {
+            final Job formattingJob = new SelectionFormattingJob(selectedFiles, event);
+            formattingJob.setPriority(Job.LONG);
+            formattingJob.schedule();
+            return;
+        }
+
         final IProject project = AStyleEclipseUtils.getActiveProject(event);
-        final String filePath = AStyleEclipseUtils.getFilePathOfSelectedFile(event);
+        final String filePath = selectedFiles.get(0).getPath();
+
         final String successPrefix = String.format(AStyleHandlerConstants.CAN_FORMAT_FILE, filePath);
         final String errorPrefix = String.format(AStyleHandlerConstants.CANNOT_FORMAT_FILE, filePath);
 
@@ -65,7 +83,15 @@ public final class FormatFileHandler extends AbstractHandler
             AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.ECLIPSE_FORMAT_JAVA_COMMAND);
 
         // execute AStyle formatting
-        return FormattingUtils.format(filePath, project, errorPrefix, successPrefix);
+        final Job formattingJob = new FormattingJob(
+            String.format(AStyleHandlerConstants.FORMAT_FILE_JOB_NAME, filePath),
+            filePath,
+            project,
+            errorPrefix,
+            successPrefix,
+            event);
+        formattingJob.setPriority(Job.SHORT);
+        formattingJob.schedule();
     }
 
 }
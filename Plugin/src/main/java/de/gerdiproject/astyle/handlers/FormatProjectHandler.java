@@ -20,15 +20,16 @@ import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.Job;
 
+import de.gerdiproject.astyle.jobs.ProjectFormattingJob;
 import de.gerdiproject.astyle.utils.AStyleEclipseUtils;
 import de.gerdiproject.astyle.utils.FeedbackMessage;
-import de.gerdiproject.astyle.utils.FormattingUtils;
 
 /**
  * The handler for the  AStyle_Neon.commands.formatProjectCommand.
  * This command attempts to find out which project is currently being worked on,
- * and formats all files of this project.
+ * and formats all files in the source folders of this project.
  *
  * @author Robin Weiss
  *
@@ -38,37 +39,28 @@ public final class FormatProjectHandler extends AbstractHandler
     @Override
     public Object execute(ExecutionEvent event) throws ExecutionException
     {
-        // format project and memorize the status message
-        final FeedbackMessage statusMessage = formatProject(event);
-
-        // notify the user about the status
-        statusMessage.display(event);
+        // format project in the background, the job notifies the user about the status
+        formatProject(event);
 
         return null;
     }
 
 
     /**
-     * Formats all source files within a project
+     * Formats all source folders of the active project in a background job.
      *
-     * @param project
-     *            the project of which the source files are formatted
-     * @return a message describing the status of the formatting operation
+     * @param event the event that triggered the formatting
      */
-    private FeedbackMessage formatProject(ExecutionEvent event)
+    private void formatProject(ExecutionEvent event)
     {
         final IProject project = AStyleEclipseUtils.getActiveProject(event);
 
-        // the project is needed for retrieving the filepath. Abort if it could not be retrieved
+        // abort if the project could not be retrieved
         if (project != null) {
-            final String filePath = project.getFolder(AStyleHandlerConstants.PROJECT_SOURCE_DIRECTORY)
-                                    .getLocation()
-                                    .toOSString();
-            final String successPrefix = String.format(AStyleHandlerConstants.CAN_FORMAT_PROJECT, filePath);
-            final String errorPrefix = String.format(AStyleHandlerConstants.CANNOT_FORMAT_PROJECT, filePath);
-
-            return FormattingUtils.format(filePath, project, errorPrefix, successPrefix);
+            final Job formattingJob = new ProjectFormattingJob(project, event);
+            formattingJob.setPriority(Job.LONG);
+            formattingJob.schedule();
         } else
-            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT);
+            FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT).display(event);
     }
 }
@@ -0,0 +1,73 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+/**
+ * This class offers constants that are used for formatting without a workbench.
+ *
+ * @author GeRDI Project
+ */
+public class AStyleHeadlessConstants
+{
+    public static final String OPTION_PREFIX = "--";
+    public static final char OPTION_VALUE_SEPARATOR = '=';
+
+    public static final String BINARY_PATH_OPTION = "astyle-bin";
+    public static final String OPTIONS_FILE_PATH_OPTION = "options-file";
+    public static final String PARALLEL_PROCESSES_OPTION = "parallel";
+    public static final String PROCESS_TIMEOUT_OPTION = "timeout";
+    public static final String INCLUDE_PATTERNS_OPTION = "include";
+    public static final String EXCLUDE_PATTERNS_OPTION = "exclude";
+    public static final String SHARED_CACHE_PATH_OPTION = "shared-cache";
+    public static final String SHARED_CACHE_SIZE_OPTION = "shared-cache-size";
+    public static final String MAX_UNFORMATTED_OPTION = "max-unformatted";
+    public static final String CHECK_FLAG = "--check";
+
+    public static final String USAGE = "Usage: [--check] [--max-unformatted=<files>]"
+                                       + " [--astyle-bin=<AStyle bin directory>] [--options-file=<AStyle options file>]"
+                                       + " [--parallel=<processes>] [--timeout=<seconds per MB>]"
+                                       + " [--include=<patterns>] [--exclude=<patterns>]"
+                                       + " [--shared-cache=<directory>] [--shared-cache-size=<MB>] <folder or file>...";
+    public static final String ERROR_UNKNOWN_OPTION = "Unknown option: %s";
+    public static final String ERROR_INVALID_NUMBER = "The option '%s' requires a number: %s";
+    public static final String ERROR_MISSING_TARGET = "The folder or file '%s' does not exist.";
+    public static final String ERROR_NO_TARGETS = "Please, specify at least one folder or file that is to be formatted.";
+    public static final String ERROR_PREFIX = "Cannot format the files!";
+    public static final String CHECK_ERROR_PREFIX = "Cannot check the files!";
+    public static final Integer EXIT_ERROR = 1;
+
+    public static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+    public static final String REPORT_SOURCE_FILES = "Source files:       %d (%.1f MB)";
+    public static final String REPORT_SKIPPED_FILES = "Already formatted:  %d";
+    public static final String REPORT_RESTORED_FILES = "From shared cache:  %d";
+    public static final String REPORT_FORMATTER_FILES = "Passed to AStyle:   %d";
+    public static final String REPORT_CHANGED_FILES = "Changed files:      %d";
+    public static final String REPORT_UNCHECKED_FILES = "Not checked:        %d (formatted by harvester scripts)";
+    public static final String REPORT_KNOWN_FILES = "Known or cached:    %d";
+    public static final String REPORT_UNFORMATTED_FILES = "Unformatted files:  %d";
+    public static final String REPORT_SHORT_CIRCUITED = "Unformatted files:  %d (stopped early)";
+    public static final String REPORT_THROUGHPUT = "Throughput:         %.1f files/s, %.1f MB/s (%.2f s)";
+
+
+    /**
+     * Private constructor, because this is just a collection of constants.
+     */
+    private AStyleHeadlessConstants()
+    {
+
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.FormatCheckUtils;
+import de.gerdiproject.astyle.utils.PathFilter;
+
+/**
+ * This Eclipse application formats a workspace without a workbench, using the
+ * AStyle preferences and the project specific file patterns of the workspace.
+ * If no folders or files are passed as arguments, all open projects are formatted.
+ * The workspace is refreshed afterwards, so that it notices the formatted files.
+ * With the {@code --check} flag, the files are only checked, and unformatted files
+ * are marked with problem markers.
+ * <br>
+ * Usage: {@code eclipse -nosplash -application AStyle_Plugin.formatter -data <workspace>
+ * [options] [<folder or file>...]}, with the options of the {@linkplain FormatterCommandLine}.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterApplication implements IApplication
+{
+    private final NullProgressMonitor monitor = new NullProgressMonitor();
+
+
+    @Override
+    public Object start(IApplicationContext context) throws Exception
+    {
+        final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+        final HeadlessOptions options;
+        final FormatterConfiguration configuration;
+        final int maxUnformattedFiles;
+
+        try {
+            options = new HeadlessOptions(args != null ? args : new String[0]);
+            configuration = options.createConfiguration(Activator.getDefault().getPreferenceStore());
+            maxUnformattedFiles = options.getMaxUnformattedFiles();
+
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(AStyleHeadlessConstants.USAGE);
+            return AStyleHeadlessConstants.EXIT_ERROR;
+        }
+
+        // the formatted resources are refreshed afterwards, or marked if they are checked
+        final Map<File, PathFilter> targets = new LinkedHashMap<>();
+        final List<IResource> formattedResources = new LinkedList<>();
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+
+        if (options.getTargets().isEmpty()) {
+            for (IProject project : workspaceRoot.getProjects()) {
+                final IPath projectLocation = project.getLocation();
+
+                if (project.isOpen() && projectLocation != null) {
+                    targets.put(projectLocation.toFile(), configuration.getPathFilter(project));
+                    formattedResources.add(project);
+                }
+            }
+        } else {
+            for (File target : options.getTargets()) {
+                final IResource[] resources = target.isDirectory()
+                                              ? workspaceRoot.findContainersForLocationURI(target.toURI())
+                                              : workspaceRoot.findFilesForLocationURI(target.toURI());
+                final IProject project = resources.length != 0 ? resources[0].getProject() : null;
+
+                targets.put(target, configuration.getPathFilter(project));
+
+                if (resources.length != 0)
+                    formattedResources.add(resources[0]);
+            }
+        }
+
+        final HeadlessFormatter formatter = new HeadlessFormatter(configuration, Activator.getDefault().getFormattedFileCache());
+        final HeadlessReport report;
+
+        try {
+            report = options.isChecking()
+                     ? formatter.check(targets, maxUnformattedFiles, monitor)
+                     : formatter.format(targets, monitor);
+        } catch (OperationCanceledException e) {
+            return AStyleHeadlessConstants.EXIT_ERROR;
+        }
+
+        for (IResource formattedResource : formattedResources) {
+            // mark the unformatted files, or let the workspace notice the formatted files
+            if (report.getCheckResult() != null)
+                FormatCheckUtils.updateMarkers(formattedResource, report.getCheckResult(), monitor);
+            else
+                formattedResource.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+        }
+
+        if (report.isSuccessful()) {
+            System.out.println(report.createReport());
+            return IApplication.EXIT_OK;
+        } else {
+            System.err.println(report.createReport());
+            return AStyleHeadlessConstants.EXIT_ERROR;
+        }
+    }
+
+
+    @Override
+    public void stop()
+    {
+        monitor.setCanceled(true);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+import java.io.File;
+import java.util.Map;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.PathFilter;
+
+/**
+ * This command line tool formats directory trees without an Eclipse installation
+ * being started, for instance on continuous integration servers. With the {@code --check}
+ * flag, it only reports unformatted files and exits with a non-zero code if there are any. The plugin and the
+ * Eclipse libraries that it uses must be on the class path.
+ * Options that are not specified use the defaults of the AStyle preferences.
+ * <br>
+ * Usage: {@code java -cp AStyle_Plugin.jar:<eclipse>/plugins/* de.gerdiproject.astyle.headless.FormatterCommandLine
+ * [--check] [--max-unformatted=<files>] --astyle-bin=<AStyle bin directory> --options-file=<AStyle options file> [--parallel=<processes>]
+ * [--timeout=<seconds per MB>] [--include=<patterns>] [--exclude=<patterns>]
+ * [--shared-cache=<directory>] [--shared-cache-size=<MB>] <folder or file>...}
+ *
+ * @author GeRDI Project
+ */
+public class FormatterCommandLine
+{
+    /**
+     * Private constructor, because this class only offers the main method.
+     */
+    private FormatterCommandLine()
+    {
+
+    }
+
+
+    /**
+     * Formats or checks the folders and files that are passed as arguments, prints a report,
+     * and exits with a non-zero code if the formatting failed or unformatted files were found.
+     *
+     * @param args options of the form {@code --name=value}, and folders or files
+     */
+    public static void main(String[] args)
+    {
+        final HeadlessOptions options;
+        final FormatterConfiguration configuration;
+        final int maxUnformattedFiles;
+
+        try {
+            options = new HeadlessOptions(args);
+            configuration = options.createConfiguration(null);
+            maxUnformattedFiles = options.getMaxUnformattedFiles();
+
+            if (options.getTargets().isEmpty())
+                throw new IllegalArgumentException(AStyleHeadlessConstants.ERROR_NO_TARGETS);
+
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(AStyleHeadlessConstants.USAGE);
+            System.exit(AStyleHeadlessConstants.EXIT_ERROR);
+            return;
+        }
+
+        final HeadlessFormatter formatter = new HeadlessFormatter(configuration, new FormattedFileCache());
+        final Map<File, PathFilter> targets = formatter.createTargets(options.getTargets());
+        final HeadlessReport report = options.isChecking()
+                                      ? formatter.check(targets, maxUnformattedFiles, new NullProgressMonitor())
+                                      : formatter.format(targets, new NullProgressMonitor());
+
+        if (report.isSuccessful()) {
+            System.out.println(report.createReport());
+            System.exit(0);
+        } else {
+            System.err.println(report.createReport());
+            System.exit(AStyleHeadlessConstants.EXIT_ERROR);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.FormatterOutputSink;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormatCheckResult;
+import de.gerdiproject.astyle.utils.FormatCheckUtils;
+import de.gerdiproject.astyle.utils.FormattingRun;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.PathFilter;
+
+/**
+ * This class formats folders and files without a workbench, using the same
+ * formatting pipeline as the plugin. Folders that contain a harvester formatting
+ * script are formatted by that script, like projects of the workspace. All other
+ * files are passed to AStyle in parallel shards. Files that are known to be formatted
+ * are skipped, and files that were formatted before by other runs are copied from the
+ * shared format cache, if there is one. Alternatively, the files can be checked
+ * without being changed.
+ *
+ * @author GeRDI Project
+ */
+public class HeadlessFormatter
+{
+    private final FormatterConfiguration configuration;
+    private final FormattedFileCache cache;
+
+
+    /**
+     * Constructor that requires the configuration of the formatter.
+     *
+     * @param configuration the configuration that defines the formatter and the parallelism
+     * @param cache a cache of formatted file contents
+     */
+    public HeadlessFormatter(FormatterConfiguration configuration, FormattedFileCache cache)
+    {
+        this.configuration = configuration;
+        this.cache = cache;
+    }
+
+
+    /**
+     * Formats the source files of folders and files.
+     *
+     * @param targets folders and files that are to be formatted, mapped to the filters
+     *          that decide which of their files are formatted
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return a report of the formatting run
+     */
+    public HeadlessReport format(Map<File, PathFilter> targets, IProgressMonitor monitor)
+    {
+        final long startTime = System.nanoTime();
+        final Map<File, Set<File>> filesByScript = collectSourceFiles(targets);
+        long sourceSize = 0;
+        int sourceFileCount = 0;
+
+        for (Set<File> scriptFiles : filesByScript.values()) {
+            sourceSize += getTotalSize(scriptFiles);
+            sourceFileCount += scriptFiles.size();
+        }
+
+        final FormattingRun formattingRun = new FormattingRun(configuration, cache, AStyleHeadlessConstants.ERROR_PREFIX);
+
+        for (Map.Entry<File, Set<File>> group : filesByScript.entrySet()) {
+            final FeedbackMessage errorFeedback = formattingRun.add(group.getKey(), group.getValue());
+
+            // abort if any path is missing
+            if (errorFeedback != null)
+                return new HeadlessReport(
+                           sourceFileCount,
+                           sourceSize,
+                           formattingRun.getSkippedFileCount(),
+                           formattingRun.getRestoredFileCount(),
+                           0,
+                           0,
+                           System.nanoTime() - startTime,
+                           errorFeedback);
+        }
+
+        final FormatterOutputSink outputSink = new FormatterOutputSink(false, (File formattedFile) -> {});
+        final FeedbackMessage errorFeedback = formattingRun.run(outputSink, null, monitor);
+
+        return new HeadlessReport(
+                   sourceFileCount,
+                   sourceSize,
+                   formattingRun.getSkippedFileCount(),
+                   formattingRun.getRestoredFileCount(),
+                   formattingRun.getInputCount(),
+                   outputSink.getFormattedFileCount(),
+                   System.nanoTime() - startTime,
+                   errorFeedback);
+    }
+
+
+    /**
+     * Checks if the source files of folders and files are formatted, without changing them.
+     * Files that are formatted by harvester scripts cannot be checked, because the
+     * scripts format files in place.
+     *
+     * @param targets folders and files that are to be checked, mapped to the filters
+     *          that decide which of their files are checked
+     * @param maxUnformattedFiles the number of unformatted files after which the check stops,
+     *          or 0 if all files are to be checked
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the check
+     *
+     * @return a report of the check run
+     */
+    public HeadlessReport check(Map<File, PathFilter> targets, int maxUnformattedFiles, IProgressMonitor monitor)
+    {
+        final long startTime = System.nanoTime();
+        final Map<File, Set<File>> filesByScript = collectSourceFiles(targets);
+        final Set<File> checkableFiles = filesByScript.getOrDefault(null, Collections.emptySet());
+        long sourceSize = 0;
+        int sourceFileCount = 0;
+
+        for (Set<File> scriptFiles : filesByScript.values()) {
+            sourceSize += getTotalSize(scriptFiles);
+            sourceFileCount += scriptFiles.size();
+        }
+
+        final FormatCheckResult checkResult = FormatCheckUtils.checkFiles(
+                                                  checkableFiles,
+                                                  maxUnformattedFiles,
+                                                  AStyleHeadlessConstants.CHECK_ERROR_PREFIX,
+                                                  configuration,
+                                                  cache,
+                                                  monitor);
+
+        return new HeadlessReport(
+                   sourceFileCount,
+                   sourceSize,
+                   sourceFileCount - checkableFiles.size(),
+                   checkResult,
+                   System.nanoTime() - startTime);
+    }
+
+
+    /**
+     * Creates a mapping of folders and files to the path filter of the
+     * formatter configuration, ignoring project specific file patterns.
+     *
+     * @param targets folders and files that are to be formatted
+     *
+     * @return a map of the targets to the path filter of the configuration
+     */
+    public Map<File, PathFilter> createTargets(Collection<File> targets)
+    {
+        final Map<File, PathFilter> targetFilters = new LinkedHashMap<>();
+
+        for (File target : targets)
+            targetFilters.put(target, configuration.getPathFilter(null));
+
+        return targetFilters;
+    }
+
+
+    /**
+     * Retrieves the source files of folders and files, grouped by the formatter
+     * that is responsible for them. Files that are part of multiple targets are
+     * only retrieved once.
+     *
+     * @param targets folders and files, mapped to the filters that decide which of their files are retrieved
+     *
+     * @return a map of harvester formatting scripts to the files that they format, with
+     *          a null key for the files that are formatted by AStyle
+     */
+    private static Map<File, Set<File>> collectSourceFiles(Map<File, PathFilter> targets)
+    {
+        final Map<File, Set<File>> filesByScript = new LinkedHashMap<>();
+        final Set<File> collectedFiles = new HashSet<>();
+
+        for (Map.Entry<File, PathFilter> target : targets.entrySet()) {
+            final File harvesterScript = getHarvesterFormattingScript(target.getKey());
+            final Set<File> scriptFiles = filesByScript.computeIfAbsent(harvesterScript, (File script) -> new LinkedHashSet<>());
+
+            for (File sourceFile : FormattingUtils.collectSourceFiles(target.getKey(), target.getValue())) {
+                if (collectedFiles.add(sourceFile))
+                    scriptFiles.add(sourceFile);
+            }
+        }
+
+        return filesByScript;
+    }
+
+
+    /**
+     * Returns the harvester formatting script of a folder that is formatted
+     * like a project.
+     *
+     * @param target a folder or file that is to be formatted
+     *
+     * @return the formatting script, or null if the target does not have one
+     */
+    private static File getHarvesterFormattingScript(File target)
+    {
+        if (!target.isDirectory())
+            return null;
+
+        final File formattingScript = new File(target.getPath() + AStyleHandlerConstants.HARVESTER_FORMATTING_SCRIPT);
+        return formattingScript.isFile() ? formattingScript : null;
+    }
+
+
+    /**
+     * Sums up the sizes of files.
+     *
+     * @param files the files of which the sizes are summed up
+     *
+     * @return the number of bytes of all files
+     */
+    private static long getTotalSize(Collection<File> files)
+    {
+        long totalSize = 0;
+
+        for (File file : files)
+            totalSize += file.length();
+
+        return totalSize;
+    }
+}
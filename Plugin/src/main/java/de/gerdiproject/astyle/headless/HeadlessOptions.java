@@ -0,0 +1,213 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+import de.gerdiproject.astyle.preferences.FeedbackStyle;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+
+/**
+ * This class represents the command line arguments of headless formatting.
+ * Options have the form {@code --name=value}, while all other arguments are
+ * folders or files that are to be formatted. The {@code --check} flag checks
+ * if the files are formatted instead of formatting them. Options that are not specified
+ * fall back to the AStyle preferences, or to their defaults if there are none.
+ *
+ * @author GeRDI Project
+ */
+public class HeadlessOptions
+{
+    private static final Set<String> OPTION_NAMES = new HashSet<>(Arrays.asList(
+        AStyleHeadlessConstants.BINARY_PATH_OPTION,
+        AStyleHeadlessConstants.OPTIONS_FILE_PATH_OPTION,
+        AStyleHeadlessConstants.PARALLEL_PROCESSES_OPTION,
+        AStyleHeadlessConstants.PROCESS_TIMEOUT_OPTION,
+        AStyleHeadlessConstants.INCLUDE_PATTERNS_OPTION,
+        AStyleHeadlessConstants.EXCLUDE_PATTERNS_OPTION,
+        AStyleHeadlessConstants.SHARED_CACHE_PATH_OPTION,
+        AStyleHeadlessConstants.SHARED_CACHE_SIZE_OPTION,
+        AStyleHeadlessConstants.MAX_UNFORMATTED_OPTION));
+
+    private final Map<String, String> options;
+    private final List<File> targets;
+    private final boolean isChecking;
+
+
+    /**
+     * Constructor that parses the command line arguments.
+     *
+     * @param args options of the form {@code --name=value}, and folders or files
+     *
+     * @throws IllegalArgumentException if an option is unknown, or a folder or file does not exist
+     */
+    public HeadlessOptions(String[] args)
+    {
+        this.options = new HashMap<>();
+        final List<File> targetList = new ArrayList<>();
+        boolean hasCheckFlag = false;
+
+        for (String arg : args) {
+            if (arg.equals(AStyleHeadlessConstants.CHECK_FLAG)) {
+                hasCheckFlag = true;
+                continue;
+            }
+
+            if (!arg.startsWith(AStyleHeadlessConstants.OPTION_PREFIX)) {
+                final File target = new File(arg).getAbsoluteFile();
+
+                if (!target.exists())
+                    throw new IllegalArgumentException(String.format(AStyleHeadlessConstants.ERROR_MISSING_TARGET, arg));
+
+                targetList.add(target);
+                continue;
+            }
+
+            final int separatorIndex = arg.indexOf(AStyleHeadlessConstants.OPTION_VALUE_SEPARATOR);
+            final String name = separatorIndex != -1
+                                ? arg.substring(AStyleHeadlessConstants.OPTION_PREFIX.length(), separatorIndex)
+                                : null;
+
+            if (!OPTION_NAMES.contains(name))
+                throw new IllegalArgumentException(String.format(AStyleHeadlessConstants.ERROR_UNKNOWN_OPTION, arg));
+
+            options.put(name, arg.substring(separatorIndex + 1));
+        }
+
+        this.targets = Collections.unmodifiableList(targetList);
+        this.isChecking = hasCheckFlag;
+    }
+
+
+    /**
+     * Returns true if the files are to be checked instead of being formatted.
+     *
+     * @return true if the files are to be checked
+     */
+    public boolean isChecking()
+    {
+        return isChecking;
+    }
+
+
+    /**
+     * Returns the number of unformatted files after which a check stops.
+     *
+     * @throws IllegalArgumentException if the option is not a number
+     *
+     * @return the maximum number of reported unformatted files, or 0 if all files are to be checked
+     */
+    public int getMaxUnformattedFiles()
+    {
+        return getInt(AStyleHeadlessConstants.MAX_UNFORMATTED_OPTION, null, null, AStyleHandlerConstants.CHECK_MAX_OFFENDERS);
+    }
+
+
+    /**
+     * Returns the absolute folders and files that are to be formatted.
+     *
+     * @return an unmodifiable list of folders and files, which may be empty
+     */
+    public List<File> getTargets()
+    {
+        return targets;
+    }
+
+
+    /**
+     * Creates a formatter configuration from the options.
+     *
+     * @param store the AStyle preferences that are used for unspecified options,
+     *          or null if the defaults are to be used
+     *
+     * @throws IllegalArgumentException if a numeric option is not a number
+     *
+     * @return a formatter configuration
+     */
+    public FormatterConfiguration createConfiguration(IPreferenceStore store)
+    {
+        return new FormatterConfiguration(
+                   getString(AStyleHeadlessConstants.BINARY_PATH_OPTION, store, AStylePreferenceConstants.BINARY_PATH_OPTION, ""),
+                   getString(AStyleHeadlessConstants.OPTIONS_FILE_PATH_OPTION, store, AStylePreferenceConstants.OPTIONS_FILE_PATH_OPTION, ""),
+                   FeedbackStyle.Disabled,
+                   false,
+                   0,
+                   getInt(AStyleHeadlessConstants.PARALLEL_PROCESSES_OPTION, store, AStylePreferenceConstants.PARALLEL_PROCESSES_OPTION, Runtime.getRuntime().availableProcessors()),
+                   AStylePreferenceConstants.SAVE_QUIET_PERIOD_DEFAULT,
+                   getInt(AStyleHeadlessConstants.PROCESS_TIMEOUT_OPTION, store, AStylePreferenceConstants.PROCESS_TIMEOUT_OPTION, AStylePreferenceConstants.PROCESS_TIMEOUT_DEFAULT),
+                   getString(AStyleHeadlessConstants.INCLUDE_PATTERNS_OPTION, store, AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION, AStylePreferenceConstants.INCLUDE_PATTERNS_DEFAULT),
+                   getString(AStyleHeadlessConstants.EXCLUDE_PATTERNS_OPTION, store, AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION, AStylePreferenceConstants.EXCLUDE_PATTERNS_DEFAULT),
+                   getString(AStyleHeadlessConstants.SHARED_CACHE_PATH_OPTION, store, AStylePreferenceConstants.SHARED_CACHE_PATH_OPTION, ""),
+                   getInt(AStyleHeadlessConstants.SHARED_CACHE_SIZE_OPTION, store, AStylePreferenceConstants.SHARED_CACHE_SIZE_OPTION, AStylePreferenceConstants.SHARED_CACHE_SIZE_DEFAULT));
+    }
+
+
+    /**
+     * Retrieves the value of a text option.
+     *
+     * @param name the name of the option
+     * @param store the AStyle preferences, or null
+     * @param preferenceName the name of the corresponding preference
+     * @param defaultValue the value that is used if neither the option nor the preferences define one
+     *
+     * @return the value of the option
+     */
+    private String getString(String name, IPreferenceStore store, String preferenceName, String defaultValue)
+    {
+        if (options.containsKey(name))
+            return options.get(name);
+
+        return store != null ? store.getString(preferenceName) : defaultValue;
+    }
+
+
+    /**
+     * Retrieves the value of an integer option.
+     *
+     * @param name the name of the option
+     * @param store the AStyle preferences, or null
+     * @param preferenceName the name of the corresponding preference
+     * @param defaultValue the value that is used if neither the option nor the preferences define one
+     *
+     * @throws IllegalArgumentException if the option is not a number
+     *
+     * @return the value of the option
+     */
+    private int getInt(String name, IPreferenceStore store, String preferenceName, int defaultValue)
+    {
+        if (!options.containsKey(name))
+            return store != null ? store.getInt(preferenceName) : defaultValue;
+
+        try {
+            return Integer.parseInt(options.get(name).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(AStyleHeadlessConstants.ERROR_INVALID_NUMBER, name, options.get(name)));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.headless;
+
+import java.util.concurrent.TimeUnit;
+
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormatCheckResult;
+
+/**
+ * This class represents the outcome of a headless formatting or check run,
+ * including its throughput.
+ *
+ * @author GeRDI Project
+ */
+public class HeadlessReport
+{
+    private final int sourceFileCount;
+    private final long sourceSize;
+    private final int skippedFileCount;
+    private final int restoredFileCount;
+    private final int formatterFileCount;
+    private final int changedFileCount;
+    private final long elapsedNanos;
+    private final FeedbackMessage errorFeedback;
+    private final int uncheckedFileCount;
+    private final FormatCheckResult checkResult;
+
+
+    /**
+     * Constructor that requires all statistics of the run.
+     *
+     * @param sourceFileCount the number of files that matched the file patterns
+     * @param sourceSize the number of bytes of these files
+     * @param skippedFileCount the number of files that were known to be formatted
+     * @param restoredFileCount the number of files that were copied from the shared format cache
+     * @param formatterFileCount the number of files that were passed to a formatter
+     * @param changedFileCount the number of files that were changed by the formatting
+     * @param elapsedNanos the duration of the run in nanoseconds
+     * @param errorFeedback an error message if the formatting failed, or null
+     */
+    public HeadlessReport(int sourceFileCount, long sourceSize, int skippedFileCount, int restoredFileCount, int formatterFileCount, int changedFileCount, long elapsedNanos, FeedbackMessage errorFeedback)
+    {
+        this.sourceFileCount = sourceFileCount;
+        this.sourceSize = sourceSize;
+        this.skippedFileCount = skippedFileCount;
+        this.restoredFileCount = restoredFileCount;
+        this.formatterFileCount = formatterFileCount;
+        this.changedFileCount = changedFileCount;
+        this.elapsedNanos = elapsedNanos;
+        this.errorFeedback = errorFeedback;
+        this.uncheckedFileCount = 0;
+        this.checkResult = null;
+    }
+
+
+    /**
+     * Constructor for the report of a check run.
+     *
+     * @param sourceFileCount the number of files that matched the file patterns
+     * @param sourceSize the number of bytes of these files
+     * @param uncheckedFileCount the number of files that could not be checked, because
+     *          they are formatted by harvester scripts
+     * @param checkResult the result of checking the remaining files
+     * @param elapsedNanos the duration of the run in nanoseconds
+     */
+    public HeadlessReport(int sourceFileCount, long sourceSize, int uncheckedFileCount, FormatCheckResult checkResult, long elapsedNanos)
+    {
+        this.sourceFileCount = sourceFileCount;
+        this.sourceSize = sourceSize;
+        this.skippedFileCount = checkResult.getKnownFileCount();
+        this.restoredFileCount = 0;
+        this.formatterFileCount = checkResult.getFormatterFileCount();
+        this.changedFileCount = 0;
+        this.elapsedNanos = elapsedNanos;
+        this.errorFeedback = checkResult.getErrorFeedback();
+        this.uncheckedFileCount = uncheckedFileCount;
+        this.checkResult = checkResult;
+    }
+
+
+    /**
+     * Returns true if all files were formatted without errors, or if
+     * all checked files turned out to be formatted.
+     *
+     * @return true if the run was successful
+     */
+    public boolean isSuccessful()
+    {
+        return checkResult != null ? checkResult.isFormatted() : errorFeedback == null;
+    }
+
+
+    /**
+     * Returns the error message of a failed formatting run.
+     *
+     * @return the error message, or null if the formatting was successful
+     */
+    public FeedbackMessage getErrorFeedback()
+    {
+        return errorFeedback;
+    }
+
+
+    /**
+     * Returns the number of files that were changed by the formatting.
+     * Files that were formatted by a harvester script are not counted,
+     * because the output of the script is unknown.
+     *
+     * @return the number of changed files
+     */
+    public int getChangedFileCount()
+    {
+        return changedFileCount;
+    }
+
+    /**
+     * Returns the result of a check run.
+     *
+     * @return the result of the check, or null if this is the report of a formatting run
+     */
+    public FormatCheckResult getCheckResult()
+    {
+        return checkResult;
+    }
+
+
+    /**
+     * Assembles a human readable summary of the run.
+     *
+     * @return a multi-line summary of the run
+     */
+    public String createReport()
+    {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        final double megabytes = sourceSize / AStyleHeadlessConstants.BYTES_PER_MEGABYTE;
+        final double safeSeconds = Math.max(seconds, Double.MIN_NORMAL);
+
+        final StringBuilder report = new StringBuilder();
+
+        if (errorFeedback != null)
+            report.append(errorFeedback.getMessage()).append(System.lineSeparator()).append(System.lineSeparator());
+
+        report.append(String.format(AStyleHeadlessConstants.REPORT_SOURCE_FILES, sourceFileCount, megabytes))
+        .append(System.lineSeparator());
+
+        if (checkResult != null)
+            appendCheckStatistics(report);
+        else
+            appendFormatStatistics(report);
+
+        report.append(String.format(AStyleHeadlessConstants.REPORT_THROUGHPUT, sourceFileCount / safeSeconds, megabytes / safeSeconds, seconds));
+
+        return report.toString();
+    }
+
+
+    /**
+     * Appends the statistics of a formatting run to a report.
+     *
+     * @param report the report that is being assembled
+     */
+    private void appendFormatStatistics(StringBuilder report)
+    {
+        report.append(String.format(AStyleHeadlessConstants.REPORT_SKIPPED_FILES, skippedFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(AStyleHeadlessConstants.REPORT_RESTORED_FILES, restoredFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(AStyleHeadlessConstants.REPORT_FORMATTER_FILES, formatterFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(AStyleHeadlessConstants.REPORT_CHANGED_FILES, changedFileCount))
+        .append(System.lineSeparator());
+    }
+
+
+    /**
+     * Appends the statistics and the unformatted files of a check run to a report.
+     *
+     * @param report the report that is being assembled
+     */
+    private void appendCheckStatistics(StringBuilder report)
+    {
+        final String unformattedFormat = checkResult.isShortCircuited()
+                                         ? AStyleHeadlessConstants.REPORT_SHORT_CIRCUITED
+                                         : AStyleHeadlessConstants.REPORT_UNFORMATTED_FILES;
+
+        report.append(String.format(AStyleHeadlessConstants.REPORT_UNCHECKED_FILES, uncheckedFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(AStyleHeadlessConstants.REPORT_KNOWN_FILES, skippedFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(AStyleHeadlessConstants.REPORT_FORMATTER_FILES, formatterFileCount))
+        .append(System.lineSeparator())
+        .append(String.format(unformattedFormat, checkResult.getUnformattedFiles().size()))
+        .append(System.lineSeparator());
+
+        if (!checkResult.getUnformattedFiles().isEmpty())
+            report.append(checkResult.createFileList()).append(System.lineSeparator());
+    }
+
+}
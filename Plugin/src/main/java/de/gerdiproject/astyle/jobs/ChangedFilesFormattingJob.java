@@ -0,0 +1,140 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.git.GitRepository;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.SchedulingRuleUtils;
+
+/**
+ * This job formats the files of a project that are modified or staged relative to
+ * the HEAD commit of the Git repository that contains the project. The repository
+ * is read directly from the file system, and all changed files are formatted in a
+ * single formatting run.
+ *
+ * @author GeRDI Project
+ */
+public class ChangedFilesFormattingJob extends Job
+{
+    private final IProject project;
+    private final ExecutionEvent event;
+
+
+    /**
+     * Constructor that prepares the formatting of the changed files of a project.
+     *
+     * @param project the project whose changed files are to be formatted
+     * @param event the event that triggered the formatting
+     */
+    public ChangedFilesFormattingJob(IProject project, ExecutionEvent event)
+    {
+        super(String.format(AStyleHandlerConstants.FORMAT_CHANGED_FILES_JOB_NAME, project.getName()));
+        this.project = project;
+        this.event = event;
+
+        // builds and other jobs must not change the project while it is formatted
+        final IPath projectLocation = project.getLocation();
+        setRule(SchedulingRuleUtils.createProjectRule(
+                    project,
+                    projectLocation != null ? Collections.singletonList(projectLocation.toFile()) : Collections.emptyList()));
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        try {
+            formatChangedFiles(monitor).displayAsync(event);
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+
+
+    /**
+     * Looks up the changed source files of the project and formats them.
+     *
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return the feedback message of the formatting
+     */
+    private FeedbackMessage formatChangedFiles(IProgressMonitor monitor)
+    {
+        final String errorPrefix = String.format(AStyleHandlerConstants.CANNOT_FORMAT_CHANGED_FILES, project.getName());
+        final IPath projectLocation = project.getLocation();
+
+        if (projectLocation == null)
+            return FeedbackMessage.CreateError(String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+
+        final File projectFolder = projectLocation.toFile();
+        final List<File> changedFiles;
+
+        try (GitRepository repository = GitRepository.find(projectFolder)) {
+            if (repository == null)
+                return FeedbackMessage.CreateError(String.format(AStyleHandlerConstants.ERROR_NO_GIT_REPOSITORY, errorPrefix));
+
+            changedFiles = repository.getChangedFiles(projectFolder);
+
+        } catch (IOException e) {
+            return FeedbackMessage.CreateError(String.format(AStyleHandlerConstants.ERROR_GIT, errorPrefix, e.getMessage()));
+        }
+
+        if (monitor.isCanceled())
+            throw new OperationCanceledException();
+
+        final List<File> sourceFiles = FormattingUtils.collectSourceFiles(changedFiles);
+
+        if (sourceFiles.isEmpty())
+            return FeedbackMessage.CreateInfo(String.format(AStyleHandlerConstants.NO_CHANGED_FILES, project.getName()));
+
+        return FormattingUtils.formatFiles(
+                   sourceFiles,
+                   errorPrefix,
+                   String.format(AStyleHandlerConstants.CAN_FORMAT_CHANGED_FILES, sourceFiles.size(), project.getName()),
+                   monitor);
+    }
+}
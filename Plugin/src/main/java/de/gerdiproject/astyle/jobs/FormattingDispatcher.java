@@ -0,0 +1,283 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.SchedulingRuleUtils;
+
+/**
+ * This job collects files and folders that are to be formatted after they were saved.
+ * Every request restarts a quiet period, after which all collected files are
+ * formatted in a single batch. The quiet period is not restarted beyond a maximum
+ * delay, so that a steady stream of saves cannot postpone the formatting forever.
+ * Requests for files that are part of the batch that is currently being formatted
+ * are formatted again after that batch, because it may have read their old content.
+ * The projects of a batch are only known when it starts, so the dispatcher acquires
+ * their scheduling rule while it runs, instead of being scheduled with a fixed rule.
+ *
+ * @author GeRDI Project
+ */
+public class FormattingDispatcher extends Job
+{
+    private final Map<File, IProject> pendingTargets;
+    private long firstPendingTime;
+
+
+    /**
+     * Constructor that creates an idle dispatcher.
+     */
+    public FormattingDispatcher()
+    {
+        super(AStyleHandlerConstants.BATCH_FORMATTING_JOB_NAME);
+        this.pendingTargets = new LinkedHashMap<>();
+        this.firstPendingTime = 0;
+
+        setPriority(Job.SHORT);
+    }
+
+
+    /**
+     * Requests a file or folder to be formatted after the quiet period has passed.
+     *
+     * @param target the absolute path of a file or folder that is to be formatted
+     * @param project the project to which the file or folder belongs
+     */
+    public synchronized void enqueue(File target, IProject project)
+    {
+        if (pendingTargets.isEmpty())
+            firstPendingTime = System.currentTimeMillis();
+
+        if (!isCovered(target, pendingTargets.keySet())) {
+            // folders replace the files they contain
+            if (target.isDirectory())
+                pendingTargets.keySet().removeIf((File pendingTarget) -> isWithin(pendingTarget, target));
+
+            pendingTargets.put(target, project);
+        }
+
+        restartQuietPeriod();
+    }
+
+
+    /**
+     * Returns the number of files and folders that wait for the quiet period to pass.
+     *
+     * @return the number of pending files and folders
+     */
+    public synchronized int getPendingTargetCount()
+    {
+        return pendingTargets.size();
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        final Map<File, IProject> batch;
+
+        synchronized (this) {
+            batch = new LinkedHashMap<>(pendingTargets);
+            pendingTargets.clear();
+        }
+
+        // builds and other jobs must not change the projects while they are formatted
+        final ISchedulingRule batchRule = createBatchRule(batch);
+
+        try {
+            Job.getJobManager().beginRule(batchRule, monitor);
+            final List<FeedbackMessage> statusMessages = formatBatch(batch, monitor);
+
+            // notify the user about the status
+            if (!statusMessages.isEmpty())
+                FeedbackMessage.Combine(statusMessages).displayAsync(null);
+
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            // the rule must be released even if acquiring it was canceled
+            Job.getJobManager().endRule(batchRule);
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+
+
+    /**
+     * Formats all folders of a batch separately, and all files of the batch
+     * in a single formatting run. This method can be overridden in order to
+     * simulate the formatting without a workspace.
+     *
+     * @param batch the files and folders that are to be formatted, mapped to their projects
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return the feedback messages of the formatting runs
+     */
+    protected List<FeedbackMessage> formatBatch(Map<File, IProject> batch, IProgressMonitor monitor)
+    {
+        final List<FeedbackMessage> statusMessages = new LinkedList<>();
+        final List<File> folders = new LinkedList<>();
+        final List<File> files = new LinkedList<>();
+
+        for (File target : batch.keySet()) {
+            if (target.isDirectory())
+                folders.add(target);
+            else
+                files.add(target);
+        }
+
+        // every folder and the files are formatted in separate runs of equal weight
+        final SubMonitor progress = SubMonitor.convert(monitor, folders.size() + (files.isEmpty() ? 0 : 1));
+
+        for (File folder : folders) {
+            final String folderPath = folder.getPath();
+            statusMessages.add(FormattingUtils.format(
+                                   folderPath,
+                                   batch.get(folder),
+                                   String.format(AStyleHandlerConstants.CANNOT_FORMAT_PROJECT, folderPath),
+                                   String.format(AStyleHandlerConstants.CAN_FORMAT_PROJECT, folderPath),
+                                   progress.split(1)));
+        }
+
+        if (files.size() == 1) {
+            final String filePath = files.get(0).getPath();
+            statusMessages.add(FormattingUtils.format(
+                                   filePath,
+                                   batch.get(files.get(0)),
+                                   String.format(AStyleHandlerConstants.CANNOT_FORMAT_FILE, filePath),
+                                   String.format(AStyleHandlerConstants.CAN_FORMAT_FILE, filePath),
+                                   progress.split(1)));
+
+        } else if (!files.isEmpty()) {
+            statusMessages.add(FormattingUtils.formatFiles(
+                                   files,
+                                   String.format(AStyleHandlerConstants.CANNOT_FORMAT_FILES, files.size()),
+                                   String.format(AStyleHandlerConstants.CAN_FORMAT_FILES, files.size()),
+                                   progress.split(1)));
+        }
+
+        return statusMessages;
+    }
+
+
+    /**
+     * Creates the scheduling rule of a batch, which covers all projects of its files
+     * and folders. This method can be overridden in order to simulate the formatting
+     * without a workspace.
+     *
+     * @param batch the files and folders that are to be formatted, mapped to their projects
+     *
+     * @return the scheduling rule of the batch, or null if no project is affected
+     */
+    protected ISchedulingRule createBatchRule(Map<File, IProject> batch)
+    {
+        return SchedulingRuleUtils.createProjectRule(batch.keySet());
+    }
+
+
+    /**
+     * Postpones the formatting of the pending files until no further requests
+     * arrived for the duration of the quiet period, or until the oldest pending
+     * request waited for the maximum delay.
+     */
+    private void restartQuietPeriod()
+    {
+        final long quietPeriod = getQuietPeriod();
+        final long maxDelayEnd = firstPendingTime + quietPeriod * AStyleHandlerConstants.SAVE_MAX_DELAY_QUIET_PERIODS;
+        final long delay = Math.max(0, Math.min(quietPeriod, maxDelayEnd - System.currentTimeMillis()));
+        final int state = getState();
+
+        // a scheduled batch is postponed, a running batch is followed by another one
+        if (state == Job.SLEEPING || state == Job.WAITING)
+            cancel();
+
+        schedule(delay);
+    }
+
+
+    /**
+     * Returns the time that must pass without any save before the saved files are formatted.
+     *
+     * @return the quiet period in milliseconds
+     */
+    protected long getQuietPeriod()
+    {
+        return FormatterConfiguration.getCurrent().getSaveQuietPeriod();
+    }
+
+
+    /**
+     * Checks if a file or folder is one of several targets, or lies within one of them.
+     *
+     * @param file the file or folder that is checked
+     * @param targets files and folders that are to be formatted
+     *
+     * @return true if the file or folder is formatted along with one of the targets
+     */
+    private static boolean isCovered(File file, Collection<File> targets)
+    {
+        for (File target : targets) {
+            if (isWithin(file, target))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Checks if a file is equal to a folder or lies within it.
+     *
+     * @param file the file or folder that is checked
+     * @param folder the folder that may contain the file
+     *
+     * @return true if the file is equal to the folder or lies within it
+     */
+    private static boolean isWithin(File file, File folder)
+    {
+        return file.toPath().startsWith(folder.toPath());
+    }
+}
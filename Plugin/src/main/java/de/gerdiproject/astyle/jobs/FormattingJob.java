@@ -0,0 +1,104 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.SchedulingRuleUtils;
+
+/**
+ * This job runs an AStyle formatting process in the background, so that the UI thread
+ * is not blocked while the formatter is busy. The resulting {@linkplain FeedbackMessage}
+ * is displayed in the UI thread as soon as the formatting is done.
+ *
+ * @author GeRDI Project
+ */
+public class FormattingJob extends Job
+{
+    private final String filePath;
+    private final IProject project;
+    private final String errorPrefix;
+    private final String successMessage;
+    private final ExecutionEvent event;
+
+
+    /**
+     * Constructor that prepares the formatting of a file or folder.
+     *
+     * @param jobName the name of the job as it appears in the progress view
+     * @param filePath the absolute filepath to the folder or file that is to be formatted
+     * @param project the project to which the file belongs
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param successMessage a short message that appears if the formatting was successful
+     * @param event the event that triggered the formatting
+     */
+    public FormattingJob(String jobName, String filePath, IProject project, String errorPrefix, String successMessage, ExecutionEvent event)
+    {
+        super(jobName);
+        this.filePath = filePath;
+        this.project = project;
+        this.errorPrefix = errorPrefix;
+        this.successMessage = successMessage;
+        this.event = event;
+
+        // builds and other jobs must not change the project while it is formatted
+        setRule(SchedulingRuleUtils.createProjectRule(
+                    project,
+                    filePath != null ? Collections.singletonList(new File(filePath)) : Collections.emptyList()));
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        // the formatting reports the progress of every formatted file
+        try {
+            final FeedbackMessage statusMessage =
+                FormattingUtils.format(filePath, project, errorPrefix, successMessage, monitor);
+
+            // notify the user about the status
+            statusMessage.displayAsync(event);
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+
+}
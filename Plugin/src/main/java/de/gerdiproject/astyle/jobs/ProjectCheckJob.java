@@ -0,0 +1,173 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormatCheckResult;
+import de.gerdiproject.astyle.utils.FormatCheckUtils;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+
+/**
+ * This job checks if all files in the source folders of a project are formatted, without
+ * changing them. Unformatted files are marked with problem markers, which replace the
+ * markers of the previous check. The check stops after a maximum number of unformatted files.
+ *
+ * @author GeRDI Project
+ */
+public class ProjectCheckJob extends Job
+{
+    private final IProject project;
+    private final ExecutionEvent event;
+
+
+    /**
+     * Constructor that prepares the check of a project.
+     *
+     * @param project the project that is to be checked
+     * @param event the event that triggered the check
+     */
+    public ProjectCheckJob(IProject project, ExecutionEvent event)
+    {
+        super(String.format(AStyleHandlerConstants.CHECK_PROJECT_JOB_NAME, project.getName()));
+        this.project = project;
+        this.event = event;
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        try {
+            checkProject(monitor).displayAsync(event);
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+
+
+    /**
+     * Checks the source files of the project and marks the unformatted ones.
+     *
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the check
+     *
+     * @return the feedback message of the check
+     */
+    private FeedbackMessage checkProject(IProgressMonitor monitor)
+    {
+        final String errorPrefix = String.format(AStyleHandlerConstants.CANNOT_CHECK_PROJECT, project.getName());
+        final Activator activator = Activator.getDefault();
+
+        if (activator == null)
+            return FeedbackMessage.CreateError(String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+
+        // harvester scripts format files in place, so their output cannot be compared
+        if (activator.getHarvesterScriptCache().getFormattingScript(project) != null)
+            return FeedbackMessage.CreateError(String.format(AStyleHandlerConstants.ERROR_CHECK_HARVESTER, errorPrefix));
+
+        final List<File> sourceFiles = FormattingUtils.collectSourceFiles(getSourceFolders(activator));
+
+        if (sourceFiles.isEmpty())
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+
+        final FormatCheckResult result = FormatCheckUtils.checkFiles(
+                                             sourceFiles,
+                                             AStyleHandlerConstants.CHECK_MAX_OFFENDERS,
+                                             errorPrefix,
+                                             FormatterConfiguration.getCurrent(),
+                                             activator.getFormattedFileCache(),
+                                             monitor);
+
+        if (result.getErrorFeedback() != null)
+            return result.getErrorFeedback();
+
+        try {
+            FormatCheckUtils.updateMarkers(project, result, monitor);
+        } catch (CoreException e) {
+            e.printStackTrace();
+        }
+
+        if (result.isFormatted())
+            return FeedbackMessage.CreateInfo(
+                       String.format(AStyleHandlerConstants.CHECKED_PROJECT_FORMATTED, result.getCheckedFileCount(), project.getName()));
+
+        final StringBuilder message = new StringBuilder();
+        message.append(String.format(
+                           AStyleHandlerConstants.CHECKED_PROJECT_UNFORMATTED,
+                           result.getUnformattedFiles().size(),
+                           result.getCheckedFileCount(),
+                           project.getName()))
+        .append(System.lineSeparator())
+        .append(result.createFileList());
+
+        if (result.isShortCircuited())
+            message.append(System.lineSeparator())
+            .append(System.lineSeparator())
+            .append(String.format(AStyleHandlerConstants.CHECK_SHORT_CIRCUITED, result.getUnformattedFiles().size()));
+
+        return FeedbackMessage.CreateInfo(message.toString());
+    }
+
+
+    /**
+     * Retrieves the source folders of the project that are to be checked.
+     *
+     * @param activator the activator of the plugin
+     *
+     * @return the source folders of the project
+     */
+    private List<File> getSourceFolders(Activator activator)
+    {
+        final List<File> sourceFolders = new ArrayList<>();
+
+        for (File sourceFolder : activator.getSourceRootCache().getSourceRoots(project).getSourceFolders()) {
+            if (sourceFolder.isDirectory())
+                sourceFolders.add(sourceFolder);
+        }
+
+        return sourceFolders;
+    }
+}
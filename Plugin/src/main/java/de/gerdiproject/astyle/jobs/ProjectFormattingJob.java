@@ -0,0 +1,284 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.cache.SourceRoots;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.SchedulingRuleUtils;
+
+/**
+ * This job formats all source folders of a project, as they are defined by the build path
+ * of the project. The files of all source folders are formatted in a single run that
+ * shares the parallel formatting processes. Projects that are formatted by a harvester
+ * script are formatted folder by folder, with independent folders being formatted
+ * concurrently, and the feedback messages of all folders are displayed together.
+ *
+ * @author GeRDI Project
+ */
+public class ProjectFormattingJob extends Job
+{
+    private final IProject project;
+    private final ExecutionEvent event;
+
+
+    /**
+     * Constructor that prepares the formatting of a project.
+     *
+     * @param project the project that is to be formatted
+     * @param event the event that triggered the formatting
+     */
+    public ProjectFormattingJob(IProject project, ExecutionEvent event)
+    {
+        super(String.format(AStyleHandlerConstants.FORMAT_PROJECT_JOB_NAME, project.getName()));
+        this.project = project;
+        this.event = event;
+
+        // builds and other jobs must not change the project while it is formatted
+        setRule(SchedulingRuleUtils.createProjectRule(project, getSourceFolders()));
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        try {
+            final List<File> sourceFolders = getSourceFolders();
+            final FeedbackMessage statusMessage;
+
+            if (sourceFolders.isEmpty())
+                statusMessage = FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+
+            // the formatting reports the progress of every formatted file
+            else if (sourceFolders.size() == 1)
+                statusMessage = formatSourceFolder(sourceFolders.get(0), monitor);
+
+            // harvester scripts format each folder in a single process
+            else if (isFormattedByHarvesterScript()) {
+                monitor.beginTask(getName(), IProgressMonitor.UNKNOWN);
+                statusMessage = FeedbackMessage.Combine(formatSourceFolders(sourceFolders, monitor));
+            }
+
+            // the files of all folders share the formatting processes
+            else
+                statusMessage = FormattingUtils.formatFolders(
+                                    sourceFolders,
+                                    project,
+                                    String.format(AStyleHandlerConstants.CANNOT_FORMAT_PROJECT, project.getName()),
+                                    String.format(AStyleHandlerConstants.CAN_FORMAT_PROJECT, project.getName()),
+                                    monitor);
+
+            // notify the user about the status
+            statusMessage.displayAsync(event);
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+
+
+    /**
+     * Retrieves the source folders of the project that are to be formatted.
+     *
+     * @return the source folders of the project
+     */
+    private List<File> getSourceFolders()
+    {
+        final Activator activator = Activator.getDefault();
+
+        if (activator == null)
+            return new ArrayList<>();
+
+        final SourceRoots sourceRoots = activator.getSourceRootCache().getSourceRoots(project);
+        final List<File> sourceFolders = new ArrayList<>(sourceRoots.getSourceFolders().size());
+
+        for (File sourceFolder : sourceRoots.getSourceFolders()) {
+            if (sourceFolder.isDirectory())
+                sourceFolders.add(sourceFolder);
+        }
+
+        return sourceFolders;
+    }
+
+
+    /**
+     * Checks if the project is formatted by a harvester script.
+     *
+     * @return true if the project has a harvester formatting script
+     */
+    private boolean isFormattedByHarvesterScript()
+    {
+        final Activator activator = Activator.getDefault();
+        return activator != null && activator.getHarvesterScriptCache().getFormattingScript(project) != null;
+    }
+
+
+    /**
+     * Formats multiple independent source folders concurrently. Each folder is
+     * formatted by a single harvester script process, so no more processes run
+     * than are allowed in total.
+     *
+     * @param sourceFolders the source folders, none of which lies within another
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return the feedback messages of all source folders
+     */
+    private List<FeedbackMessage> formatSourceFolders(List<File> sourceFolders, IProgressMonitor monitor)
+    {
+        final int threadCount =
+            Math.min(FormatterConfiguration.getCurrent().getParallelProcessCount(), sourceFolders.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            final List<Future<FeedbackMessage>> futureMessages = new ArrayList<>(sourceFolders.size());
+
+            for (File sourceFolder : sourceFolders)
+                futureMessages.add(executor.submit(() -> formatSourceFolder(sourceFolder, createFolderMonitor(monitor))));
+
+            final List<FeedbackMessage> statusMessages = new ArrayList<>(sourceFolders.size());
+
+            for (Future<FeedbackMessage> futureMessage : futureMessages)
+                statusMessages.add(futureMessage.get());
+
+            return statusMessages;
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OperationCanceledException)
+                throw (OperationCanceledException) e.getCause();
+
+            e.printStackTrace();
+            return createGenericErrors(sourceFolders);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return createGenericErrors(sourceFolders);
+
+        } finally {
+            // interrupting the threads kills processes that are still running after an error
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Formats a single source folder.
+     *
+     * @param sourceFolder the source folder that is to be formatted
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return the feedback message of the formatting
+     */
+    private FeedbackMessage formatSourceFolder(File sourceFolder, IProgressMonitor monitor)
+    {
+        final String folderPath = sourceFolder.getPath();
+
+        return FormattingUtils.format(
+                   folderPath,
+                   project,
+                   String.format(AStyleHandlerConstants.CANNOT_FORMAT_PROJECT, folderPath),
+                   String.format(AStyleHandlerConstants.CAN_FORMAT_PROJECT, folderPath),
+                   monitor);
+    }
+
+
+    /**
+     * Creates a progress monitor for formatting one of multiple concurrently formatted
+     * source folders. It forwards the cancellation and the names of formatted files
+     * from and to the progress monitor of the job.
+     *
+     * @param jobMonitor the progress monitor of the job
+     *
+     * @return a progress monitor for formatting a single source folder
+     */
+    private static IProgressMonitor createFolderMonitor(IProgressMonitor jobMonitor)
+    {
+        return new NullProgressMonitor()
+        {
+            @Override
+            public boolean isCanceled()
+            {
+                return super.isCanceled() || jobMonitor.isCanceled();
+            }
+
+
+            @Override
+            public void subTask(String name)
+            {
+                synchronized (jobMonitor) {
+                    jobMonitor.subTask(name);
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Creates error messages for source folders that could not be formatted.
+     *
+     * @param sourceFolders the source folders that could not be formatted
+     *
+     * @return a list of error messages
+     */
+    private static List<FeedbackMessage> createGenericErrors(List<File> sourceFolders)
+    {
+        final List<FeedbackMessage> errorMessages = new ArrayList<>(sourceFolders.size());
+
+        for (File sourceFolder : sourceFolders) {
+            errorMessages.add(FeedbackMessage.CreateError(
+                                  String.format(
+                                      AStyleHandlerConstants.ERROR_GENERIC,
+                                      String.format(AStyleHandlerConstants.CANNOT_FORMAT_PROJECT, sourceFolder.getPath()))));
+        }
+
+        return errorMessages;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.jobs;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+import de.gerdiproject.astyle.utils.SchedulingRuleUtils;
+
+/**
+ * This job formats multiple selected files, folders and projects in a single
+ * formatting run. The source files of the selected folders are collected in the
+ * background, so that the UI thread is not blocked while the folders are traversed.
+ *
+ * @author GeRDI Project
+ */
+public class SelectionFormattingJob extends Job
+{
+    private final List<File> selectedFiles;
+    private final ExecutionEvent event;
+
+
+    /**
+     * Constructor that prepares the formatting of selected files and folders.
+     *
+     * @param selectedFiles the selected files and folders, none of which lies within another
+     * @param event the event that triggered the formatting
+     */
+    public SelectionFormattingJob(List<File> selectedFiles, ExecutionEvent event)
+    {
+        super(String.format(AStyleHandlerConstants.FORMAT_SELECTION_JOB_NAME, selectedFiles.size()));
+        this.selectedFiles = selectedFiles;
+        this.event = event;
+
+        // builds and other jobs must not change the selected projects while they are formatted
+        setRule(SchedulingRuleUtils.createProjectRule(selectedFiles));
+    }
+
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor)
+    {
+        try {
+            final List<File> sourceFiles = FormattingUtils.collectSourceFiles(selectedFiles);
+            final FeedbackMessage statusMessage;
+
+            if (sourceFiles.isEmpty())
+                statusMessage = FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+            else {
+                statusMessage = FormattingUtils.formatFiles(
+                                    sourceFiles,
+                                    String.format(AStyleHandlerConstants.CANNOT_FORMAT_FILES, sourceFiles.size()),
+                                    String.format(AStyleHandlerConstants.CAN_FORMAT_FILES, sourceFiles.size()),
+                                    monitor);
+            }
+
+            // notify the user about the status
+            statusMessage.displayAsync(event);
+            return Status.OK_STATUS;
+
+        } catch (OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+
+        } finally {
+            monitor.done();
+        }
+    }
+
+
+    @Override
+    public boolean belongsTo(Object family)
+    {
+        return AStyleHandlerConstants.FORMATTING_JOB_FAMILY.equals(family);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.listeners;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+
+/**
+ * This listener listens to preference changes and replaces the
+ * {@linkplain FormatterConfiguration} with a snapshot of the changed preferences.
+ *
+ * @author GeRDI Project
+ */
+public class ConfigurationChangedListener implements IPropertyChangeListener
+{
+    private final IPreferenceStore store;
+    private volatile FormatterConfiguration configuration;
+
+
+    /**
+     * Constructor that resolves the current preferences.
+     *
+     * @param store the store of the AStyle preferences
+     */
+    public ConfigurationChangedListener(IPreferenceStore store)
+    {
+        this.store = store;
+        this.configuration = FormatterConfiguration.fromStore(store);
+    }
+
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        configuration = FormatterConfiguration.fromStore(store);
+    }
+
+
+    /**
+     * Returns the snapshot of the current preferences.
+     *
+     * @return the snapshot of the current preferences
+     */
+    public FormatterConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.listeners;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.cache.AStyleCacheConstants;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This listener keeps track of files that changed since the folders they
+ * are in were formatted. This allows folder formatting to only pass the changed files
+ * to the formatter. Files of all types are tracked, because the file patterns that
+ * decide which files are formatted are applied when the dirty files are retrieved.
+ * The formatted folders of a project are forgotten when its file patterns change,
+ * because files that were excluded before may be included now. They are also only
+ * valid for the formatter configuration they were formatted with, which is why the
+ * fingerprint of that configuration is remembered for every project.
+ * The tracked state is written to the plugin state location whenever the workspace
+ * is saved, and changes that happened after the last save are replayed on startup.
+ *
+ * @author GeRDI Project
+ */
+public class DirtyFileTracker implements IResourceChangeListener, ISaveParticipant
+{
+    private static final IPath SETTINGS_FILE_PATH =
+        new Path(String.format(AStyleCacheConstants.PROJECT_SETTINGS_FILE, Activator.PLUGIN_ID));
+
+    private final File stateFile;
+    private final Map<String, Set<IPath>> cleanRoots;
+    private final Map<String, Set<IPath>> dirtyFiles;
+    private final Map<String, String> fingerprints;
+
+
+    /**
+     * Constructor that restores the tracked state from a file.
+     *
+     * @param stateFile the file in which the tracked state is persisted
+     */
+    public DirtyFileTracker(File stateFile)
+    {
+        this.stateFile = stateFile;
+        this.cleanRoots = new HashMap<>();
+        this.dirtyFiles = new HashMap<>();
+        this.fingerprints = new HashMap<>();
+
+        load();
+    }
+
+
+    /**
+     * Retrieves all changed source files within a folder that was previously formatted.
+     *
+     * @param project the project to which the folder belongs
+     * @param folder the folder of which the changed source files are retrieved
+     * @param fingerprint the fingerprint of the current formatter configuration, or null
+     *
+     * @return a list of changed source files, or null if the folder was not formatted
+     *         completely with the current formatter configuration before, and thus needs
+     *         to be searched for source files
+     */
+    public synchronized List<File> getDirtyFiles(IProject project, File folder, String fingerprint)
+    {
+        // folders that were formatted with another configuration may be unformatted now
+        if (fingerprint == null || !fingerprint.equals(fingerprints.get(project.getName())))
+            return null;
+
+        final IPath folderPath = toProjectRelativePath(folder, true);
+        final Set<IPath> projectCleanRoots = cleanRoots.get(project.getName());
+
+        if (folderPath == null || projectCleanRoots == null || !isCovered(folderPath, projectCleanRoots))
+            return null;
+
+        final List<File> changedFiles = new LinkedList<>();
+        final Set<IPath> projectDirtyFiles = dirtyFiles.get(project.getName());
+
+        if (projectDirtyFiles != null) {
+            for (IPath dirtyPath : projectDirtyFiles) {
+                if (!folderPath.isPrefixOf(dirtyPath))
+                    continue;
+
+                final IPath location = project.getFile(dirtyPath).getLocation();
+
+                if (location != null && location.toFile().isFile())
+                    changedFiles.add(location.toFile());
+            }
+        }
+
+        return changedFiles;
+    }
+
+
+    /**
+     * Marks files as formatted. If a folder was formatted, all files within
+     * the folder are assumed to be formatted until they change.
+     *
+     * @param project the project to which the formatted files belong
+     * @param formattedRoot the folder or file that was formatted
+     * @param formattedFiles the files that were passed to the formatter
+     * @param fingerprint the fingerprint of the formatter configuration, or null
+     */
+    public synchronized void markFormatted(IProject project, File formattedRoot, Collection<File> formattedFiles, String fingerprint)
+    {
+        final Set<IPath> projectDirtyFiles = dirtyFiles.get(project.getName());
+
+        if (projectDirtyFiles != null) {
+            for (File formattedFile : formattedFiles) {
+                final IPath formattedPath = toProjectRelativePath(formattedFile, false);
+
+                if (formattedPath != null)
+                    projectDirtyFiles.remove(formattedPath);
+            }
+        }
+
+        // remember that the whole folder is formatted, unless the configuration is unknown
+        if (formattedRoot.isDirectory() && fingerprint != null) {
+            final IPath rootPath = toProjectRelativePath(formattedRoot, true);
+
+            if (rootPath != null) {
+                // folders that were formatted with another configuration are not formatted anymore
+                if (!fingerprint.equals(fingerprints.put(project.getName(), fingerprint))) {
+                    cleanRoots.remove(project.getName());
+                    dirtyFiles.remove(project.getName());
+                }
+
+                final Set<IPath> projectCleanRoots =
+                    cleanRoots.computeIfAbsent(project.getName(), (String name) -> new HashSet<>());
+
+                if (!isCovered(rootPath, projectCleanRoots)) {
+                    projectCleanRoots.removeIf((IPath cleanRoot) -> rootPath.isPrefixOf(cleanRoot));
+                    projectCleanRoots.add(rootPath);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Marks files of arbitrary projects as formatted.
+     *
+     * @param formattedFiles the files that were passed to the formatter
+     */
+    public synchronized void markFormatted(Collection<File> formattedFiles)
+    {
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+
+        for (File formattedFile : formattedFiles) {
+            final IFile workspaceFile = workspaceRoot.getFileForLocation(Path.fromOSString(formattedFile.getAbsolutePath()));
+
+            if (workspaceFile == null)
+                continue;
+
+            final Set<IPath> projectDirtyFiles = dirtyFiles.get(workspaceFile.getProject().getName());
+
+            if (projectDirtyFiles != null)
+                projectDirtyFiles.remove(workspaceFile.getProjectRelativePath());
+        }
+    }
+
+
+    /**
+     * Forgets all formatted folders and changed files, so that all
+     * folders are searched for source files the next time they are formatted.
+     * This is necessary when the workspace file patterns change.
+     */
+    public synchronized void forgetAll()
+    {
+        cleanRoots.clear();
+        dirtyFiles.clear();
+        fingerprints.clear();
+    }
+
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event)
+    {
+        final IResourceDelta rootDelta = event.getDelta();
+
+        if (rootDelta == null)
+            return;
+
+        try {
+            rootDelta.accept((IResourceDelta delta) -> {
+                final IResource resource = delta.getResource();
+
+                switch (resource.getType()) {
+                    case IResource.PROJECT:
+                        if (delta.getKind() == IResourceDelta.REMOVED)
+                            forgetProject(resource.getName());
+
+                        return delta.getKind() != IResourceDelta.REMOVED;
+
+                    case IResource.FILE:
+                        if (resource.getProjectRelativePath().equals(SETTINGS_FILE_PATH))
+                            forgetProject(resource.getProject().getName());
+
+                        else if (isFileChange(delta))
+                            markDirty(resource);
+
+                        return false;
+
+                    default:
+                        return true;
+                }
+            });
+        } catch (CoreException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    @Override
+    public void saving(ISaveContext context) throws CoreException
+    {
+        if (context.getKind() != ISaveContext.PROJECT_SAVE) {
+            save();
+
+            // request the resource deltas that happen after this save on the next startup
+            context.needSaveNumber();
+        }
+    }
+
+
+    @Override
+    public void prepareToSave(ISaveContext context) throws CoreException
+    {
+        // nothing to prepare
+    }
+
+
+    @Override
+    public void doneSaving(ISaveContext context)
+    {
+        // nothing to clean up
+    }
+
+
+    @Override
+    public void rollback(ISaveContext context)
+    {
+        // the state file is replaced atomically, there is nothing to roll back
+    }
+
+
+    /**
+     * Checks if a resource delta signifies a changed, added or moved file.
+     * Derived files, such as build output, are never formatted and thus ignored.
+     *
+     * @param delta a resource delta of a file
+     *
+     * @return true if the delta signifies that the file may need to be formatted
+     */
+    private static boolean isFileChange(IResourceDelta delta)
+    {
+        final IResource file = delta.getResource();
+
+        if (file.isDerived() || file.isTeamPrivateMember())
+            return false;
+
+        switch (delta.getKind()) {
+            case IResourceDelta.ADDED:
+                return true;
+
+            case IResourceDelta.CHANGED:
+                return (delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0;
+
+            default:
+                return false;
+        }
+    }
+
+
+    /**
+     * Checks if a path lies within one of several folders.
+     *
+     * @param path a project relative path
+     * @param roots project relative folder paths
+     *
+     * @return true if the path lies within one of the folders
+     */
+    private static boolean isCovered(IPath path, Set<IPath> roots)
+    {
+        for (IPath root : roots) {
+            if (root.isPrefixOf(path))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Marks a file as changed.
+     *
+     * @param file the file that changed
+     */
+    private synchronized void markDirty(IResource file)
+    {
+        final String projectName = file.getProject().getName();
+
+        // only files of previously formatted folders need to be tracked
+        if (cleanRoots.containsKey(projectName))
+            dirtyFiles.computeIfAbsent(projectName, (String name) -> new HashSet<>())
+            .add(file.getProjectRelativePath());
+    }
+
+
+    /**
+     * Forgets everything that is known about a project.
+     *
+     * @param projectName the name of a project that was removed, or whose file patterns changed
+     */
+    private synchronized void forgetProject(String projectName)
+    {
+        cleanRoots.remove(projectName);
+        dirtyFiles.remove(projectName);
+        fingerprints.remove(projectName);
+    }
+
+
+    /**
+     * Converts an absolute file system path to a project relative path.
+     *
+     * @param file the absolute path of a file or folder in the workspace
+     * @param isFolder if true, the path points to a folder
+     *
+     * @return the project relative path, or null if the file is not part of the workspace
+     */
+    private static IPath toProjectRelativePath(File file, boolean isFolder)
+    {
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+        final IPath location = Path.fromOSString(file.getAbsolutePath());
+        final IResource resource;
+
+        if (isFolder) {
+            final IContainer container = workspaceRoot.getContainerForLocation(location);
+            resource = container != null && container.getType() != IResource.ROOT ? container : null;
+        } else {
+            final IFile workspaceFile = workspaceRoot.getFileForLocation(location);
+            resource = workspaceFile;
+        }
+
+        return resource != null ? resource.getProjectRelativePath() : null;
+    }
+
+
+    /**
+     * Writes the tracked state to the state file. Every project is written
+     * to a line that starts with '=', followed by a line with the fingerprint of
+     * the formatter configuration that starts with '#', lines of formatted
+     * folders that start with '+', and lines of changed files that start with '-'.
+     */
+    private synchronized void save()
+    {
+        final File tempFile = new File(stateFile.getPath() + AStyleHandlerConstants.TEMP_FILE_SUFFIX);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Set<IPath>> projectEntry : cleanRoots.entrySet()) {
+                final String projectName = projectEntry.getKey();
+                final String fingerprint = fingerprints.get(projectName);
+
+                // folders of unknown formatter configurations are not formatted
+                if (fingerprint == null)
+                    continue;
+
+                writer.write(AStyleHandlerConstants.PROJECT_PREFIX);
+                writer.write(projectName);
+                writer.newLine();
+
+                writer.write(AStyleHandlerConstants.FINGERPRINT_PREFIX);
+                writer.write(fingerprint);
+                writer.newLine();
+
+                for (IPath cleanRoot : projectEntry.getValue())
+                    writeEntry(writer, AStyleHandlerConstants.CLEAN_ROOT_PREFIX, cleanRoot);
+
+                final Set<IPath> projectDirtyFiles = dirtyFiles.get(projectName);
+
+                if (projectDirtyFiles != null) {
+                    for (IPath dirtyFile : projectDirtyFiles)
+                        writeEntry(writer, AStyleHandlerConstants.DIRTY_FILE_PREFIX, dirtyFile);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        try {
+            Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    /**
+     * Writes a single path entry of the state file.
+     *
+     * @param writer the writer of the state file
+     * @param prefix a character that signifies the type of the entry
+     * @param path a project relative path
+     *
+     * @throws IOException if the entry could not be written
+     */
+    private static void writeEntry(BufferedWriter writer, char prefix, IPath path) throws IOException
+    {
+        writer.write(prefix);
+        writer.write(path.toPortableString());
+        writer.newLine();
+    }
+
+
+    /**
+     * Reads the tracked state from the state file, if it exists.
+     */
+    private synchronized void load()
+    {
+        if (!stateFile.isFile())
+            return;
+
+        try (BufferedReader reader = Files.newBufferedReader(stateFile.toPath(), StandardCharsets.UTF_8)) {
+            String projectName = null;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty())
+                    continue;
+
+                final char prefix = line.charAt(0);
+
+                if (prefix == AStyleHandlerConstants.CLEAN_ROOT_PREFIX && projectName != null)
+                    cleanRoots.get(projectName).add(Path.fromPortableString(line.substring(1)));
+
+                else if (prefix == AStyleHandlerConstants.DIRTY_FILE_PREFIX && projectName != null)
+                    dirtyFiles.computeIfAbsent(projectName, (String name) -> new HashSet<>())
+                    .add(Path.fromPortableString(line.substring(1)));
+
+                else if (prefix == AStyleHandlerConstants.FINGERPRINT_PREFIX && projectName != null)
+                    fingerprints.put(projectName, line.substring(1));
+
+                else if (prefix == AStyleHandlerConstants.PROJECT_PREFIX) {
+                    projectName = line.substring(1);
+                    cleanRoots.put(projectName, new HashSet<>());
+                }
+            }
+        } catch (IOException e) {
+            // start from scratch if the state is corrupt
+            cleanRoots.clear();
+            dirtyFiles.clear();
+            fingerprints.clear();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.listeners;
+
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+
+/**
+ * This listener listens to changes of the workspace file patterns and makes
+ * the {@linkplain DirtyFileTracker} forget which folders are formatted, because
+ * files that were excluded before may be included now.
+ *
+ * @author GeRDI Project
+ */
+public class FilePatternsChangedListener implements IPropertyChangeListener
+{
+    private final DirtyFileTracker tracker;
+
+
+    /**
+     * Constructor that requires the tracker that is to be reset.
+     *
+     * @param tracker the tracker that is to be reset when the file patterns change
+     */
+    public FilePatternsChangedListener(DirtyFileTracker tracker)
+    {
+        this.tracker = tracker;
+    }
+
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        switch (event.getProperty()) {
+            case AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION:
+            case AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION:
+                tracker.forgetAll();
+                break;
+
+            default:
+                // do nothing
+        }
+    }
+}
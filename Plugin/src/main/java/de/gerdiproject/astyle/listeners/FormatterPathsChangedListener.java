@@ -0,0 +1,60 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.listeners;
+
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+
+/**
+ * This listener listens to changes of the AStyle binary and options file paths
+ * and invalidates the {@linkplain FormattedFileCache} accordingly.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterPathsChangedListener implements IPropertyChangeListener
+{
+    private final FormattedFileCache cache;
+
+
+    /**
+     * Constructor that requires the cache that is to be invalidated.
+     *
+     * @param cache the cache that is to be invalidated when the formatter paths change
+     */
+    public FormatterPathsChangedListener(FormattedFileCache cache)
+    {
+        this.cache = cache;
+    }
+
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event)
+    {
+        switch (event.getProperty()) {
+            case AStylePreferenceConstants.BINARY_PATH_OPTION:
+            case AStylePreferenceConstants.OPTIONS_FILE_PATH_OPTION:
+                cache.clear();
+                break;
+
+            default:
+                // do nothing
+        }
+    }
+}
@@ -16,37 +16,154 @@
  */
 package de.gerdiproject.astyle.listeners;
 
+import java.util.List;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.IExecutionListener;
 import org.eclipse.core.commands.NotHandledException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.texteditor.ITextEditor;
 
+import de.gerdiproject.astyle.Activator;
 import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.jobs.FormattingDispatcher;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
 import de.gerdiproject.astyle.utils.AStyleEclipseUtils;
+import de.gerdiproject.astyle.utils.EditorFormattingUtils;
+import de.gerdiproject.astyle.utils.FeedbackMessage;
 
 /**
  * This listener reacts to save commands and triggers a formatting process.
+ * Saved files are collected and formatted in batches, so that rapidly
+ * repeated saves do not start redundant formatting processes.
  *
  * @author Robin Weiss
  */
 public class SaveListener implements IExecutionListener
 {
+    private final FormattingDispatcher formattingDispatcher;
+    private String formattedBeforeSavePath;
+    private List<IEditorPart> dirtyEditorsBeforeSaveAll;
+
+
+    /**
+     * Constructor that uses the dispatcher of the plugin.
+     */
+    public SaveListener()
+    {
+        this(Activator.getDefault().getFormattingDispatcher());
+    }
+
+
+    /**
+     * Constructor that requires the dispatcher which formats saved files in batches.
+     *
+     * @param formattingDispatcher the dispatcher that formats saved files in batches
+     */
+    public SaveListener(FormattingDispatcher formattingDispatcher)
+    {
+        this.formattingDispatcher = formattingDispatcher;
+    }
+
+
     @Override
     public void postExecuteSuccess(final String action, final Object returnValue)
     {
         switch (action) {
             case AStyleHandlerConstants.SAVE_COMMAND:
             case AStyleHandlerConstants.SAVE_AS_COMMAND:
-                AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.FORMAT_FILE_COMMAND);
+                // the editor contents were already formatted before they were written to disk
+                if (formattedBeforeSavePath != null) {
+                    final String successMessage = String.format(AStyleHandlerConstants.CAN_FORMAT_FILE, formattedBeforeSavePath);
+                    FeedbackMessage.CreateInfo(String.format(successMessage, "")).display(null);
+                    formattedBeforeSavePath = null;
+                } else
+                    enqueueActiveFile();
+
                 break;
 
             case AStyleHandlerConstants.SAVE_ALL_COMMAND:
-                AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.FORMAT_PROJECT_COMMAND);
+                enqueueSavedEditors();
                 break;
         }
     }
 
 
+    /**
+     * Requests the file of the active editor to be formatted as soon as
+     * no further files are saved. This method can be overridden in order to
+     * simulate saves without a workbench.
+     */
+    protected void enqueueActiveFile()
+    {
+        final IFile file = getActiveFile();
+
+        if (file == null) {
+            AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.FORMAT_FILE_COMMAND);
+            return;
+        }
+
+        // execute Eclipse Java formatting
+        if (file.getName().endsWith(AStyleHandlerConstants.JAVA_FILE_EXTENSION))
+            AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.ECLIPSE_FORMAT_JAVA_COMMAND);
+
+        formattingDispatcher.enqueue(file.getLocation().toFile(), file.getProject());
+    }
+
+
+    /**
+     * Requests the files of all editors that were saved by the Save All command
+     * to be formatted as soon as no further files are saved. This method can be
+     * overridden in order to simulate saves without a workbench.
+     */
+    protected void enqueueSavedEditors()
+    {
+        final List<IEditorPart> dirtyEditors = dirtyEditorsBeforeSaveAll;
+        dirtyEditorsBeforeSaveAll = null;
+
+        if (dirtyEditors == null)
+            return;
+
+        for (IEditorPart editor : dirtyEditors) {
+            // skip editors that could not be saved
+            if (editor.isDirty())
+                continue;
+
+            final IFile file = editor.getEditorInput().getAdapter(IFile.class);
+
+            if (file != null && file.getLocation() != null)
+                formattingDispatcher.enqueue(file.getLocation().toFile(), file.getProject());
+        }
+    }
+
+
+    /**
+     * Retrieves the workspace file that is opened in the active text editor.
+     *
+     * @return the file of the active editor, or null if it is not part of the workspace
+     */
+    private static IFile getActiveFile()
+    {
+        final ITextEditor editor = AStyleEclipseUtils.getActiveTextEditor();
+        final IFile file = editor != null ? editor.getEditorInput().getAdapter(IFile.class) : null;
+
+        return file != null && file.getLocation() != null ? file : null;
+    }
+
+
+    /**
+     * Returns the dispatcher that formats saved files in batches.
+     *
+     * @return the dispatcher that formats saved files in batches
+     */
+    protected FormattingDispatcher getFormattingDispatcher()
+    {
+        return formattingDispatcher;
+    }
+
+
     @Override
     public void notHandled(String arg0, NotHandledException arg1)
     {
@@ -56,11 +173,58 @@ public class SaveListener implements IExecutionListener
     @Override
     public void postExecuteFailure(String arg0, ExecutionException arg1)
     {
+        formattedBeforeSavePath = null;
+        dirtyEditorsBeforeSaveAll = null;
     }
 
 
     @Override
-    public void preExecute(String arg0, ExecutionEvent arg1)
+    public void preExecute(String action, ExecutionEvent event)
+    {
+        formattedBeforeSavePath = null;
+        dirtyEditorsBeforeSaveAll = null;
+
+        switch (action) {
+            case AStyleHandlerConstants.SAVE_COMMAND:
+            case AStyleHandlerConstants.SAVE_AS_COMMAND:
+                if (isInMemoryFormattingEnabled())
+                    formatActiveEditor();
+
+                break;
+
+            case AStyleHandlerConstants.SAVE_ALL_COMMAND:
+                // remember which files are about to be saved
+                dirtyEditorsBeforeSaveAll = AStyleEclipseUtils.getDirtyEditors();
+                break;
+
+            default:
+                // do nothing
+        }
+    }
+
+
+    /**
+     * Formats the unsaved contents of the active text editor, so that
+     * the formatted contents are written to disk by the save command.
+     */
+    private void formatActiveEditor()
+    {
+        final ITextEditor editor = AStyleEclipseUtils.getActiveTextEditor();
+
+        if (editor != null && editor.isEditable() && EditorFormattingUtils.formatDocument(editor)) {
+            final IFile file = editor.getEditorInput().getAdapter(IFile.class);
+            formattedBeforeSavePath = file.getLocation().toOSString();
+        }
+    }
+
+
+    /**
+     * Returns true if editor contents are to be formatted before they are saved.
+     *
+     * @return true if editor contents are to be formatted before they are saved
+     */
+    private boolean isInMemoryFormattingEnabled()
     {
+        return FormatterConfiguration.getCurrent().isInMemoryFormatting();
     }
 }
@@ -42,9 +42,49 @@ public class AStylePreferenceConstants
     public final static String AUTO_FORMAT_OPTION = "AUTO_FORMAT";
     public final static String AUTO_FORMAT_LABEL = "&Format on save";
 
+    public final static String IN_MEMORY_FORMAT_OPTION = "IN_MEMORY_FORMAT";
+    public final static String IN_MEMORY_FORMAT_LABEL = "Format editor contents &in memory before saving";
+
     public final static String FEEDBACK_STYLE_OPTION = "FEEDBACK_STYLE";
     public final static String FEEDBACK_STYLE_LABEL = "&Formatting Feedback:";
 
+    public final static String POOL_SIZE_OPTION = "POOL_SIZE";
+    public final static String POOL_SIZE_LABEL = "&Pre-started formatter processes (0 = disabled):";
+    public final static int POOL_SIZE_DEFAULT = 2;
+    public final static int POOL_SIZE_MAX = 16;
+
+    public final static String PARALLEL_PROCESSES_OPTION = "PARALLEL_PROCESSES";
+    public final static String PARALLEL_PROCESSES_LABEL = "Parallel formatter pro&cesses:";
+    public final static int PARALLEL_PROCESSES_MAX = 256;
+
+    public final static String SAVE_QUIET_PERIOD_OPTION = "SAVE_QUIET_PERIOD";
+    public final static String SAVE_QUIET_PERIOD_LABEL = "&Quiet period before formatting saved files (ms):";
+    public final static int SAVE_QUIET_PERIOD_DEFAULT = 300;
+    public final static int SAVE_QUIET_PERIOD_MAX = 10000;
+
+    public final static String PROCESS_TIMEOUT_OPTION = "PROCESS_TIMEOUT";
+    public final static String PROCESS_TIMEOUT_LABEL = "Formatter &timeout per started MB of source code (s, 0 = none):";
+    public final static int PROCESS_TIMEOUT_DEFAULT = 60;
+    public final static int PROCESS_TIMEOUT_MAX = 3600;
+
+    public final static String INCLUDE_PATTERNS_OPTION = "INCLUDE_PATTERNS";
+    public final static String INCLUDE_PATTERNS_LABEL = "File patterns to in&clude (comma-separated):";
+    public final static String INCLUDE_PATTERNS_DEFAULT = "*.java";
+
+    public final static String EXCLUDE_PATTERNS_OPTION = "EXCLUDE_PATTERNS";
+    public final static String EXCLUDE_PATTERNS_LABEL = "File patterns to e&xclude (comma-separated):";
+    public final static String EXCLUDE_PATTERNS_DEFAULT = "";
+
+    public final static String PATTERN_SEPARATOR = ",";
+
+    public final static String SHARED_CACHE_PATH_OPTION = "SHARED_CACHE_PATH";
+    public final static String SHARED_CACHE_PATH_LABEL = "S&hared format cache directory (empty = disabled):";
+
+    public final static String SHARED_CACHE_SIZE_OPTION = "SHARED_CACHE_SIZE";
+    public final static String SHARED_CACHE_SIZE_LABEL = "Shared format cache si&ze (MB):";
+    public final static int SHARED_CACHE_SIZE_DEFAULT = 512;
+    public final static int SHARED_CACHE_SIZE_MAX = 1048576;
+
     /**
      * Private constructor, because this is just a collection of constants.
      */
@@ -19,7 +19,9 @@ import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.FileFieldEditor;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.RadioGroupFieldEditor;
+import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
@@ -63,7 +65,16 @@ public class AStylePreferencePage extends FieldEditorPreferencePage implements I
         addField(createBinaryPathEditor());
         addField(createOptionsPathEditor());
         addField(createAutoFormatCheckbox());
+        addField(createInMemoryFormatCheckbox());
         addField(createFeedbackStyleRadioButtons());
+        addField(createPoolSizeEditor());
+        addField(createParallelProcessesEditor());
+        addField(createSaveQuietPeriodEditor());
+        addField(createProcessTimeoutEditor());
+        addField(createIncludePatternsEditor());
+        addField(createExcludePatternsEditor());
+        addField(createSharedCachePathEditor());
+        addField(createSharedCacheSizeEditor());
     }
 
 
@@ -114,6 +125,21 @@ public class AStylePreferencePage extends FieldEditorPreferencePage implements I
     }
 
 
+    /**
+     * Creates a check box for toggling whether editor contents are formatted
+     * in memory before they are saved, instead of formatting the saved file.
+     *
+     * @return the UI component of the check box
+     */
+    private BooleanFieldEditor createInMemoryFormatCheckbox()
+    {
+        return new BooleanFieldEditor(
+                   AStylePreferenceConstants.IN_MEMORY_FORMAT_OPTION,
+                   AStylePreferenceConstants.IN_MEMORY_FORMAT_LABEL,
+                   getFieldEditorParent());
+    }
+
+
     /**
      * Creates radio buttons for selecting the means of displaying feedback
      * messages.
@@ -142,4 +168,138 @@ public class AStylePreferencePage extends FieldEditorPreferencePage implements I
     }
 
 
+    /**
+     * Creates an editable field for the number of formatter processes that
+     * are started in advance.
+     *
+     * @return the UI component of the editable field
+     */
+    private IntegerFieldEditor createPoolSizeEditor()
+    {
+        final IntegerFieldEditor poolSizeField = new IntegerFieldEditor(
+            AStylePreferenceConstants.POOL_SIZE_OPTION,
+            AStylePreferenceConstants.POOL_SIZE_LABEL,
+            getFieldEditorParent());
+
+        poolSizeField.setValidRange(0, AStylePreferenceConstants.POOL_SIZE_MAX);
+        return poolSizeField;
+    }
+
+
+    /**
+     * Creates an editable field for the number of formatter processes that
+     * may run at the same time when formatting multiple files.
+     *
+     * @return the UI component of the editable field
+     */
+    private IntegerFieldEditor createParallelProcessesEditor()
+    {
+        final IntegerFieldEditor parallelProcessesField = new IntegerFieldEditor(
+            AStylePreferenceConstants.PARALLEL_PROCESSES_OPTION,
+            AStylePreferenceConstants.PARALLEL_PROCESSES_LABEL,
+            getFieldEditorParent());
+
+        parallelProcessesField.setValidRange(1, AStylePreferenceConstants.PARALLEL_PROCESSES_MAX);
+        return parallelProcessesField;
+    }
+
+
+    /**
+     * Creates an editable field for the time that must pass without any save
+     * before saved files are formatted.
+     *
+     * @return the UI component of the editable field
+     */
+    private IntegerFieldEditor createSaveQuietPeriodEditor()
+    {
+        final IntegerFieldEditor quietPeriodField = new IntegerFieldEditor(
+            AStylePreferenceConstants.SAVE_QUIET_PERIOD_OPTION,
+            AStylePreferenceConstants.SAVE_QUIET_PERIOD_LABEL,
+            getFieldEditorParent());
+
+        quietPeriodField.setValidRange(0, AStylePreferenceConstants.SAVE_QUIET_PERIOD_MAX);
+        return quietPeriodField;
+    }
+
+
+    /**
+     * Creates an editable field for the time after which formatter processes
+     * are terminated, per started megabyte of source code that is formatted.
+     *
+     * @return the UI component of the editable field
+     */
+    private IntegerFieldEditor createProcessTimeoutEditor()
+    {
+        final IntegerFieldEditor timeoutField = new IntegerFieldEditor(
+            AStylePreferenceConstants.PROCESS_TIMEOUT_OPTION,
+            AStylePreferenceConstants.PROCESS_TIMEOUT_LABEL,
+            getFieldEditorParent());
+
+        timeoutField.setValidRange(0, AStylePreferenceConstants.PROCESS_TIMEOUT_MAX);
+        return timeoutField;
+    }
+
+
+    /**
+     * Creates an editable field for the glob patterns of files that are formatted.
+     * Projects can override these patterns in their project settings.
+     *
+     * @return the UI component of the editable field
+     */
+    private StringFieldEditor createIncludePatternsEditor()
+    {
+        return new StringFieldEditor(
+                   AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION,
+                   AStylePreferenceConstants.INCLUDE_PATTERNS_LABEL,
+                   getFieldEditorParent());
+    }
+
+
+    /**
+     * Creates an editable field for the glob patterns of files and folders that are
+     * never formatted. Projects can add further patterns in their project settings.
+     *
+     * @return the UI component of the editable field
+     */
+    private StringFieldEditor createExcludePatternsEditor()
+    {
+        return new StringFieldEditor(
+                   AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION,
+                   AStylePreferenceConstants.EXCLUDE_PATTERNS_LABEL,
+                   getFieldEditorParent());
+    }
+
+
+    /**
+     * Creates an editable, browsable field, that aims to select a folder in which
+     * formatted files are cached, and which may be shared with other workspaces.
+     *
+     * @return the UI component of the editable field
+     */
+    private DirectoryFieldEditor createSharedCachePathEditor()
+    {
+        return new DirectoryFieldEditor(
+                   AStylePreferenceConstants.SHARED_CACHE_PATH_OPTION,
+                   AStylePreferenceConstants.SHARED_CACHE_PATH_LABEL,
+                   getFieldEditorParent());
+    }
+
+
+    /**
+     * Creates an editable field for the maximum size of the shared format cache.
+     *
+     * @return the UI component of the editable field
+     */
+    private IntegerFieldEditor createSharedCacheSizeEditor()
+    {
+        final IntegerFieldEditor cacheSizeField = new IntegerFieldEditor(
+            AStylePreferenceConstants.SHARED_CACHE_SIZE_OPTION,
+            AStylePreferenceConstants.SHARED_CACHE_SIZE_LABEL,
+            getFieldEditorParent());
+
+        cacheSizeField.setValidRange(1, AStylePreferenceConstants.SHARED_CACHE_SIZE_MAX);
+        return cacheSizeField;
+    }
+
+
 }
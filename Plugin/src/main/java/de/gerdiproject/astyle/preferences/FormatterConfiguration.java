@@ -0,0 +1,482 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.preferences;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.cache.PathFilterCache;
+import de.gerdiproject.astyle.cache.SharedFormatCache;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.process.AStyleProcessConstants;
+import de.gerdiproject.astyle.utils.PathFilter;
+
+/**
+ * This class represents an immutable snapshot of the AStyle preferences.
+ * Paths are escaped and command line arguments are assembled once when the
+ * snapshot is created, so that formatting does not need to look up preferences.
+ *
+ * @author GeRDI Project
+ */
+public final class FormatterConfiguration
+{
+    // used if the plugin is not active, for example during shutdown
+    private static final FormatterConfiguration UNCONFIGURED = new FormatterConfiguration(
+        "",
+        "",
+        FeedbackStyle.TextBox,
+        false,
+        0,
+        Runtime.getRuntime().availableProcessors(),
+        AStylePreferenceConstants.SAVE_QUIET_PERIOD_DEFAULT,
+        AStylePreferenceConstants.PROCESS_TIMEOUT_DEFAULT,
+        AStylePreferenceConstants.INCLUDE_PATTERNS_DEFAULT,
+        AStylePreferenceConstants.EXCLUDE_PATTERNS_DEFAULT,
+        "",
+        AStylePreferenceConstants.SHARED_CACHE_SIZE_DEFAULT);
+
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+    private final String binaryPath;
+    private final String optionsFilePath;
+    private final String binaryCommand;
+    private final String optionsParameter;
+    private final List<String> streamCommand;
+    private final FeedbackStyle feedbackStyle;
+    private final boolean isInMemoryFormatting;
+    private final int poolSize;
+    private final int parallelProcessCount;
+    private final int saveQuietPeriod;
+    private final int processTimeout;
+    private final List<String> includePatterns;
+    private final List<String> excludePatterns;
+    private final PathFilter pathFilter;
+    private final File sharedCacheRoot;
+    private final long sharedCacheMaxSize;
+    private final SharedFormatCache sharedFormatCache;
+
+
+    /**
+     * Constructor that resolves all derived values of the configuration.
+     *
+     * @param binaryPath the unescaped path of the AStyle bin directory
+     * @param optionsFilePath the unescaped path of the AStyle options file
+     * @param feedbackStyle the means of displaying regular feedback messages
+     * @param isInMemoryFormatting if true, editor contents are formatted before they are saved
+     * @param poolSize the number of formatter processes that are started in advance
+     * @param parallelProcessCount the maximum number of concurrent formatter processes
+     * @param saveQuietPeriod the milliseconds that must pass without a save before saved files are formatted
+     * @param processTimeout the seconds after which a formatter process is terminated per started
+     *          megabyte of source code, or 0 if formatter processes may run forever
+     * @param includePatterns comma-separated glob patterns of files that are formatted
+     * @param excludePatterns comma-separated glob patterns of files and folders that are never formatted
+     * @param sharedCachePath the path of a directory in which formatted files are cached
+     *          across workspaces, or an empty string if no such directory is used
+     * @param sharedCacheSize the number of megabytes that the shared cache directory may occupy
+     */
+    public FormatterConfiguration(String binaryPath, String optionsFilePath, FeedbackStyle feedbackStyle, boolean isInMemoryFormatting, int poolSize, int parallelProcessCount, int saveQuietPeriod, int processTimeout, String includePatterns, String excludePatterns, String sharedCachePath, int sharedCacheSize)
+    {
+        this.binaryPath = binaryPath;
+        this.optionsFilePath = optionsFilePath;
+        this.feedbackStyle = feedbackStyle;
+        this.isInMemoryFormatting = isInMemoryFormatting;
+        this.poolSize = Math.max(0, poolSize);
+        this.parallelProcessCount = Math.max(1, parallelProcessCount);
+        this.saveQuietPeriod = Math.max(0, saveQuietPeriod);
+        this.processTimeout = Math.max(0, processTimeout);
+        this.includePatterns = parsePatterns(includePatterns);
+        this.excludePatterns = parsePatterns(excludePatterns);
+        this.pathFilter = new PathFilter(this.includePatterns, this.excludePatterns);
+        this.sharedCacheRoot = sharedCachePath.trim().isEmpty() ? null : new File(sharedCachePath.trim());
+        this.sharedCacheMaxSize = Math.max(1, sharedCacheSize) * BYTES_PER_MEGABYTE;
+
+        // without the plugin, for example in the command line formatter, the snapshot owns its cache
+        this.sharedFormatCache = sharedCacheRoot != null && Activator.getDefault() == null
+                                 ? new SharedFormatCache(sharedCacheRoot, sharedCacheMaxSize)
+                                 : null;
+
+        if (binaryPath.isEmpty() || optionsFilePath.isEmpty()) {
+            this.binaryCommand = null;
+            this.optionsParameter = null;
+            this.streamCommand = null;
+        } else {
+            this.binaryCommand = String.format(AStyleHandlerConstants.ASTYLE_BIN_CMD, escapeWhitespace(binaryPath));
+            this.optionsParameter = String.format(AStyleHandlerConstants.OPTIONS_CMD_PARAM, escapeWhitespace(optionsFilePath));
+            this.streamCommand = Collections.unmodifiableList(Arrays.asList(binaryCommand, optionsParameter));
+        }
+    }
+
+
+    /**
+     * Resolves the current values of a preference store.
+     *
+     * @param store the store of the AStyle preferences
+     *
+     * @return a configuration that reflects the preferences
+     */
+    public static FormatterConfiguration fromStore(IPreferenceStore store)
+    {
+        return new FormatterConfiguration(
+                   store.getString(AStylePreferenceConstants.BINARY_PATH_OPTION),
+                   store.getString(AStylePreferenceConstants.OPTIONS_FILE_PATH_OPTION),
+                   parseFeedbackStyle(store.getString(AStylePreferenceConstants.FEEDBACK_STYLE_OPTION)),
+                   store.getBoolean(AStylePreferenceConstants.IN_MEMORY_FORMAT_OPTION),
+                   store.getInt(AStylePreferenceConstants.POOL_SIZE_OPTION),
+                   store.getInt(AStylePreferenceConstants.PARALLEL_PROCESSES_OPTION),
+                   store.getInt(AStylePreferenceConstants.SAVE_QUIET_PERIOD_OPTION),
+                   store.getInt(AStylePreferenceConstants.PROCESS_TIMEOUT_OPTION),
+                   store.getString(AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION),
+                   store.getString(AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION),
+                   store.getString(AStylePreferenceConstants.SHARED_CACHE_PATH_OPTION),
+                   store.getInt(AStylePreferenceConstants.SHARED_CACHE_SIZE_OPTION));
+    }
+
+
+    /**
+     * Returns the configuration that is currently in effect.
+     *
+     * @return the current configuration of the plugin, or an unconfigured
+     *          default if the plugin is not active
+     */
+    public static FormatterConfiguration getCurrent()
+    {
+        final Activator activator = Activator.getDefault();
+        final FormatterConfiguration configuration = activator != null ? activator.getConfiguration() : null;
+
+        return configuration != null ? configuration : UNCONFIGURED;
+    }
+
+
+    /**
+     * Escapes whitespace characters of a path, so that they are understood by AStyle.
+     * Unlike {@linkplain String#replaceAll(String, String)}, this does not compile
+     * a regular expression.
+     *
+     * @param path a path that may contain whitespace characters
+     *
+     * @return the escaped path
+     */
+    public static String escapeWhitespace(String path)
+    {
+        if (path.indexOf(' ') == -1)
+            return path;
+
+        final StringBuilder escapedPath = new StringBuilder(path.length() + 8);
+
+        for (int i = 0; i < path.length(); i++) {
+            final char c = path.charAt(i);
+
+            if (c == ' ')
+                escapedPath.append(AStyleHandlerConstants.WHITESPACE_ESCAPE);
+            else
+                escapedPath.append(c);
+        }
+
+        return escapedPath.toString();
+    }
+
+
+    /**
+     * Reverts the escaping of whitespace characters of a path.
+     *
+     * @param escapedPath a path that may contain escaped whitespace characters
+     *
+     * @return the unescaped path
+     */
+    public static String unescapeWhitespace(String escapedPath)
+    {
+        int escapeIndex = escapedPath.indexOf(AStyleHandlerConstants.WHITESPACE_ESCAPE);
+
+        if (escapeIndex == -1)
+            return escapedPath;
+
+        final StringBuilder path = new StringBuilder(escapedPath.length());
+        int start = 0;
+
+        while (escapeIndex != -1) {
+            path.append(escapedPath, start, escapeIndex).append(' ');
+            start = escapeIndex + AStyleHandlerConstants.WHITESPACE_ESCAPE.length();
+            escapeIndex = escapedPath.indexOf(AStyleHandlerConstants.WHITESPACE_ESCAPE, start);
+        }
+
+        return path.append(escapedPath, start, escapedPath.length()).toString();
+    }
+
+
+    /**
+     * Splits a comma-separated list of glob patterns.
+     *
+     * @param patterns a comma-separated list of glob patterns, or null
+     *
+     * @return an unmodifiable list of the non-empty patterns
+     */
+    private static List<String> parsePatterns(String patterns)
+    {
+        if (patterns == null || patterns.trim().isEmpty())
+            return Collections.emptyList();
+
+        final List<String> patternList = new ArrayList<>();
+
+        for (String pattern : patterns.split(AStylePreferenceConstants.PATTERN_SEPARATOR)) {
+            if (!pattern.trim().isEmpty())
+                patternList.add(pattern.trim());
+        }
+
+        return Collections.unmodifiableList(patternList);
+    }
+
+
+    /**
+     * Parses a feedback style, falling back to the default if it is unknown.
+     *
+     * @param value the name of a feedback style
+     *
+     * @return the parsed feedback style
+     */
+    private static FeedbackStyle parseFeedbackStyle(String value)
+    {
+        for (FeedbackStyle style : FeedbackStyle.values()) {
+            if (style.name().equals(value))
+                return style;
+        }
+
+        return FeedbackStyle.TextBox;
+    }
+
+
+    /**
+     * Returns true if the AStyle bin directory and options file are specified.
+     *
+     * @return true if the AStyle paths are specified
+     */
+    public boolean isFormatterDefined()
+    {
+        return binaryCommand != null;
+    }
+
+
+    /**
+     * Returns the unescaped path of the AStyle bin directory.
+     *
+     * @return the unescaped path of the AStyle bin directory
+     */
+    public String getBinaryPath()
+    {
+        return binaryPath;
+    }
+
+
+    /**
+     * Returns the unescaped path of the AStyle options file.
+     *
+     * @return the unescaped path of the AStyle options file
+     */
+    public String getOptionsFilePath()
+    {
+        return optionsFilePath;
+    }
+
+
+    /**
+     * Returns the escaped command that executes the AStyle binary.
+     *
+     * @return the AStyle binary command, or null if the paths are not specified
+     */
+    public String getBinaryCommand()
+    {
+        return binaryCommand;
+    }
+
+
+    /**
+     * Returns the command line argument that passes the options file to AStyle.
+     *
+     * @return the options file argument, or null if the paths are not specified
+     */
+    public String getOptionsParameter()
+    {
+        return optionsParameter;
+    }
+
+
+    /**
+     * Returns the command of an AStyle process that formats source code
+     * that is passed via stdin.
+     *
+     * @return an unmodifiable command list, or null if the paths are not specified
+     */
+    public List<String> getStreamCommand()
+    {
+        return streamCommand;
+    }
+
+
+    /**
+     * Returns the means of displaying regular feedback messages.
+     *
+     * @return the means of displaying regular feedback messages
+     */
+    public FeedbackStyle getFeedbackStyle()
+    {
+        return feedbackStyle;
+    }
+
+
+    /**
+     * Returns true if editor contents are to be formatted before they are saved.
+     *
+     * @return true if editor contents are to be formatted before they are saved
+     */
+    public boolean isInMemoryFormatting()
+    {
+        return isInMemoryFormatting;
+    }
+
+
+    /**
+     * Returns the number of formatter processes that are started in advance.
+     *
+     * @return the preferred pool size
+     */
+    public int getPoolSize()
+    {
+        return poolSize;
+    }
+
+
+    /**
+     * Returns the maximum number of formatting processes that may run at the same time.
+     *
+     * @return the preferred number of parallel formatting processes
+     */
+    public int getParallelProcessCount()
+    {
+        return parallelProcessCount;
+    }
+
+
+    /**
+     * Returns the time that must pass without any save before the saved files are formatted.
+     *
+     * @return the quiet period in milliseconds
+     */
+    public int getSaveQuietPeriod()
+    {
+        return saveQuietPeriod;
+    }
+
+
+    /**
+     * Returns the time after which a formatter process is terminated. The time
+     * grows with every started megabyte of source code that is to be formatted.
+     *
+     * @param inputSize the number of bytes that are to be formatted
+     *
+     * @return the timeout in milliseconds, or 0 if the process may run forever
+     */
+    public long getProcessTimeout(long inputSize)
+    {
+        final long startedMegabytes = 1 + inputSize / AStyleProcessConstants.TIMEOUT_SCALING_BYTES;
+        return processTimeout * 1000L * startedMegabytes;
+    }
+
+
+    /**
+     * Returns the filter that decides which files of a project are formatted.
+     * Projects can define their own patterns in their project settings. Include
+     * patterns of a project replace the workspace include patterns, while exclude
+     * patterns of a project are added to the workspace exclude patterns.
+     * The filters of projects are cached by the {@linkplain PathFilterCache} of the plugin.
+     *
+     * @param project the project of which files are formatted, or null
+     *
+     * @return a filter of paths that are relative to the project folder
+     */
+    public PathFilter getPathFilter(IProject project)
+    {
+        final Activator activator = Activator.getDefault();
+        final PathFilterCache cache = activator != null ? activator.getPathFilterCache() : null;
+
+        if (project == null || cache == null)
+            return createPathFilter(project);
+
+        return cache.getPathFilter(project, this);
+    }
+
+
+    /**
+     * Compiles the filter that decides which files of a project are formatted,
+     * by looking up the file patterns of the project settings.
+     *
+     * @param project the project of which files are formatted, or null
+     *
+     * @return a filter of paths that are relative to the project folder
+     */
+    public PathFilter createPathFilter(IProject project)
+    {
+        if (project == null)
+            return pathFilter;
+
+        final IEclipsePreferences projectPreferences = new ProjectScope(project).getNode(Activator.PLUGIN_ID);
+
+        if (projectPreferences == null)
+            return pathFilter;
+
+        final List<String> projectIncludePatterns =
+            parsePatterns(projectPreferences.get(AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION, null));
+        final List<String> projectExcludePatterns =
+            parsePatterns(projectPreferences.get(AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION, null));
+
+        if (projectIncludePatterns.isEmpty() && projectExcludePatterns.isEmpty())
+            return pathFilter;
+
+        final List<String> combinedExcludePatterns = new ArrayList<>(excludePatterns);
+        combinedExcludePatterns.addAll(projectExcludePatterns);
+
+        return new PathFilter(
+                   projectIncludePatterns.isEmpty() ? includePatterns : projectIncludePatterns,
+                   combinedExcludePatterns);
+    }
+
+
+    /**
+     * Returns the cache of formatted files that may be shared with other workspaces.
+     * While the plugin is active, all configurations with the same cache directory and
+     * size limit share the cache instance of the plugin. Otherwise, the cache instance
+     * that was created along with this configuration is used.
+     *
+     * @return the shared format cache, or null if it is disabled
+     */
+    public SharedFormatCache getSharedFormatCache()
+    {
+        final Activator activator = Activator.getDefault();
+
+        if (sharedCacheRoot == null || activator == null)
+            return sharedFormatCache;
+
+        return activator.getSharedFormatCache(sharedCacheRoot, sharedCacheMaxSize);
+    }
+}
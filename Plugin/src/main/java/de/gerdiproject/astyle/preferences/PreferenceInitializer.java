@@ -37,7 +37,16 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer
         store.setDefault(AStylePreferenceConstants.BINARY_PATH_OPTION, "");
         store.setDefault(AStylePreferenceConstants.OPTIONS_FILE_PATH_OPTION, "");
         store.setDefault(AStylePreferenceConstants.AUTO_FORMAT_OPTION, false);
+        store.setDefault(AStylePreferenceConstants.IN_MEMORY_FORMAT_OPTION, true);
         store.setDefault(AStylePreferenceConstants.FEEDBACK_STYLE_OPTION, FeedbackStyle.TextBox.toString());
+        store.setDefault(AStylePreferenceConstants.POOL_SIZE_OPTION, AStylePreferenceConstants.POOL_SIZE_DEFAULT);
+        store.setDefault(AStylePreferenceConstants.PARALLEL_PROCESSES_OPTION, Runtime.getRuntime().availableProcessors());
+        store.setDefault(AStylePreferenceConstants.SAVE_QUIET_PERIOD_OPTION, AStylePreferenceConstants.SAVE_QUIET_PERIOD_DEFAULT);
+        store.setDefault(AStylePreferenceConstants.PROCESS_TIMEOUT_OPTION, AStylePreferenceConstants.PROCESS_TIMEOUT_DEFAULT);
+        store.setDefault(AStylePreferenceConstants.INCLUDE_PATTERNS_OPTION, AStylePreferenceConstants.INCLUDE_PATTERNS_DEFAULT);
+        store.setDefault(AStylePreferenceConstants.EXCLUDE_PATTERNS_OPTION, AStylePreferenceConstants.EXCLUDE_PATTERNS_DEFAULT);
+        store.setDefault(AStylePreferenceConstants.SHARED_CACHE_PATH_OPTION, "");
+        store.setDefault(AStylePreferenceConstants.SHARED_CACHE_SIZE_OPTION, AStylePreferenceConstants.SHARED_CACHE_SIZE_DEFAULT);
     }
 
 }
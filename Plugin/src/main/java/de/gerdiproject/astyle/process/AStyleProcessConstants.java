@@ -0,0 +1,58 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+/**
+ * This class offers constants that are used by the {@linkplain FormatterProcessPool}
+ * and its {@linkplain FormatterWorker}s.
+ *
+ * @author GeRDI Project
+ */
+public class AStyleProcessConstants
+{
+    public static final String POOL_MAINTENANCE_JOB_NAME = "AStyle: Maintaining Formatter Processes";
+    public static final String FEEDER_THREAD_NAME = "AStyle Formatter Input";
+    public static final String READER_THREAD_NAME = "AStyle Formatter Output";
+    public static final String ERROR_READER_THREAD_NAME = "AStyle Formatter Errors";
+
+    public static final long POOL_HEALTH_CHECK_INTERVAL = 10000;
+    public static final long POOL_IDLE_TIMEOUT = 300000;
+    public static final int STREAM_BUFFER_SIZE = 8192;
+    public static final long PUMP_THREAD_STACK_SIZE = 128 * 1024;
+    public static final int MAX_LINE_LENGTH = 4096;
+    public static final int MAX_CAPTURED_OUTPUT_LENGTH = 64 * 1024;
+    public static final int OUTPUT_HEAD_LINES = 20;
+    public static final int OUTPUT_TAIL_LINES = 20;
+    public static final String OMITTED_LINES_NOTE = "[... %d more lines]";
+
+    public static final long TIMEOUT_SCALING_BYTES = 1024 * 1024;
+    public static final int REPEATED_TIMEOUT_THRESHOLD = 3;
+    public static final long VERSION_TIMEOUT = 10000;
+
+    public static final String FORMATTED_FILE_PREFIX = "Formatted  ";
+    public static final String FORMATTED_FILE_OUTPUT = FORMATTED_FILE_PREFIX + "%s";
+    public static final String UNCHANGED_FILE_PREFIX = "Unchanged  ";
+
+
+    /**
+     * Private constructor, because this is just a collection of constants.
+     */
+    private AStyleProcessConstants()
+    {
+
+    }
+}
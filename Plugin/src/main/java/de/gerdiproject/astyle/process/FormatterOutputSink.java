@@ -0,0 +1,217 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+
+/**
+ * This consumer receives the output of formatting processes line by line.
+ * Instead of collecting all lines, it counts them and only keeps the first and the last
+ * lines. Every file that AStyle reports as formatted is passed on to a listener as soon as
+ * it is reported. Files that AStyle reports as unchanged are only passed on to a listener
+ * that tracks the progress, and are omitted from the output.
+ * The complete text is only kept if requested, and only up to a maximum
+ * number of characters, so that the memory that is used does not depend on the amount of output.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterOutputSink implements Consumer<String>
+{
+    private final Consumer<File> formattedFileListener;
+    private final Consumer<File> completedFileListener;
+    private final List<String> headLines;
+    private final Deque<String> tailLines;
+    private StringBuilder fullText;
+    private int lineCount;
+    private int formattedFileCount;
+
+
+    /**
+     * Constructor that creates an empty sink.
+     *
+     * @param isKeepingFullText if true, the complete output is kept if it is not too long
+     * @param formattedFileListener a listener that is notified about every formatted file, or null
+     */
+    public FormatterOutputSink(boolean isKeepingFullText, Consumer<File> formattedFileListener)
+    {
+        this(isKeepingFullText, formattedFileListener, null);
+    }
+
+
+    /**
+     * Constructor that creates an empty sink which also reports the progress
+     * of the formatting.
+     *
+     * @param isKeepingFullText if true, the complete output is kept if it is not too long
+     * @param formattedFileListener a listener that is notified about every formatted file, or null
+     * @param completedFileListener a listener that is notified about every formatted or unchanged file, or null
+     */
+    public FormatterOutputSink(boolean isKeepingFullText, Consumer<File> formattedFileListener, Consumer<File> completedFileListener)
+    {
+        this.formattedFileListener = formattedFileListener;
+        this.completedFileListener = completedFileListener;
+        this.headLines = new ArrayList<>(AStyleProcessConstants.OUTPUT_HEAD_LINES);
+        this.tailLines = new ArrayDeque<>(AStyleProcessConstants.OUTPUT_TAIL_LINES);
+        this.fullText = isKeepingFullText ? new StringBuilder() : null;
+        this.lineCount = 0;
+        this.formattedFileCount = 0;
+    }
+
+
+    @Override
+    public void accept(String line)
+    {
+        final File unchangedFile = parseReportedFile(line, AStyleProcessConstants.UNCHANGED_FILE_PREFIX);
+
+        // unchanged files only count towards the progress
+        if (unchangedFile != null) {
+            if (completedFileListener != null)
+                completedFileListener.accept(unchangedFile);
+
+            return;
+        }
+
+        final File formattedFile = parseFormattedFile(line);
+
+        synchronized (this) {
+            lineCount++;
+
+            if (formattedFile != null)
+                formattedFileCount++;
+
+            // stop keeping the complete text if it becomes too long
+            if (fullText != null) {
+                if (fullText.length() + line.length() < AStyleProcessConstants.MAX_CAPTURED_OUTPUT_LENGTH) {
+                    if (fullText.length() != 0)
+                        fullText.append('\n');
+
+                    fullText.append(line);
+                } else
+                    fullText = null;
+            }
+
+            if (headLines.size() < AStyleProcessConstants.OUTPUT_HEAD_LINES)
+                headLines.add(line);
+            else {
+                if (tailLines.size() == AStyleProcessConstants.OUTPUT_TAIL_LINES)
+                    tailLines.removeFirst();
+
+                tailLines.addLast(line);
+            }
+        }
+
+        if (formattedFile != null) {
+            if (formattedFileListener != null)
+                formattedFileListener.accept(formattedFile);
+
+            if (completedFileListener != null)
+                completedFileListener.accept(formattedFile);
+        }
+    }
+
+
+    /**
+     * Returns the number of lines that were received.
+     *
+     * @return the number of lines that were received
+     */
+    public synchronized int getLineCount()
+    {
+        return lineCount;
+    }
+
+
+    /**
+     * Returns the number of files that were reported as formatted.
+     *
+     * @return the number of files that were reported as formatted
+     */
+    public synchronized int getFormattedFileCount()
+    {
+        return formattedFileCount;
+    }
+
+
+    /**
+     * Returns the complete output if it was kept, or else the first and the last
+     * lines of the output, separated by a note about the omitted lines.
+     *
+     * @return a bounded representation of the output
+     */
+    @Override
+    public synchronized String toString()
+    {
+        if (fullText != null)
+            return fullText.toString();
+
+        final StringBuilder text = new StringBuilder(String.join("\n", headLines));
+        final int omittedLineCount = lineCount - headLines.size() - tailLines.size();
+
+        if (omittedLineCount > 0)
+            text.append('\n').append(String.format(AStyleProcessConstants.OMITTED_LINES_NOTE, omittedLineCount));
+
+        for (String tailLine : tailLines)
+            text.append('\n').append(tailLine);
+
+        return text.toString();
+    }
+
+
+    /**
+     * Retrieves a file that was changed by AStyle from a line of the output of
+     * a formatting process, which lists each changed file in a separate line.
+     *
+     * @param line a line of the output of a formatting process
+     *
+     * @return the file that was changed by the formatter, or null if the line does not list a file
+     */
+    public static File parseFormattedFile(String line)
+    {
+        return parseReportedFile(line, AStyleProcessConstants.FORMATTED_FILE_PREFIX);
+    }
+
+
+    /**
+     * Retrieves a file from a line of the output of a formatting process, if the
+     * line starts with a specified prefix.
+     *
+     * @param line a line of the output of a formatting process
+     * @param prefix the prefix that precedes the file path
+     *
+     * @return the file that is reported by the line, or null if the line does not list a file
+     */
+    private static File parseReportedFile(String line, String prefix)
+    {
+        if (!line.startsWith(prefix))
+            return null;
+
+        // undo the quoting and escaping of the file arguments
+        String filePath = line.substring(prefix.length()).trim();
+
+        if (filePath.length() > 1 && filePath.charAt(0) == '"' && filePath.charAt(filePath.length() - 1) == '"')
+            filePath = filePath.substring(1, filePath.length() - 1);
+
+        return new File(FormatterConfiguration.unescapeWhitespace(filePath));
+    }
+}
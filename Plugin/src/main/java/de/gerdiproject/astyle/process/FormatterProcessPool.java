@@ -0,0 +1,220 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.utils.FormattingUtils;
+
+/**
+ * This class keeps a number of {@linkplain FormatterWorker}s alive, in order to
+ * spare single file formatting requests the cost of starting a process.
+ * The number of workers is defined via the plugin preferences.
+ * A maintenance job periodically replaces crashed or outdated workers and shuts down
+ * all workers if the pool has not been used for a while.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterProcessPool
+{
+    private final BlockingQueue<FormatterWorker> idleWorkers;
+    private final Job maintenanceJob;
+    private volatile long lastAcquisitionTime;
+    private volatile boolean isShutDown;
+
+
+    /**
+     * Constructor that creates an empty pool. Workers are started lazily
+     * when the first worker is acquired.
+     */
+    public FormatterProcessPool()
+    {
+        this.idleWorkers = new LinkedBlockingQueue<>();
+        this.maintenanceJob = createMaintenanceJob();
+        this.lastAcquisitionTime = 0;
+        this.isShutDown = false;
+    }
+
+
+    /**
+     * Retrieves an idle worker that uses the current formatter preferences.
+     * If no such worker is available, a new one is started.
+     * Used workers are replaced in the background.
+     *
+     * @throws IOException if a new formatter process could not be started
+     *
+     * @return a formatter worker, or null if the pool is disabled or the
+     *          formatter paths are not configured
+     */
+    public FormatterWorker acquire() throws IOException
+    {
+        final ProcessBuilder processBuilder = FormattingUtils.createDefaultStreamFormattingProcess();
+
+        if (isShutDown || getPoolSize() <= 0 || processBuilder == null)
+            return null;
+
+        lastAcquisitionTime = System.currentTimeMillis();
+
+        // discard workers that crashed or use outdated preferences
+        FormatterWorker worker;
+
+        while ((worker = idleWorkers.poll()) != null) {
+            if (isUsable(worker, processBuilder.command()))
+                break;
+
+            worker.destroy();
+        }
+
+        // replace the acquired worker in the background
+        maintenanceJob.schedule();
+
+        return worker != null ? worker : new FormatterWorker(processBuilder);
+    }
+
+
+    /**
+     * Kills all idle workers and prevents new ones from being started.
+     */
+    public void shutdown()
+    {
+        isShutDown = true;
+        maintenanceJob.cancel();
+        destroyIdleWorkers();
+    }
+
+
+    /**
+     * Removes crashed and outdated workers, shuts down all workers if the pool
+     * was idle for too long, or starts new workers until the pool is full.
+     */
+    private void maintain()
+    {
+        final ProcessBuilder processBuilder = FormattingUtils.createDefaultStreamFormattingProcess();
+        final int poolSize = getPoolSize();
+
+        // shut down all workers if the pool was not used for a while
+        final boolean isIdle =
+            System.currentTimeMillis() - lastAcquisitionTime > AStyleProcessConstants.POOL_IDLE_TIMEOUT;
+
+        if (isShutDown || isIdle || poolSize <= 0 || processBuilder == null) {
+            destroyIdleWorkers();
+            return;
+        }
+
+        // health check: remove dead or outdated workers
+        final List<String> command = processBuilder.command();
+        idleWorkers.removeIf((FormatterWorker worker) -> {
+            if (isUsable(worker, command))
+                return false;
+
+            worker.destroy();
+            return true;
+        });
+
+        // shrink the pool if the preferences changed
+        while (idleWorkers.size() > poolSize) {
+            final FormatterWorker surplusWorker = idleWorkers.poll();
+
+            if (surplusWorker != null)
+                surplusWorker.destroy();
+        }
+
+        // restart missing workers
+        try {
+            while (idleWorkers.size() < poolSize && !isShutDown)
+                idleWorkers.add(new FormatterWorker(processBuilder));
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        // make sure workers are not added after the pool was shut down
+        if (isShutDown)
+            destroyIdleWorkers();
+        else
+            maintenanceJob.schedule(AStyleProcessConstants.POOL_HEALTH_CHECK_INTERVAL);
+    }
+
+
+    /**
+     * Checks if a worker is alive and uses the specified formatter command line.
+     *
+     * @param worker the worker that is to be checked
+     * @param command the command line of the current preferences
+     *
+     * @return true if the worker can be used for formatting
+     */
+    private static boolean isUsable(FormatterWorker worker, List<String> command)
+    {
+        return worker.isAlive() && worker.getCommand().equals(command);
+    }
+
+
+    /**
+     * Kills all workers that are currently waiting for input.
+     */
+    private void destroyIdleWorkers()
+    {
+        FormatterWorker worker;
+
+        while ((worker = idleWorkers.poll()) != null)
+            worker.destroy();
+    }
+
+
+    /**
+     * Returns the number of workers that are to be kept alive.
+     *
+     * @return the preferred pool size
+     */
+    private static int getPoolSize()
+    {
+        return FormatterConfiguration.getCurrent().getPoolSize();
+    }
+
+
+    /**
+     * Creates a system job that maintains the pool.
+     *
+     * @return a system job that maintains the pool
+     */
+    private Job createMaintenanceJob()
+    {
+        final Job job = new Job(AStyleProcessConstants.POOL_MAINTENANCE_JOB_NAME)
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                maintain();
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        job.setPriority(Job.DECORATE);
+
+        return job;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This class counts how often formatters had to be terminated, because they
+ * did not finish in time. Formatters are identified by their options file, or
+ * by their executable if no options file is passed to them, such as harvester
+ * formatting scripts.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterTimeoutRecorder
+{
+    private final Map<String, Integer> timeoutCounts;
+
+
+    /**
+     * Constructor that creates a recorder without any recorded timeouts.
+     */
+    public FormatterTimeoutRecorder()
+    {
+        this.timeoutCounts = new HashMap<>();
+    }
+
+
+    /**
+     * Records a timeout of a formatter process.
+     *
+     * @param command the command line of the process that timed out
+     *
+     * @return the number of timeouts of the formatter, including this one
+     */
+    public synchronized int recordTimeout(List<String> command)
+    {
+        return timeoutCounts.merge(getFormatterName(command), 1, Integer::sum);
+    }
+
+
+    /**
+     * Checks if a formatter timed out so often that it is likely to be misconfigured.
+     *
+     * @param timeoutCount the number of timeouts of the formatter
+     *
+     * @return true if the formatter is a repeat offender
+     */
+    public static boolean isRepeatOffender(int timeoutCount)
+    {
+        return timeoutCount >= AStyleProcessConstants.REPEATED_TIMEOUT_THRESHOLD;
+    }
+
+
+    /**
+     * Retrieves the name that identifies the formatter of a command line.
+     *
+     * @param command the command line of a formatter process
+     *
+     * @return the options parameter of the command line, or the executable
+     *          if no options are passed
+     */
+    public static String getFormatterName(List<String> command)
+    {
+        final String optionsPrefix = AStyleHandlerConstants.OPTIONS_CMD_PARAM.substring(
+                                         0, AStyleHandlerConstants.OPTIONS_CMD_PARAM.indexOf('%'));
+
+        for (String argument : command) {
+            if (argument.startsWith(optionsPrefix))
+                return argument.substring(optionsPrefix.length());
+        }
+
+        return command.isEmpty() ? "" : command.get(0);
+    }
+}
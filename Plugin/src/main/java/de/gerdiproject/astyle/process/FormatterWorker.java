@@ -0,0 +1,171 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import de.gerdiproject.astyle.utils.ProcessUtils;
+
+/**
+ * This class represents an AStyle process that was started in advance and
+ * waits for source code on its standard input. The formatted source code is
+ * written to its standard output.
+ * Since AStyle terminates after formatting its input, each worker can only
+ * serve a single formatting request.
+ *
+ * @author GeRDI Project
+ */
+public class FormatterWorker
+{
+    private final Process process;
+    private final List<String> command;
+    private String errorOutput;
+
+
+    /**
+     * Constructor that starts the formatter process.
+     *
+     * @param processBuilder a builder of an AStyle process that reads from stdin
+     *
+     * @throws IOException if the process could not be started
+     */
+    public FormatterWorker(ProcessBuilder processBuilder) throws IOException
+    {
+        this.command = processBuilder.command();
+        this.process = processBuilder.start();
+        this.errorOutput = "";
+    }
+
+
+    /**
+     * Streams source code through the formatter process and returns the formatted source code.
+     * The process is destroyed if the progress monitor is canceled or the timeout expires.
+     *
+     * @param input the source code that is to be formatted
+     * @param timeout the milliseconds after which the process is destroyed, or 0 if it may run forever
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws IOException if the process could not be read from or written to
+     * @throws InterruptedException if the thread was interrupted while waiting for the process
+     * @throws TimeoutException if the process did not finish in time
+     *
+     * @return the formatted source code
+     */
+    public byte[] format(final byte[] input, long timeout, IProgressMonitor monitor) throws IOException, InterruptedException, TimeoutException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(input.length);
+        final IOException[] streamException = new IOException[1];
+
+        // feed the input and drain both outputs concurrently, in order to not block on full pipes
+        final Thread feeder = StreamPump.startThread(() -> {
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(input);
+            } catch (IOException e) {
+                streamException[0] = e;
+            }
+        }, AStyleProcessConstants.FEEDER_THREAD_NAME);
+
+        final Thread reader = StreamPump.startThread(() -> {
+            try (InputStream stdout = process.getInputStream()) {
+                final byte[] buffer = new byte[AStyleProcessConstants.STREAM_BUFFER_SIZE];
+                int readBytes;
+
+                while ((readBytes = stdout.read(buffer)) != -1)
+                    output.write(buffer, 0, readBytes);
+            } catch (IOException e) {
+                streamException[0] = e;
+            }
+        }, AStyleProcessConstants.READER_THREAD_NAME);
+
+        final FormatterOutputSink errorSink = new FormatterOutputSink(true, null);
+        final StreamPump errorPump = StreamPump.start(
+                                         process.getErrorStream(),
+                                         errorSink,
+                                         AStyleProcessConstants.ERROR_READER_THREAD_NAME);
+
+        ProcessUtils.waitFor(process, timeout, monitor);
+        feeder.join();
+        reader.join();
+        errorPump.join();
+        errorOutput = errorSink.toString();
+
+        if (streamException[0] != null)
+            throw streamException[0];
+
+        return output.toByteArray();
+    }
+
+
+    /**
+     * Returns the exit value of the process after it was used for formatting.
+     *
+     * @return the exit value of the process
+     */
+    public int getReturnCode()
+    {
+        return process.exitValue();
+    }
+
+
+    /**
+     * Returns the error output of the process after it was used for formatting.
+     *
+     * @return the error output of the process
+     */
+    public String getErrorOutput()
+    {
+        return errorOutput;
+    }
+
+
+    /**
+     * Returns the command line that was used to start the process.
+     *
+     * @return the command line of the process
+     */
+    public List<String> getCommand()
+    {
+        return command;
+    }
+
+
+    /**
+     * Checks if the process is still waiting for input.
+     *
+     * @return true if the process has not terminated yet
+     */
+    public boolean isAlive()
+    {
+        return process.isAlive();
+    }
+
+
+    /**
+     * Kills the process.
+     */
+    public void destroy()
+    {
+        process.destroyForcibly();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * This class drains an output stream of a process in a separate thread, so that the
+ * process never blocks on a full pipe buffer. The stream is split into lines that are
+ * passed to a consumer. Overly long lines are truncated, so the memory that is used
+ * by the pump does not depend on the amount of output.
+ * If the Java runtime supports virtual threads, they are preferred over platform threads.
+ *
+ * @author GeRDI Project
+ */
+public class StreamPump implements Runnable
+{
+    private static final Method UNSTARTED_VIRTUAL_THREAD = findVirtualThreadFactory();
+    private static final Object VIRTUAL_THREAD_BUILDER = createVirtualThreadBuilder();
+
+    private final InputStream stream;
+    private final Consumer<String> lineConsumer;
+    private final Thread thread;
+    private volatile IOException streamException;
+
+
+    /**
+     * Constructor that prepares the thread that pumps the stream.
+     *
+     * @param stream the stream that is to be drained
+     * @param lineConsumer a consumer that receives every line of the stream
+     * @param threadName the name of the pumping thread
+     */
+    private StreamPump(InputStream stream, Consumer<String> lineConsumer, String threadName)
+    {
+        this.stream = stream;
+        this.lineConsumer = lineConsumer;
+        this.thread = createThread(this, threadName);
+    }
+
+
+    /**
+     * Starts draining a stream in a separate thread.
+     *
+     * @param stream the stream that is to be drained
+     * @param lineConsumer a consumer that receives every line of the stream
+     * @param threadName the name of the pumping thread
+     *
+     * @return the started pump
+     */
+    public static StreamPump start(InputStream stream, Consumer<String> lineConsumer, String threadName)
+    {
+        final StreamPump pump = new StreamPump(stream, lineConsumer, threadName);
+        pump.thread.start();
+        return pump;
+    }
+
+
+    /**
+     * Starts a thread that executes a task, preferring a virtual thread if the
+     * Java runtime supports them.
+     *
+     * @param task the task that is to be executed
+     * @param threadName the name of the thread
+     *
+     * @return the started thread
+     */
+    public static Thread startThread(Runnable task, String threadName)
+    {
+        final Thread thread = createThread(task, threadName);
+        thread.start();
+        return thread;
+    }
+
+
+    @Override
+    public void run()
+    {
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            final char[] buffer = new char[AStyleProcessConstants.STREAM_BUFFER_SIZE];
+            final StringBuilder line = new StringBuilder();
+            boolean isPreviousCarriageReturn = false;
+            int readChars;
+
+            while ((readChars = reader.read(buffer)) != -1) {
+                for (int i = 0; i < readChars; i++) {
+                    final char c = buffer[i];
+
+                    // treat \r\n as a single line break
+                    if (c == '\n' && isPreviousCarriageReturn) {
+                        isPreviousCarriageReturn = false;
+                        continue;
+                    }
+
+                    isPreviousCarriageReturn = c == '\r';
+
+                    if (c == '\n' || c == '\r') {
+                        lineConsumer.accept(line.toString());
+                        line.setLength(0);
+
+                    } else if (line.length() < AStyleProcessConstants.MAX_LINE_LENGTH)
+                        line.append(c);
+                }
+            }
+
+            if (line.length() != 0)
+                lineConsumer.accept(line.toString());
+
+        } catch (IOException e) {
+            streamException = e;
+        }
+    }
+
+
+    /**
+     * Waits until the stream is drained completely, which is the case after
+     * the process terminated.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws IOException if the stream could not be read
+     */
+    public void join() throws InterruptedException, IOException
+    {
+        thread.join();
+
+        if (streamException != null)
+            throw streamException;
+    }
+
+
+    /**
+     * Creates an unstarted thread, preferring a virtual thread if the
+     * Java runtime supports them.
+     *
+     * @param task the task that is to be executed by the thread
+     * @param threadName the name of the thread
+     *
+     * @return an unstarted thread
+     */
+    private static Thread createThread(Runnable task, String threadName)
+    {
+        if (VIRTUAL_THREAD_BUILDER != null) {
+            try {
+                final Thread virtualThread = (Thread) UNSTARTED_VIRTUAL_THREAD.invoke(VIRTUAL_THREAD_BUILDER, task);
+                virtualThread.setName(threadName);
+                return virtualThread;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // fall back to a platform thread
+            }
+        }
+
+        // pumping threads hardly need any stack
+        final Thread platformThread = new Thread(null, task, threadName, AStyleProcessConstants.PUMP_THREAD_STACK_SIZE);
+        platformThread.setDaemon(true);
+        return platformThread;
+    }
+
+
+    /**
+     * Looks up the method that creates unstarted virtual threads, which is
+     * only available since Java 21.
+     *
+     * @return the method Thread.Builder.unstarted(Runnable), or null if it does not exist
+     */
+    private static Method findVirtualThreadFactory()
+    {
+        try {
+            return Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Creates a builder of virtual threads via Thread.ofVirtual(),
+     * which is only available since Java 21.
+     *
+     * @return a virtual thread builder, or null if virtual threads are not supported
+     */
+    private static Object createVirtualThreadBuilder()
+    {
+        if (UNSTARTED_VIRTUAL_THREAD == null)
+            return null;
+
+        try {
+            return Thread.class.getMethod("ofVirtual").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -16,6 +16,15 @@
  */
 package de.gerdiproject.astyle.utils;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IProject;
@@ -25,11 +34,13 @@ import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IViewSite;
+import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.handlers.HandlerUtil;
 import org.eclipse.ui.handlers.IHandlerService;
+import org.eclipse.ui.texteditor.ITextEditor;
 
 import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
 
@@ -94,41 +105,125 @@ public class AStyleEclipseUtils
 
 
     /**
-     * Retrieves the file path of the file that is selected in the Project
-     * Explorer. If the Editor is focussed, retrieves the path of the edited
-     * file.
+     * Retrieves the files, folders and projects that are selected in the Project
+     * Explorer. If the Editor is focussed, retrieves the edited file.
+     * Selected resources that lie within other selected folders are omitted,
+     * because they are formatted along with the folders anyway.
+     *
+     * @param event the event that triggered the command
      *
-     * @return the file path, or null if there is no active editor and nothing
-     *         selected in the project explorer
+     * @return the selected files and folders, or an empty list if there is no active editor
+     *         and nothing selected in the project explorer
      */
-    public static String getFilePathOfSelectedFile(ExecutionEvent event)
+    public static List<File> getSelectedFiles(ExecutionEvent event)
     {
         // check which window is focussed
         boolean isExplorerFocussed =
             HandlerUtil.getActivePartId(event).endsWith(AStyleHandlerConstants.EXPLORER_SUFFIX);
         IWorkbenchWindow window = getActiveWorkbenchWindow(event);
 
-        // try to get the file that is focussed in the Explorer
+        // try to get the files that are selected in the Explorer
         if (isExplorerFocussed) {
+            final List<File> selectedFiles = new LinkedList<>();
+
             // get selection
             final IStructuredSelection selection =
                 (IStructuredSelection) window.getSelectionService().getSelection();
 
-            if (!selection.isEmpty()) {
-                IAdaptable adaptable = (IAdaptable) selection.getFirstElement();
+            for (Object selectedElement : selection.toList()) {
+                final IResource resource = selectedElement instanceof IAdaptable
+                                           ? ((IAdaptable) selectedElement).getAdapter(IResource.class)
+                                           : null;
 
-                if (adaptable != null)
-                    return adaptable.getAdapter(IResource.class).getLocation().toOSString();
+                if (resource != null && resource.getLocation() != null)
+                    selectedFiles.add(resource.getLocation().toFile());
             }
+
+            if (!selectedFiles.isEmpty())
+                return removeNestedFiles(selectedFiles);
         }
 
         final IEditorPart activeEditor =
             window.getActivePage().getActiveEditor();
 
-        if (activeEditor != null)
-            return activeEditor.getEditorInput().getAdapter(IResource.class).getLocation().toOSString();
-        else
+        if (activeEditor != null) {
+            final IResource editedResource = activeEditor.getEditorInput().getAdapter(IResource.class);
+
+            if (editedResource != null && editedResource.getLocation() != null)
+                return Collections.singletonList(editedResource.getLocation().toFile());
+        }
+
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * Removes duplicates and files that lie within other folders of a list.
+     *
+     * @param files a list of files and folders
+     *
+     * @return a list of files and folders that do not overlap
+     */
+    public static List<File> removeNestedFiles(List<File> files)
+    {
+        final Set<Path> selectedPaths = new LinkedHashSet<>();
+
+        for (File file : files)
+            selectedPaths.add(file.toPath());
+
+        final List<File> outerFiles = new LinkedList<>();
+
+        for (Path path : selectedPaths) {
+            Path parent = path.getParent();
+
+            // skip the file if any of its parent folders is selected
+            while (parent != null && !selectedPaths.contains(parent))
+                parent = parent.getParent();
+
+            if (parent == null)
+                outerFiles.add(path.toFile());
+        }
+
+        return outerFiles;
+    }
+
+
+    /**
+     * Retrieves the text editor that is currently active.
+     *
+     * @return the active text editor, or null if the active editor is no text editor
+     */
+    public static ITextEditor getActiveTextEditor()
+    {
+        final IWorkbenchWindow window = getActiveWorkbenchWindow(null);
+
+        if (window == null || window.getActivePage() == null)
             return null;
+
+        final IEditorPart activeEditor = window.getActivePage().getActiveEditor();
+
+        return activeEditor != null ? activeEditor.getAdapter(ITextEditor.class) : null;
+    }
+
+
+    /**
+     * Retrieves all editors of all workbench windows that have unsaved changes.
+     *
+     * @return a list of editors with unsaved changes
+     */
+    public static List<IEditorPart> getDirtyEditors()
+    {
+        final List<IEditorPart> dirtyEditors = new LinkedList<>();
+
+        if (!PlatformUI.isWorkbenchRunning())
+            return dirtyEditors;
+
+        for (IWorkbenchWindow window : PlatformUI.getWorkbench().getWorkbenchWindows()) {
+            for (IWorkbenchPage page : window.getPages())
+                dirtyEditors.addAll(Arrays.asList(page.getDirtyEditors()));
+        }
+
+        return dirtyEditors;
     }
 
 
@@ -0,0 +1,133 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.nio.charset.Charset;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.ui.texteditor.ITextEditor;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This helper class offers static methods for formatting the unsaved contents of text editors.
+ *
+ * @author GeRDI Project
+ */
+public class EditorFormattingUtils
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private EditorFormattingUtils()
+    {
+
+    }
+
+
+    /**
+     * Formats the document of a text editor in memory, so that the formatted
+     * source code is written to disk by the next save.
+     * Only the changed region of the document is replaced, in order to preserve
+     * the caret position and to create a single undo step.
+     *
+     * @param editor the editor of which the document is to be formatted
+     *
+     * @return true if the document was formatted
+     */
+    public static boolean formatDocument(ITextEditor editor)
+    {
+        final IFile file = editor.getEditorInput().getAdapter(IFile.class);
+        final IPath location = file != null ? file.getLocation() : null;
+
+        if (location == null || editor.getDocumentProvider() == null)
+            return false;
+
+        // never touch files that are excluded via the file patterns
+        if (!FormattingUtils.isIncluded(location.toFile(), file.getProject()))
+            return false;
+
+        final IDocument document = editor.getDocumentProvider().getDocument(editor.getEditorInput());
+
+        if (document == null)
+            return false;
+
+        // execute Eclipse Java formatting
+        if (file.getName().endsWith(AStyleHandlerConstants.JAVA_FILE_EXTENSION))
+            AStyleEclipseUtils.executeCommand(AStyleHandlerConstants.ECLIPSE_FORMAT_JAVA_COMMAND);
+
+        try {
+            final Charset charset = Charset.forName(file.getCharset());
+            final String unformattedText = document.get();
+            final byte[] formattedContent = FormattingUtils.formatInMemory(
+                                                file.getProject(),
+                                                unformattedText.getBytes(charset),
+                                                new TimeoutProgressMonitor(AStyleHandlerConstants.IN_MEMORY_FORMATTING_TIMEOUT));
+
+            if (formattedContent == null)
+                return false;
+
+            replaceChangedRegion(document, unformattedText, new String(formattedContent, charset));
+            return true;
+
+        } catch (CoreException | IllegalArgumentException | BadLocationException | OperationCanceledException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Replaces the region of a document that differs between its old and new text.
+     *
+     * @param document the document that is to be changed
+     * @param oldText the current text of the document
+     * @param newText the text that the document should have
+     *
+     * @throws BadLocationException if the document was changed concurrently
+     */
+    private static void replaceChangedRegion(IDocument document, String oldText, String newText) throws BadLocationException
+    {
+        final int maxLength = Math.min(oldText.length(), newText.length());
+
+        // skip the common prefix
+        int prefixLength = 0;
+
+        while (prefixLength < maxLength && oldText.charAt(prefixLength) == newText.charAt(prefixLength))
+            prefixLength++;
+
+        // nothing changed
+        if (prefixLength == oldText.length() && prefixLength == newText.length())
+            return;
+
+        // skip the common suffix, without overlapping the prefix
+        int suffixLength = 0;
+
+        while (suffixLength < maxLength - prefixLength
+               && oldText.charAt(oldText.length() - suffixLength - 1) == newText.charAt(newText.length() - suffixLength - 1))
+            suffixLength++;
+
+        document.replace(
+            prefixLength,
+            oldText.length() - prefixLength - suffixLength,
+            newText.substring(prefixLength, newText.length() - suffixLength));
+    }
+}
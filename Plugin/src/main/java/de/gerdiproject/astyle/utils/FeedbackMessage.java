@@ -16,13 +16,17 @@
  */
 package de.gerdiproject.astyle.utils;
 
+import java.util.Collection;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
 
 import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
-import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
 import de.gerdiproject.astyle.preferences.FeedbackStyle;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
 
 /**
  * This class represents a feedback message of AStyle formatting.
@@ -33,6 +37,7 @@ public class FeedbackMessage
 {
     private final String message;
     private final FeedbackStyle displayStyle;
+    private final boolean isError;
 
 
     /**
@@ -59,6 +64,33 @@ public class FeedbackMessage
     }
 
 
+    /**
+     * Combines multiple feedback messages into one. If any of the messages
+     * is an error, the combined message is an error as well.
+     * @param messages the messages that are to be combined
+     *
+     * @return a FeedbackMessage that contains the texts of all messages
+     */
+    public static FeedbackMessage Combine(Collection<FeedbackMessage> messages)
+    {
+        if (messages.size() == 1)
+            return messages.iterator().next();
+
+        final StringBuilder combinedText = new StringBuilder();
+        boolean hasError = false;
+
+        for (FeedbackMessage message : messages) {
+            if (combinedText.length() != 0)
+                combinedText.append(System.lineSeparator()).append(System.lineSeparator());
+
+            combinedText.append(message.message);
+            hasError |= message.isError;
+        }
+
+        return new FeedbackMessage(combinedText.toString(), hasError);
+    }
+
+
     /**
      * Private constructor that is invoked via static creators.
      * @param message the message that is to be displayed
@@ -67,14 +99,35 @@ public class FeedbackMessage
     private FeedbackMessage(String message, boolean isError)
     {
         this.message = message;
+        this.isError = isError;
 
         // errors are always displayed in Textboxes
         if (isError)
             this.displayStyle = FeedbackStyle.TextBox;
         else
-            this.displayStyle = FeedbackStyle.valueOf(
-                                    AStylePreferenceConstants.STORE.getString(
-                                        AStylePreferenceConstants.FEEDBACK_STYLE_OPTION));
+            this.displayStyle = FormatterConfiguration.getCurrent().getFeedbackStyle();
+    }
+
+
+    /**
+     * Returns the text of the message.
+     *
+     * @return the text of the message
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+
+    /**
+     * Checks if this is an error message.
+     *
+     * @return true if this is an error message
+     */
+    public boolean isError()
+    {
+        return isError;
     }
 
 
@@ -103,4 +156,23 @@ public class FeedbackMessage
                 // do nothing
         }
     }
+
+
+    /**
+     * Prints the message asynchronously in the UI thread. This is required
+     * if the message was created by a job, because dialogs and the status
+     * bar must not be accessed from a job thread.
+     *
+     * @param event the event that triggered the message, or null
+     */
+    public void displayAsync(final ExecutionEvent event)
+    {
+        if (!PlatformUI.isWorkbenchRunning() || PlatformUI.getWorkbench().isClosing())
+            return;
+
+        final Display display = PlatformUI.getWorkbench().getDisplay();
+
+        if (!display.isDisposed())
+            display.asyncExec(() -> display(event));
+    }
 }
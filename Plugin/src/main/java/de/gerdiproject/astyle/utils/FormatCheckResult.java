@@ -0,0 +1,177 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This class represents the outcome of checking if files are formatted.
+ *
+ * @author GeRDI Project
+ */
+public class FormatCheckResult
+{
+    private final SortedMap<File, Integer> unformattedFiles;
+    private final int checkedFileCount;
+    private final int knownFileCount;
+    private final int formatterFileCount;
+    private final boolean isShortCircuited;
+    private final FeedbackMessage errorFeedback;
+
+
+    /**
+     * Constructor that requires all statistics of the check.
+     *
+     * @param unformattedFiles files that are not formatted, mapped to the first line that differs
+     * @param checkedFileCount the number of files that were checked
+     * @param knownFileCount the number of checked files that were known to be formatted
+     *          or of which the formatted content was cached
+     * @param formatterFileCount the number of checked files that were passed to the formatter
+     * @param isShortCircuited true if the check stopped after the maximum number of unformatted files
+     * @param errorFeedback an error message if the check failed, or null
+     */
+    public FormatCheckResult(Map<File, Integer> unformattedFiles, int checkedFileCount, int knownFileCount, int formatterFileCount, boolean isShortCircuited, FeedbackMessage errorFeedback)
+    {
+        this.unformattedFiles = Collections.unmodifiableSortedMap(new TreeMap<>(unformattedFiles));
+        this.checkedFileCount = checkedFileCount;
+        this.knownFileCount = knownFileCount;
+        this.formatterFileCount = formatterFileCount;
+        this.isShortCircuited = isShortCircuited;
+        this.errorFeedback = errorFeedback;
+    }
+
+
+    /**
+     * Creates the result of a check that failed before any file was checked.
+     *
+     * @param errorFeedback the error message of the check
+     *
+     * @return a result without any checked files
+     */
+    public static FormatCheckResult CreateError(FeedbackMessage errorFeedback)
+    {
+        return new FormatCheckResult(Collections.emptyMap(), 0, 0, 0, false, errorFeedback);
+    }
+
+
+    /**
+     * Returns the files that are not formatted, sorted by their paths.
+     *
+     * @return an unmodifiable map of unformatted files to the first line that differs
+     */
+    public SortedMap<File, Integer> getUnformattedFiles()
+    {
+        return unformattedFiles;
+    }
+
+
+    /**
+     * Returns the number of files that were checked.
+     *
+     * @return the number of files that were checked
+     */
+    public int getCheckedFileCount()
+    {
+        return checkedFileCount;
+    }
+
+
+    /**
+     * Returns the number of checked files that did not need to be passed to the formatter.
+     *
+     * @return the number of files that were known to be formatted or of which
+     *          the formatted content was cached
+     */
+    public int getKnownFileCount()
+    {
+        return knownFileCount;
+    }
+
+
+    /**
+     * Returns the number of checked files that were passed to the formatter.
+     *
+     * @return the number of checked files that were passed to the formatter
+     */
+    public int getFormatterFileCount()
+    {
+        return formatterFileCount;
+    }
+
+
+    /**
+     * Returns true if the check stopped after the maximum number of unformatted
+     * files, so that some files were not checked.
+     *
+     * @return true if the check stopped early
+     */
+    public boolean isShortCircuited()
+    {
+        return isShortCircuited;
+    }
+
+
+    /**
+     * Returns the error message of a failed check.
+     *
+     * @return the error message, or null if the check was successful
+     */
+    public FeedbackMessage getErrorFeedback()
+    {
+        return errorFeedback;
+    }
+
+
+    /**
+     * Returns true if the check succeeded and found no unformatted files.
+     *
+     * @return true if all checked files are formatted
+     */
+    public boolean isFormatted()
+    {
+        return errorFeedback == null && unformattedFiles.isEmpty();
+    }
+
+
+    /**
+     * Lists the unformatted files along with the first line that differs.
+     *
+     * @return one line per unformatted file
+     */
+    public String createFileList()
+    {
+        final StringBuilder fileList = new StringBuilder();
+
+        for (Map.Entry<File, Integer> unformattedFile : unformattedFiles.entrySet()) {
+            if (fileList.length() != 0)
+                fileList.append(System.lineSeparator());
+
+            fileList.append(String.format(
+                                AStyleHandlerConstants.UNFORMATTED_FILE_LINE,
+                                unformattedFile.getKey().getPath(),
+                                unformattedFile.getValue()));
+        }
+
+        return fileList.toString();
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.cache.SharedFormatCache;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.FormatterWorker;
+
+/**
+ * This helper class offers static methods for checking if files are formatted,
+ * without changing them. Each file is streamed through a formatter process and the
+ * formatted content is compared to the current content in memory. Files that are
+ * known to be formatted, or of which the formatted content is cached, are not passed
+ * to the formatter at all.
+ *
+ * @author GeRDI Project
+ */
+public class FormatCheckUtils
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private FormatCheckUtils()
+    {
+
+    }
+
+
+    /**
+     * Checks concurrently if files are formatted, using as many formatter processes
+     * as are defined by the configuration. The check stops early after a maximum
+     * number of unformatted files was found. Files that turn out to be formatted are
+     * remembered in the cache, so that future checks and formatting runs skip them.
+     *
+     * @param files the files that are to be checked
+     * @param maxUnformattedFiles the number of unformatted files after which the check stops,
+     *          or 0 if all files are to be checked
+     * @param errorPrefix a short error message that appears if the check fails
+     * @param configuration the configuration that defines the formatter and the parallelism
+     * @param cache a cache of formatted file contents, or null
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the check
+     *
+     * @return the result of the check
+     */
+    public static FormatCheckResult checkFiles(Collection<File> files, int maxUnformattedFiles, String errorPrefix, FormatterConfiguration configuration, FormattedFileCache cache, IProgressMonitor monitor)
+    {
+        // abort if any path is missing
+        if (!configuration.isFormatterDefined())
+            return FormatCheckResult.CreateError(FeedbackMessage.CreateError(
+                                                     String.format(AStyleHandlerConstants.ERROR_NO_PATH, errorPrefix)));
+
+        if (files.isEmpty())
+            return new FormatCheckResult(Collections.emptyMap(), 0, 0, 0, false, null);
+
+        final SubMonitor progress = SubMonitor.convert(monitor, files.size());
+        final String fingerprint = cache != null ? cache.getFingerprint(null, configuration) : null;
+        final SharedFormatCache sharedCache = fingerprint != null ? configuration.getSharedFormatCache() : null;
+
+        final Map<File, Integer> unformattedFiles = new ConcurrentHashMap<>();
+        final AtomicInteger checkedFileCount = new AtomicInteger();
+        final AtomicInteger formatterFileCount = new AtomicInteger();
+        final AtomicBoolean isShortCircuited = new AtomicBoolean();
+
+        final int threadCount = Math.min(configuration.getParallelProcessCount(), files.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            final List<Future<Void>> futureResults = new ArrayList<>(files.size());
+
+            for (File file : files) {
+                futureResults.add(executor.submit(() -> {
+                    // files that are still queued are skipped after enough unformatted files were found
+                    if (isShortCircuited.get())
+                        return null;
+
+                    final CheckedFile checkedFile =
+                        checkFile(file, errorPrefix, configuration, cache, fingerprint, sharedCache, monitor);
+
+                    checkedFileCount.incrementAndGet();
+
+                    if (checkedFile.isFormatterUsed)
+                        formatterFileCount.incrementAndGet();
+
+                    if (checkedFile.firstUnformattedLine != 0) {
+                        unformattedFiles.put(file, checkedFile.firstUnformattedLine);
+
+                        if (maxUnformattedFiles > 0 && unformattedFiles.size() >= maxUnformattedFiles)
+                            isShortCircuited.set(true);
+                    }
+
+                    synchronized (progress) {
+                        progress.subTask(file.getName());
+                        progress.worked(1);
+                    }
+
+                    return null;
+                }));
+            }
+
+            // wait for all checks to finish
+            for (Future<Void> futureResult : futureResults)
+                futureResult.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CheckException)
+                return FormatCheckResult.CreateError(((CheckException) e.getCause()).getFeedback());
+
+            if (e.getCause() instanceof OperationCanceledException)
+                throw (OperationCanceledException) e.getCause();
+
+            e.printStackTrace();
+            return FormatCheckResult.CreateError(FeedbackMessage.CreateError(
+                                                     String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix)));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FormatCheckResult.CreateError(FeedbackMessage.CreateError(
+                                                     String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix)));
+
+        } finally {
+            // interrupting the threads kills processes that are still running after an error
+            executor.shutdownNow();
+        }
+
+        return new FormatCheckResult(
+                   unformattedFiles,
+                   checkedFileCount.get(),
+                   checkedFileCount.get() - formatterFileCount.get(),
+                   formatterFileCount.get(),
+                   isShortCircuited.get(),
+                   null);
+    }
+
+
+    /**
+     * Replaces the unformatted file markers of a resource and its members by markers
+     * of the unformatted files of a check. The markers are changed in a single workspace
+     * operation, so that only one resource change event is sent.
+     *
+     * @param checkedResource the resource of which the files were checked
+     * @param result the result of the check
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws CoreException if the markers could not be changed
+     */
+    public static void updateMarkers(IResource checkedResource, FormatCheckResult result, IProgressMonitor monitor) throws CoreException
+    {
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        final IWorkspaceRoot workspaceRoot = workspace.getRoot();
+
+        final IWorkspaceRunnable markerUpdate = (IProgressMonitor updateMonitor) -> {
+            checkedResource.deleteMarkers(AStyleHandlerConstants.UNFORMATTED_MARKER, true, IResource.DEPTH_INFINITE);
+
+            for (Map.Entry<File, Integer> unformattedFile : result.getUnformattedFiles().entrySet()) {
+                for (IFile workspaceFile : workspaceRoot.findFilesForLocationURI(unformattedFile.getKey().toURI())) {
+                    final IMarker marker = workspaceFile.createMarker(AStyleHandlerConstants.UNFORMATTED_MARKER);
+                    marker.setAttributes(
+                        new String[] {IMarker.SEVERITY, IMarker.MESSAGE, IMarker.LINE_NUMBER},
+                        new Object[] {IMarker.SEVERITY_WARNING, AStyleHandlerConstants.UNFORMATTED_MARKER_MESSAGE, unformattedFile.getValue()});
+                }
+            }
+        };
+
+        workspace.run(markerUpdate, checkedResource, IWorkspace.AVOID_UPDATE, monitor);
+    }
+
+
+    /**
+     * Deletes the unformatted file markers of folders and files that were just formatted,
+     * including the markers of all members of the folders. The markers are deleted in a
+     * single workspace operation, so that only one resource change event is sent.
+     *
+     * @param formattedTargets the folders and files that were formatted
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws CoreException if the markers could not be deleted
+     */
+    public static void deleteMarkers(Collection<File> formattedTargets, IProgressMonitor monitor) throws CoreException
+    {
+        if (formattedTargets.isEmpty())
+            return;
+
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        final IWorkspaceRoot workspaceRoot = workspace.getRoot();
+
+        final IWorkspaceRunnable markerDeletion = (IProgressMonitor deletionMonitor) -> {
+            for (File formattedTarget : formattedTargets) {
+                // a folder or file can be part of multiple projects via links
+                final IResource[] resources = formattedTarget.isDirectory()
+                                              ? workspaceRoot.findContainersForLocationURI(formattedTarget.toURI())
+                                              : workspaceRoot.findFilesForLocationURI(formattedTarget.toURI());
+
+                for (IResource resource : resources)
+                    resource.deleteMarkers(AStyleHandlerConstants.UNFORMATTED_MARKER, true, IResource.DEPTH_INFINITE);
+            }
+        };
+
+        workspace.run(markerDeletion, null, IWorkspace.AVOID_UPDATE, monitor);
+    }
+
+
+    /**
+     * Checks if a single file is formatted.
+     *
+     * @param file the file that is to be checked
+     * @param errorPrefix a short error message that appears if the check fails
+     * @param configuration the configuration that defines the formatter
+     * @param cache a cache of formatted file contents, or null
+     * @param fingerprint the fingerprint of the formatter configuration, or null
+     * @param sharedCache the shared format cache, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws CheckException if the file could not be formatted
+     * @throws OperationCanceledException if the monitor was canceled during the check
+     * @throws IOException if the file could not be read
+     * @throws InterruptedException if the thread was interrupted while the formatter was running
+     *
+     * @return the outcome of the check
+     */
+    private static CheckedFile checkFile(File file, String errorPrefix, FormatterConfiguration configuration, FormattedFileCache cache, String fingerprint, SharedFormatCache sharedCache, IProgressMonitor monitor) throws CheckException, IOException, InterruptedException
+    {
+        if (monitor.isCanceled())
+            throw new OperationCanceledException();
+
+        // files that are known to be formatted need not be read
+        final String knownHash = fingerprint != null ? cache.getContentHash(file) : null;
+
+        if (knownHash != null && cache.isFormatted(file, knownHash, fingerprint))
+            return new CheckedFile(0, false);
+
+        final byte[] content = Files.readAllBytes(file.toPath());
+        final String contentHash = knownHash != null ? knownHash : FormattedFileCache.hash(content);
+        byte[] formattedContent = sharedCache != null ? sharedCache.get(contentHash, fingerprint) : null;
+        final boolean isFormatterUsed = formattedContent == null;
+
+        if (isFormatterUsed) {
+            formattedContent = format(content, errorPrefix, configuration, monitor);
+
+            if (sharedCache != null)
+                sharedCache.put(contentHash, fingerprint, formattedContent);
+        }
+
+        if (Arrays.equals(content, formattedContent)) {
+            if (fingerprint != null)
+                cache.markFormatted(file, contentHash, fingerprint);
+
+            return new CheckedFile(0, isFormatterUsed);
+        }
+
+        return new CheckedFile(getFirstDifferingLine(content, formattedContent), isFormatterUsed);
+    }
+
+
+    /**
+     * Streams source code through a new formatter process.
+     *
+     * @param content the source code that is to be formatted
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param configuration the configuration that defines the formatter
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws CheckException if the formatter failed or did not finish in time
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     * @throws IOException if the formatter process could not be started
+     * @throws InterruptedException if the thread was interrupted while the formatter was running
+     *
+     * @return the formatted source code
+     */
+    private static byte[] format(byte[] content, String errorPrefix, FormatterConfiguration configuration, IProgressMonitor monitor) throws CheckException, IOException, InterruptedException
+    {
+        final FormatterWorker worker = new FormatterWorker(new ProcessBuilder(new ArrayList<>(configuration.getStreamCommand())));
+        final long timeout = configuration.getProcessTimeout(content.length);
+        final byte[] formattedContent;
+
+        try {
+            formattedContent = worker.format(content, timeout, monitor);
+        } catch (TimeoutException e) {
+            throw new CheckException(FeedbackMessage.CreateError(
+                                         String.format(AStyleHandlerConstants.ERROR_TIMEOUT, errorPrefix, TimeUnit.MILLISECONDS.toSeconds(timeout))));
+        }
+
+        // handle erroneous return code
+        if (worker.getReturnCode() != 0)
+            throw new CheckException(FeedbackMessage.CreateError(
+                                         String.format(
+                                             AStyleHandlerConstants.ERROR_RETURN,
+                                             "",
+                                             worker.getErrorOutput(),
+                                             errorPrefix,
+                                             worker.getReturnCode())));
+
+        // an empty output would report every non-empty file as unformatted
+        if (formattedContent.length == 0 && content.length != 0)
+            throw new CheckException(FeedbackMessage.CreateError(
+                                         String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix)));
+
+        return formattedContent;
+    }
+
+
+    /**
+     * Retrieves the line in which two contents differ for the first time.
+     *
+     * @param content the current content of a file
+     * @param formattedContent the formatted content of the file
+     *
+     * @return the one-based number of the first line that differs
+     */
+    private static int getFirstDifferingLine(byte[] content, byte[] formattedContent)
+    {
+        final int commonLength = Math.min(content.length, formattedContent.length);
+        int line = 1;
+
+        for (int i = 0; i < commonLength && content[i] == formattedContent[i]; i++) {
+            if (content[i] == '\n')
+                line++;
+        }
+
+        return line;
+    }
+
+
+    /**
+     * This class represents the outcome of checking a single file.
+     *
+     * @author GeRDI Project
+     */
+    private static class CheckedFile
+    {
+        private final int firstUnformattedLine;
+        private final boolean isFormatterUsed;
+
+
+        /**
+         * Constructor that requires the outcome of the check.
+         *
+         * @param firstUnformattedLine the first line that is not formatted, or 0 if the file is formatted
+         * @param isFormatterUsed true if the file was passed to the formatter
+         */
+        CheckedFile(int firstUnformattedLine, boolean isFormatterUsed)
+        {
+            this.firstUnformattedLine = firstUnformattedLine;
+            this.isFormatterUsed = isFormatterUsed;
+        }
+    }
+
+
+    /**
+     * This exception is thrown by concurrent checks in order to pass a
+     * feedback message to the thread that waits for them.
+     *
+     * @author GeRDI Project
+     */
+    private static class CheckException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FeedbackMessage feedback;
+
+
+        /**
+         * Constructor that requires the feedback message of the failed check.
+         *
+         * @param feedback the feedback message of the failed check
+         */
+        CheckException(FeedbackMessage feedback)
+        {
+            super();
+            this.feedback = feedback;
+        }
+
+
+        /**
+         * Returns the feedback message of the failed check.
+         *
+         * @return the feedback message of the failed check
+         */
+        FeedbackMessage getFeedback()
+        {
+            return feedback;
+        }
+    }
+}
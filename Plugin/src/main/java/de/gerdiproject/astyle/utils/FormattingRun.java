@@ -0,0 +1,439 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.cache.SharedFormatCache;
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.AStyleProcessConstants;
+import de.gerdiproject.astyle.process.FormatterOutputSink;
+
+/**
+ * This class formats groups of files in a single run of parallel formatting processes,
+ * regardless of whether the files are formatted by AStyle or by harvester scripts.
+ * Files that are known to be formatted are skipped, and files that were formatted
+ * before by other workspaces or headless runs are copied from the shared format cache.
+ * The files are added group by group, and formatted together when the run is started.
+ *
+ * @author GeRDI Project
+ */
+public class FormattingRun
+{
+    private final FormatterConfiguration configuration;
+    private final FormattedFileCache cache;
+    private final String errorPrefix;
+
+    private final Map<String, Map<File, String>> unformattedFilesByFingerprint;
+    private final List<String> restoredOutput;
+    private final List<ProcessBuilder> formattingBuilders;
+    private final Map<ProcessBuilder, File> harvesterBuilders;
+    private long inputSize;
+    private int inputCount;
+    private int skippedFileCount;
+
+
+    /**
+     * Constructor that requires the configuration of the formatter.
+     *
+     * @param configuration the configuration that defines the formatter and the parallelism
+     * @param cache a cache of formatted file contents, or null if there is none
+     * @param errorPrefix a short error message that appears if the formatting fails
+     */
+    public FormattingRun(FormatterConfiguration configuration, FormattedFileCache cache, String errorPrefix)
+    {
+        this.configuration = configuration;
+        this.cache = cache;
+        this.errorPrefix = errorPrefix;
+
+        this.unformattedFilesByFingerprint = new LinkedHashMap<>();
+        this.restoredOutput = new LinkedList<>();
+        this.formattingBuilders = new LinkedList<>();
+        this.harvesterBuilders = new HashMap<>();
+    }
+
+
+    /**
+     * Adds files that are formatted by the same formatter to the run. Files that are known
+     * to be formatted are skipped, and files that are stored in the shared format cache
+     * are replaced by their formatted contents right away.
+     *
+     * @param harvesterScript the harvester formatting script of the files, or null if they are formatted by AStyle
+     * @param files the files that are to be formatted
+     *
+     * @return an error feedback message if a required path is missing, or null
+     */
+    public FeedbackMessage add(File harvesterScript, Collection<File> files)
+    {
+        // skip files that are known to be formatted already
+        final String fingerprint = cache != null ? cache.getFingerprint(harvesterScript, configuration) : null;
+        final Map<File, String> unformattedFiles = getUnformattedFiles(files, cache, fingerprint);
+        skippedFileCount += files.size() - unformattedFiles.size();
+
+        // files that were formatted by other runs are copied from the shared cache
+        final SharedFormatCache sharedCache = fingerprint != null ? configuration.getSharedFormatCache() : null;
+
+        if (sharedCache != null)
+            restoredOutput.addAll(restoreFromSharedCache(unformattedFiles, cache, fingerprint, sharedCache));
+
+        if (unformattedFiles.isEmpty())
+            return null;
+
+        if (harvesterScript == null) {
+            final List<ProcessBuilder> defaultBuilders =
+                FormattingUtils.createDefaultFormattingProcesses(unformattedFiles.keySet(), configuration);
+
+            // abort if any path is missing
+            if (defaultBuilders == null)
+                return FeedbackMessage.CreateError(
+                           String.format(AStyleHandlerConstants.ERROR_NO_PATH, errorPrefix));
+
+            formattingBuilders.addAll(defaultBuilders);
+        } else {
+            // the harvester script can only format one file at a time
+            for (File unformattedFile : unformattedFiles.keySet()) {
+                final ProcessBuilder harvesterBuilder =
+                    FormattingUtils.createHarvesterFormattingProcess(unformattedFile.getPath(), harvesterScript);
+                formattingBuilders.add(harvesterBuilder);
+                harvesterBuilders.put(harvesterBuilder, unformattedFile);
+            }
+        }
+
+        if (fingerprint != null)
+            unformattedFilesByFingerprint.computeIfAbsent(fingerprint, (String key) -> new LinkedHashMap<>()).putAll(unformattedFiles);
+
+        inputSize += FormattingUtils.getTotalSize(unformattedFiles.keySet());
+        inputCount += unformattedFiles.size();
+
+        return null;
+    }
+
+
+    /**
+     * Runs the formatting processes of all added files concurrently and remembers the
+     * formatted files if all processes succeeded. The output of the processes is streamed
+     * to a sink that also receives the output of the files that were copied from the
+     * shared format cache.
+     *
+     * @param outputSink a sink that receives the output lines of all processes
+     * @param harvesterFileListener a listener that is notified about every file that
+     *          was formatted by a harvester script, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return an error feedback message of the first failed process, or null if the formatting was successful
+     */
+    public FeedbackMessage run(FormatterOutputSink outputSink, Consumer<File> harvesterFileListener, IProgressMonitor monitor)
+    {
+        restoredOutput.forEach(outputSink);
+
+        if (formattingBuilders.isEmpty())
+            return null;
+
+        // the output of harvester scripts is unknown, so their progress is reported per process
+        final Consumer<ProcessBuilder> finishedProcessListener = (ProcessBuilder builder) -> {
+            final File harvesterFile = harvesterBuilders.get(builder);
+
+            if (harvesterFile != null && harvesterFileListener != null)
+                harvesterFileListener.accept(harvesterFile);
+        };
+
+        final FeedbackMessage errorFeedback = FormattingUtils.runFormattingProcesses(
+                                                  formattingBuilders,
+                                                  errorPrefix,
+                                                  inputSize,
+                                                  outputSink,
+                                                  finishedProcessListener,
+                                                  monitor,
+                                                  configuration);
+
+        if (errorFeedback != null)
+            return errorFeedback;
+
+        // remember the formatted files
+        final SharedFormatCache sharedCache = configuration.getSharedFormatCache();
+
+        for (Map.Entry<String, Map<File, String>> formattedGroup : unformattedFilesByFingerprint.entrySet()) {
+            final String fingerprint = formattedGroup.getKey();
+            final Map<File, String> formattedHashes = markFormatted(formattedGroup.getValue().keySet(), cache, fingerprint);
+
+            if (sharedCache != null)
+                storeInSharedCache(formattedGroup.getValue(), formattedHashes, fingerprint, sharedCache);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Checks if no file needs to be formatted or was copied from the shared format cache.
+     *
+     * @return true if all added files are known to be formatted
+     */
+    public boolean isEmpty()
+    {
+        return formattingBuilders.isEmpty() && restoredOutput.isEmpty();
+    }
+
+
+    /**
+     * Returns the number of files that are passed to the formatting processes.
+     *
+     * @return the number of files that are passed to the formatting processes
+     */
+    public int getInputCount()
+    {
+        return inputCount;
+    }
+
+
+    /**
+     * Returns the number of files that were skipped, because they are known to be formatted.
+     *
+     * @return the number of files that are known to be formatted
+     */
+    public int getSkippedFileCount()
+    {
+        return skippedFileCount;
+    }
+
+
+    /**
+     * Returns the number of files that were copied from the shared format cache.
+     *
+     * @return the number of files that were copied from the shared format cache
+     */
+    public int getRestoredFileCount()
+    {
+        return restoredOutput.size();
+    }
+
+
+    /**
+     * Returns the files that are passed to harvester scripts. The output of the scripts
+     * is unknown, so these files may have been changed even if they are not reported.
+     *
+     * @return the files that are passed to harvester scripts
+     */
+    public Collection<File> getHarvesterFiles()
+    {
+        return harvesterBuilders.values();
+    }
+
+
+    /**
+     * Filters files that are not known to be formatted with a specified formatter configuration.
+     *
+     * @param sourceFiles the files that are to be filtered
+     * @param cache a cache of formatted file contents, or null if there is none
+     * @param fingerprint the fingerprint of the formatter configuration, or null if it is unknown
+     *
+     * @return a map of files that need to be formatted, mapped to their content hashes
+     */
+    static Map<File, String> getUnformattedFiles(Collection<File> sourceFiles, FormattedFileCache cache, String fingerprint)
+    {
+        final Map<File, String> unformattedFiles = new LinkedHashMap<>();
+
+        for (File sourceFile : sourceFiles) {
+            String contentHash = null;
+
+            if (fingerprint != null) {
+                try {
+                    contentHash = cache.getContentHash(sourceFile);
+                } catch (IOException e) {
+                    // let the formatter deal with unreadable files
+                }
+            }
+
+            if (contentHash == null || !cache.isFormatted(sourceFile, contentHash, fingerprint))
+                unformattedFiles.put(sourceFile, contentHash);
+        }
+
+        return unformattedFiles;
+    }
+
+
+    /**
+     * Remembers the current contents of files as being formatted.
+     * Only files that were changed by the formatter need to be read again.
+     *
+     * @param formattedFiles files that were just formatted
+     * @param cache the cache of formatted file contents
+     * @param fingerprint the fingerprint of the formatter configuration
+     *
+     * @return a map of the files that could be read, mapped to the hashes of their formatted contents
+     */
+    static Map<File, String> markFormatted(Collection<File> formattedFiles, FormattedFileCache cache, String fingerprint)
+    {
+        final Map<File, String> formattedHashes = new HashMap<>();
+
+        for (File formattedFile : formattedFiles) {
+            try {
+                final String formattedHash = cache.getContentHash(formattedFile);
+                cache.markFormatted(formattedFile, formattedHash, fingerprint);
+                formattedHashes.put(formattedFile, formattedHash);
+            } catch (IOException e) {
+                // the file will be formatted again next time
+            }
+        }
+
+        return formattedHashes;
+    }
+
+
+    /**
+     * Replaces files by their formatted contents if these were stored in the shared
+     * format cache, and removes the replaced files from the files that are to be formatted.
+     * Files are only written if their formatted content differs from their current content.
+     *
+     * @param unformattedFiles files that need to be formatted, mapped to their content hashes
+     * @param cache the cache of formatted file contents
+     * @param fingerprint the fingerprint of the formatter configuration
+     * @param sharedCache the shared format cache
+     *
+     * @return formatter output lines that report the replaced files
+     */
+    static List<String> restoreFromSharedCache(Map<File, String> unformattedFiles, FormattedFileCache cache, String fingerprint, SharedFormatCache sharedCache)
+    {
+        final List<String> restoredOutput = new LinkedList<>();
+        final Iterator<Map.Entry<File, String>> unformattedIter = unformattedFiles.entrySet().iterator();
+
+        while (unformattedIter.hasNext()) {
+            final Map.Entry<File, String> unformattedFile = unformattedIter.next();
+            final File file = unformattedFile.getKey();
+            final String contentHash = unformattedFile.getValue();
+
+            if (contentHash == null)
+                continue;
+
+            final byte[] formattedContent = sharedCache.get(contentHash, fingerprint);
+
+            if (formattedContent == null)
+                continue;
+
+            final String formattedHash = FormattedFileCache.hash(formattedContent);
+
+            try {
+                if (formattedHash.equals(contentHash))
+                    restoredOutput.add(AStyleProcessConstants.UNCHANGED_FILE_PREFIX + file.getPath());
+                else {
+                    replaceContent(file, formattedContent);
+                    restoredOutput.add(String.format(AStyleProcessConstants.FORMATTED_FILE_OUTPUT, file.getPath()));
+                }
+            } catch (IOException e) {
+                // let the formatter deal with unwritable files
+                continue;
+            }
+
+            cache.updateContentHash(file, formattedHash);
+            cache.markFormatted(file, formattedHash, fingerprint);
+            unformattedIter.remove();
+        }
+
+        return restoredOutput;
+    }
+
+
+    /**
+     * Stores the formatted contents of files in the shared format cache. The files are
+     * read again, and skipped if they were changed after their formatted contents were
+     * recorded, because other workspaces would otherwise receive contents that the
+     * formatter did not produce.
+     *
+     * @param unformattedFiles files that were just formatted, mapped to the hashes of their unformatted contents
+     * @param formattedHashes the same files, mapped to the hashes that were recorded after the formatting
+     * @param fingerprint the fingerprint of the formatter configuration
+     * @param sharedCache the shared format cache
+     */
+    static void storeInSharedCache(Map<File, String> unformattedFiles, Map<File, String> formattedHashes, String fingerprint, SharedFormatCache sharedCache)
+    {
+        for (Map.Entry<File, String> unformattedFile : unformattedFiles.entrySet()) {
+            final File file = unformattedFile.getKey();
+            final String formattedHash = formattedHashes.get(file);
+
+            if (unformattedFile.getValue() == null || formattedHash == null)
+                continue;
+
+            try {
+                final byte[] formattedContent = Files.readAllBytes(file.toPath());
+
+                if (FormattedFileCache.hash(formattedContent).equals(formattedHash))
+                    sharedCache.put(unformattedFile.getValue(), fingerprint, formattedContent);
+
+            } catch (IOException e) {
+                // other workspaces need to format the file themselves
+            }
+        }
+    }
+
+
+    /**
+     * Replaces the content of a file without risking a truncated file if the write fails.
+     * The content is written to a temporary file in the same folder, which then atomically
+     * replaces the file. The permissions of the file are kept, if the file system supports them.
+     *
+     * @param file the file that is to be replaced
+     * @param content the new content of the file
+     *
+     * @throws IOException if the content could not be written
+     */
+    private static void replaceContent(File file, byte[] content) throws IOException
+    {
+        final Path filePath = file.toPath();
+        final Path tempPath = Files.createTempFile(
+                                  filePath.getParent(),
+                                  AStyleHandlerConstants.HIDDEN_FILE_PREFIX + file.getName(),
+                                  AStyleHandlerConstants.TEMP_FILE_SUFFIX);
+
+        try {
+            Files.write(tempPath, content);
+
+            try {
+                Files.setPosixFilePermissions(tempPath, Files.getPosixFilePermissions(filePath));
+            } catch (UnsupportedOperationException e) {
+                // the file system has no POSIX permissions
+            }
+
+            try {
+                Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+}
@@ -16,19 +16,62 @@
  */
 package de.gerdiproject.astyle.utils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 
+import de.gerdiproject.astyle.Activator;
+import de.gerdiproject.astyle.cache.FormattedFileCache;
+import de.gerdiproject.astyle.cache.SharedFormatCache;
+import de.gerdiproject.astyle.cache.SourceRoots;
 import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
-import de.gerdiproject.astyle.preferences.AStylePreferenceConstants;
+import de.gerdiproject.astyle.listeners.DirtyFileTracker;
+import de.gerdiproject.astyle.preferences.FeedbackStyle;
+import de.gerdiproject.astyle.preferences.FormatterConfiguration;
+import de.gerdiproject.astyle.process.AStyleProcessConstants;
+import de.gerdiproject.astyle.process.FormatterProcessPool;
+import de.gerdiproject.astyle.process.FormatterTimeoutRecorder;
+import de.gerdiproject.astyle.process.FormatterOutputSink;
+import de.gerdiproject.astyle.process.FormatterWorker;
+import de.gerdiproject.astyle.process.StreamPump;
 
 /**
  * This helper class offers static formatting related methods.
@@ -57,107 +100,1255 @@ public class FormattingUtils
      */
     public static FeedbackMessage format(String filePath, IProject project, String errorPrefix, String successMessage)
     {
-        final ProcessBuilder formattingBuilder = FormattingUtils.createFormattingProcess(filePath);
+        return format(filePath, project, errorPrefix, successMessage, new NullProgressMonitor());
+    }
+
+
+    /**
+     * Formats a file or folder, returning a feedback message.
+     * Each file that AStyle reports as formatted or unchanged advances the progress monitor.
+     * The formatting processes are destroyed if the progress monitor is canceled,
+     * and processes that did not start yet are skipped.
+     *
+     * @param filePath filePath the absolute filepath to the folder or file that is to be formatted
+     * @param project the project to which the file belongs
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param successMessage a short message that appears if the formatting was successful
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return a feedback message of the formatting process
+     */
+    public static FeedbackMessage format(String filePath, IProject project, String errorPrefix, String successMessage, IProgressMonitor monitor)
+    {
+        // abort if project is missing
+        if (project == null)
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT);
+
+        // abort if file to be formatted is missing
+        if (filePath == null)
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+
+        final File file = new File(filePath);
+        final boolean isFolder = file.isDirectory();
+        final PathFilter pathFilter = FormatterConfiguration.getCurrent().getPathFilter(project);
+
+        // skip files that are excluded via the file patterns
+        if (!isFolder && !isIncluded(file, project, pathFilter))
+            return FeedbackMessage.CreateInfo(String.format(successMessage, AStyleHandlerConstants.EXCLUDED_BY_PATTERNS));
+
+        final File harvesterScript = getHarvesterFormattingScript(project);
+
+        // skip files that are known to be formatted already
+        final FormattedFileCache cache = getFormattedFileCache();
+        final String fingerprint = cache != null ? cache.getFingerprint(harvesterScript) : null;
+
+        // output folders of the project are never traversed
+        final SourceRoots sourceRoots = isFolder ? getSourceRoots(project) : null;
+        final Set<File> outputFolders = sourceRoots != null
+                                        ? sourceRoots.getOutputFolders()
+                                        : Collections.emptySet();
+
+        // only format files that changed since the last time the folder was formatted
+        final List<File> dirtyFiles = isFolder ? getDirtyFiles(file, project, pathFilter, fingerprint) : null;
+        final List<File> sourceFiles;
+
+        if (dirtyFiles != null)
+            sourceFiles = dirtyFiles;
+        else if (isFolder)
+            sourceFiles = collectSourceFiles(file, project, pathFilter, outputFolders);
+        else
+            sourceFiles = Collections.singletonList(file);
+
+        final Map<File, String> unformattedFiles = FormattingRun.getUnformattedFiles(sourceFiles, cache, fingerprint);
+
+        if (unformattedFiles.isEmpty()) {
+            markClean(project, file, sourceFiles, fingerprint);
+            return FeedbackMessage.CreateInfo(String.format(successMessage, AStyleHandlerConstants.ALREADY_FORMATTED));
+        }
+
+        // every file that is passed to the formatter is one unit of work
+        final SubMonitor progress = SubMonitor.convert(monitor, unformattedFiles.size());
+
+        // files that were formatted by other workspaces are copied from the shared cache
+        final SharedFormatCache sharedCache = getSharedFormatCache(fingerprint);
+        final List<String> restoredOutput = sharedCache != null
+                                            ? FormattingRun.restoreFromSharedCache(unformattedFiles, cache, fingerprint, sharedCache)
+                                            : Collections.emptyList();
+
+        // single files can be streamed through a formatter process that was started in advance
+        if (!isFolder && harvesterScript == null && !unformattedFiles.isEmpty()) {
+            final FeedbackMessage pooledFeedback =
+                formatWithPooledWorker(file, project, errorPrefix, successMessage, cache, fingerprint, progress);
+
+            if (pooledFeedback != null)
+                return pooledFeedback;
+        }
+
+        // format the whole folder if no file can be skipped, and no output folder would be traversed
+        final boolean isCompleteFolder =
+            dirtyFiles == null
+            && unformattedFiles.size() == sourceFiles.size()
+            && (sourceRoots == null || !sourceRoots.containsOutputFolder(file));
+        final List<ProcessBuilder> formattingBuilders = unformattedFiles.isEmpty()
+                                                        ? Collections.emptyList()
+                                                        : createFormattingProcesses(filePath, isFolder, harvesterScript, unformattedFiles.keySet(), isCompleteFolder);
+
+        // abort if any path is missing
+        if (formattingBuilders == null)
+            return FeedbackMessage.CreateError(
+                       String.format(AStyleHandlerConstants.ERROR_NO_PATH, errorPrefix));
+
+        final List<File> formattedFiles = Collections.synchronizedList(new LinkedList<>());
+        final FormatterOutputSink outputSink = new FormatterOutputSink(
+            isKeepingFullOutput(),
+            formattedFiles::add,
+            (File completedFile) -> reportProgress(progress, 1, completedFile));
+        restoredOutput.forEach(outputSink);
+
+        // the output of harvester scripts is unknown, so their progress is reported per process
+        final Consumer<ProcessBuilder> finishedProcessListener = harvesterScript != null
+                                                                 ? (ProcessBuilder builder) -> reportProgress(progress, unformattedFiles.size(), null)
+                                                                 : null;
+
+        // the output of harvester scripts is unknown, so all passed files need to be refreshed
+        final Collection<File> changedFiles;
+
+        if (harvesterScript != null) {
+            changedFiles = new ArrayList<>(formattedFiles);
+            changedFiles.addAll(unformattedFiles.keySet());
+        } else
+            changedFiles = formattedFiles;
+
+        final FeedbackMessage errorFeedback;
+
+        try {
+            errorFeedback = formattingBuilders.isEmpty()
+                            ? null
+                            : runFormattingProcesses(
+                                formattingBuilders,
+                                errorPrefix,
+                                getTotalSize(unformattedFiles.keySet()),
+                                outputSink,
+                                finishedProcessListener,
+                                progress);
+        } catch (OperationCanceledException e) {
+            refreshCanceledFiles(changedFiles);
+            throw e;
+        }
+
+        if (errorFeedback != null)
+            return errorFeedback;
+
+        // remember the formatted files
+        final Map<File, String> formattedHashes = fingerprint != null
+                                                  ? FormattingRun.markFormatted(unformattedFiles.keySet(), cache, fingerprint)
+                                                  : Collections.emptyMap();
+
+        if (sharedCache != null)
+            FormattingRun.storeInSharedCache(unformattedFiles, formattedHashes, fingerprint, sharedCache);
+
+        refreshFiles(changedFiles, progress);
+        markClean(project, file, sourceFiles, fingerprint);
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, outputSink.toString()));
+    }
+
+
+    /**
+     * Formats multiple files that may belong to different projects in a single run,
+     * returning a feedback message. Files of projects that use a harvester formatting
+     * script are passed to that script one by one.
+     * Each file that is reported as formatted or unchanged advances the progress monitor.
+     * The formatting processes are destroyed if the progress monitor is canceled,
+     * and processes that did not start yet are skipped.
+     *
+     * @param files the files that are to be formatted
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param successMessage a short message that appears if the formatting was successful
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return a feedback message of the formatting process
+     */
+    public static FeedbackMessage formatFiles(Collection<File> files, String errorPrefix, String successMessage, IProgressMonitor monitor)
+    {
+        // abort if there are no files to be formatted
+        if (files.isEmpty())
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+
+        // group the files by the formatter that is responsible for them
+        final Map<File, List<File>> filesByScript = new LinkedHashMap<>();
+
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+        final Map<IProject, PathFilter> pathFilters = new HashMap<>();
+
+        for (File file : files) {
+            final IFile[] workspaceFiles = workspaceRoot.findFilesForLocationURI(file.toURI());
+            final IProject project = workspaceFiles.length != 0 ? workspaceFiles[0].getProject() : null;
+            final PathFilter pathFilter = project != null
+                                          ? pathFilters.computeIfAbsent(project, FormatterConfiguration.getCurrent()::getPathFilter)
+                                          : FormatterConfiguration.getCurrent().getPathFilter(null);
+
+            // skip files that are excluded via the file patterns
+            if (!isIncluded(file, project, pathFilter))
+                continue;
+
+            final File harvesterScript = project != null ? getHarvesterFormattingScript(project) : null;
+            filesByScript.computeIfAbsent(harvesterScript, (File script) -> new LinkedList<>()).add(file);
+        }
+
+        if (filesByScript.isEmpty())
+            return FeedbackMessage.CreateInfo(String.format(successMessage, AStyleHandlerConstants.EXCLUDED_BY_PATTERNS));
+
+        final FormattingRun formattingRun = new FormattingRun(FormatterConfiguration.getCurrent(), getFormattedFileCache(), errorPrefix);
+
+        for (Map.Entry<File, List<File>> group : filesByScript.entrySet()) {
+            final FeedbackMessage errorFeedback = formattingRun.add(group.getKey(), group.getValue());
+
+            // abort if any path is missing
+            if (errorFeedback != null)
+                return errorFeedback;
+        }
+
+        if (formattingRun.isEmpty()) {
+            markClean(files);
+            return FeedbackMessage.CreateInfo(String.format(successMessage, AStyleHandlerConstants.ALREADY_FORMATTED));
+        }
+
+        // every file that is passed to a formatter is one unit of work
+        final SubMonitor progress = SubMonitor.convert(monitor, formattingRun.getInputCount());
+
+        final List<File> formattedFiles = Collections.synchronizedList(new LinkedList<>());
+        final FormatterOutputSink outputSink = new FormatterOutputSink(
+            isKeepingFullOutput(),
+            formattedFiles::add,
+            (File completedFile) -> reportProgress(progress, 1, completedFile));
+
+        final FeedbackMessage errorFeedback;
+
+        try {
+            errorFeedback = formattingRun.run(
+                                outputSink,
+                                (File harvesterFile) -> reportProgress(progress, 1, harvesterFile),
+                                progress);
+        } catch (OperationCanceledException e) {
+            formattedFiles.addAll(formattingRun.getHarvesterFiles());
+            refreshCanceledFiles(formattedFiles);
+            throw e;
+        }
+
+        if (errorFeedback != null)
+            return errorFeedback;
+
+        // the output of harvester scripts is unknown, so all passed files need to be refreshed
+        formattedFiles.addAll(formattingRun.getHarvesterFiles());
+        refreshFiles(formattedFiles, progress);
+        markClean(files);
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, outputSink.toString()));
+    }
+
+
+    /**
+     * Formats multiple folders of a project in a single run, returning a feedback message.
+     * The files of all folders share the parallel formatting processes, instead of every
+     * folder starting as many processes as are allowed in total. Folders that were formatted
+     * completely before only contribute the files that changed since then.
+     * Each file that is reported as formatted or unchanged advances the progress monitor.
+     * The formatting processes are destroyed if the progress monitor is canceled,
+     * and processes that did not start yet are skipped.
+     *
+     * @param folders the folders that are to be formatted, none of which lies within another
+     * @param project the project to which the folders belong
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param successMessage a short message that appears if the formatting was successful
+     * @param monitor a progress monitor that is checked for cancellation and receives the progress
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return a feedback message of the formatting process
+     */
+    public static FeedbackMessage formatFolders(Collection<File> folders, IProject project, String errorPrefix, String successMessage, IProgressMonitor monitor)
+    {
+        // abort if project is missing
+        if (project == null)
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT);
+
+        // abort if there are no folders to be formatted
+        if (folders.isEmpty())
+            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+
+        final PathFilter pathFilter = FormatterConfiguration.getCurrent().getPathFilter(project);
+        final File harvesterScript = getHarvesterFormattingScript(project);
+
+        // clean folders are only known for the current formatter configuration
+        final FormattedFileCache cache = getFormattedFileCache();
+        final String fingerprint = cache != null ? cache.getFingerprint(harvesterScript) : null;
+
+        // output folders of the project are never traversed
+        final SourceRoots sourceRoots = getSourceRoots(project);
+        final Set<File> outputFolders = sourceRoots != null
+                                        ? sourceRoots.getOutputFolders()
+                                        : Collections.emptySet();
+
+        // only format files that changed since the last time a folder was formatted
+        final Map<File, List<File>> sourceFilesByFolder = new LinkedHashMap<>();
+        final List<File> sourceFiles = new LinkedList<>();
+
+        for (File folder : folders) {
+            final List<File> dirtyFiles = getDirtyFiles(folder, project, pathFilter, fingerprint);
+            final List<File> folderFiles = dirtyFiles != null
+                                           ? dirtyFiles
+                                           : collectSourceFiles(folder, project, pathFilter, outputFolders);
+            sourceFilesByFolder.put(folder, folderFiles);
+            sourceFiles.addAll(folderFiles);
+        }
+
+        final FormattingRun formattingRun = new FormattingRun(FormatterConfiguration.getCurrent(), cache, errorPrefix);
+        final FeedbackMessage pathFeedback = formattingRun.add(harvesterScript, sourceFiles);
+
+        // abort if any path is missing
+        if (pathFeedback != null)
+            return pathFeedback;
+
+        if (formattingRun.isEmpty()) {
+            sourceFilesByFolder.forEach((File folder, List<File> folderFiles) -> markClean(project, folder, folderFiles, fingerprint));
+            return FeedbackMessage.CreateInfo(String.format(successMessage, AStyleHandlerConstants.ALREADY_FORMATTED));
+        }
+
+        // every file that is passed to a formatter is one unit of work
+        final SubMonitor progress = SubMonitor.convert(monitor, formattingRun.getInputCount());
+
+        final List<File> formattedFiles = Collections.synchronizedList(new LinkedList<>());
+        final FormatterOutputSink outputSink = new FormatterOutputSink(
+            isKeepingFullOutput(),
+            formattedFiles::add,
+            (File completedFile) -> reportProgress(progress, 1, completedFile));
+
+        final FeedbackMessage errorFeedback;
+
+        try {
+            errorFeedback = formattingRun.run(
+                                outputSink,
+                                (File harvesterFile) -> reportProgress(progress, 1, harvesterFile),
+                                progress);
+        } catch (OperationCanceledException e) {
+            formattedFiles.addAll(formattingRun.getHarvesterFiles());
+            refreshCanceledFiles(formattedFiles);
+            throw e;
+        }
+
+        if (errorFeedback != null)
+            return errorFeedback;
+
+        // the output of harvester scripts is unknown, so all passed files need to be refreshed
+        formattedFiles.addAll(formattingRun.getHarvesterFiles());
+        refreshFiles(formattedFiles, progress);
+        sourceFilesByFolder.forEach((File folder, List<File> folderFiles) -> markClean(project, folder, folderFiles, fingerprint));
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, outputSink.toString()));
+    }
+
+
+    /**
+     * Runs formatting processes concurrently and streams their output to a shared sink.
+     * The number of concurrent processes is defined via the plugin preferences.
+     * Each process is terminated if it does not finish within a timeout that scales
+     * with the average number of bytes that are formatted by each process.
+     *
+     * @param formattingBuilders the builders of the formatting processes
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param inputSize the number of bytes that are formatted by all processes together
+     * @param outputSink a sink that receives the output lines of all processes
+     * @param finishedProcessListener a listener that is notified about every successful process, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return an error feedback message of the first failed process, or null if the formatting was successful
+     */
+    private static FeedbackMessage runFormattingProcesses(List<ProcessBuilder> formattingBuilders, String errorPrefix, long inputSize, FormatterOutputSink outputSink, Consumer<ProcessBuilder> finishedProcessListener, IProgressMonitor monitor)
+    {
+        return runFormattingProcesses(
+                   formattingBuilders,
+                   errorPrefix,
+                   inputSize,
+                   outputSink,
+                   finishedProcessListener,
+                   monitor,
+                   FormatterConfiguration.getCurrent());
+    }
+
+
+    /**
+     * Runs formatting processes concurrently and streams their output to a shared sink.
+     * The number of concurrent processes and the timeouts are defined via a
+     * specified configuration, which allows the processes to run without a workbench.
+     *
+     * @param formattingBuilders the builders of the formatting processes
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param inputSize the number of bytes that are formatted by all processes together
+     * @param outputSink a sink that receives the output lines of all processes
+     * @param finishedProcessListener a listener that is notified about every successful process, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     * @param configuration the configuration that defines the parallelism and timeouts
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return an error feedback message of the first failed process, or null if the formatting was successful
+     */
+    public static FeedbackMessage runFormattingProcesses(List<ProcessBuilder> formattingBuilders, String errorPrefix, long inputSize, FormatterOutputSink outputSink, Consumer<ProcessBuilder> finishedProcessListener, IProgressMonitor monitor, FormatterConfiguration configuration)
+    {
+        // the files are distributed evenly by size among the processes
+        final long timeout = configuration.getProcessTimeout(inputSize / formattingBuilders.size());
+
+        // do not bother with threads if there is only one process
+        if (formattingBuilders.size() == 1)
+            return runFormattingProcess(formattingBuilders.get(0), errorPrefix, timeout, outputSink, finishedProcessListener, monitor);
+
+        final int threadCount = Math.min(configuration.getParallelProcessCount(), formattingBuilders.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            // start all processes
+            final List<Future<Void>> futureResults = new ArrayList<>(formattingBuilders.size());
+
+            for (ProcessBuilder formattingBuilder : formattingBuilders) {
+                futureResults.add(executor.submit(() -> {
+                    final FeedbackMessage errorFeedback =
+                        runFormattingProcess(formattingBuilder, errorPrefix, timeout, outputSink, finishedProcessListener, monitor);
+
+                    if (errorFeedback != null)
+                        throw new FormattingException(errorFeedback);
+
+                    return null;
+                }));
+            }
+
+            // wait for all processes to finish
+            for (Future<Void> futureResult : futureResults)
+                futureResult.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof FormattingException)
+                return ((FormattingException) e.getCause()).getFeedback();
+
+            if (e.getCause() instanceof OperationCanceledException)
+                throw (OperationCanceledException) e.getCause();
+
+            e.printStackTrace();
+            return FeedbackMessage.CreateError(
+                       String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FeedbackMessage.CreateError(
+                       String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+
+        } finally {
+            // interrupting the threads kills processes that are still running after an error
+            // or a cancellation, and processes that are still queued are never started
+            executor.shutdownNow();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Runs a formatting process and streams its output to a sink. Both output streams
+     * are drained while the process is running, so the process never blocks on a full pipe.
+     * The process and its child processes are destroyed if the timeout expires.
+     * The process is not started at all if the progress monitor is already canceled.
+     *
+     * @param formattingBuilder the builder of the formatting process
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param timeout the milliseconds after which the process is destroyed, or 0 if it may run forever
+     * @param outputSink a sink that receives the output lines of the process
+     * @param finishedProcessListener a listener that is notified if the process succeeded, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return an error feedback message, or null if the formatting was successful
+     */
+    private static FeedbackMessage runFormattingProcess(ProcessBuilder formattingBuilder, String errorPrefix, long timeout, FormatterOutputSink outputSink, Consumer<ProcessBuilder> finishedProcessListener, IProgressMonitor monitor)
+    {
+        // do not start another process after the formatting was canceled
+        if (monitor.isCanceled())
+            throw new OperationCanceledException();
+
+        try {
+            // execute command
+            final Process formattingProcess = formattingBuilder.start();
+
+            // drain the returned strings while the process is running
+            final StreamPump outputPump = StreamPump.start(
+                                              formattingProcess.getInputStream(),
+                                              outputSink,
+                                              AStyleProcessConstants.READER_THREAD_NAME);
+
+            // error messages are always displayed in full
+            final FormatterOutputSink errorSink = new FormatterOutputSink(true, null);
+            final StreamPump errorPump = StreamPump.start(
+                                             formattingProcess.getErrorStream(),
+                                             errorSink,
+                                             AStyleProcessConstants.ERROR_READER_THREAD_NAME);
+
+            final int returnCode = ProcessUtils.waitFor(formattingProcess, timeout, monitor);
+            outputPump.join();
+            errorPump.join();
+
+            // handle erroneous return code
+            if (returnCode != 0) {
+                return FeedbackMessage.CreateError(
+                           String.format(
+                               AStyleHandlerConstants.ERROR_RETURN,
+                               outputSink.toString(),
+                               errorSink.toString(),
+                               errorPrefix,
+                               returnCode));
+            }
+
+            if (finishedProcessListener != null)
+                finishedProcessListener.accept(formattingBuilder);
+
+        } catch (TimeoutException e) {
+            return createTimeoutError(formattingBuilder.command(), timeout, errorPrefix);
+
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            return FeedbackMessage.CreateError(
+                       String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Records the timeout of a formatter process and creates an error message for it.
+     * If the formatter timed out repeatedly, the message points out that it is
+     * likely to be misconfigured.
+     *
+     * @param command the command line of the process that timed out
+     * @param timeout the milliseconds after which the process was destroyed
+     * @param errorPrefix a short error message that appears if the formatting fails
+     *
+     * @return an error feedback message
+     */
+    private static FeedbackMessage createTimeoutError(List<String> command, long timeout, String errorPrefix)
+    {
+        final String timeoutMessage = String.format(
+                                          AStyleHandlerConstants.ERROR_TIMEOUT,
+                                          errorPrefix,
+                                          TimeUnit.MILLISECONDS.toSeconds(timeout));
+        final int timeoutCount = recordTimeout(command);
+
+        if (!FormatterTimeoutRecorder.isRepeatOffender(timeoutCount))
+            return FeedbackMessage.CreateError(timeoutMessage);
+
+        return FeedbackMessage.CreateError(
+                   String.format(
+                       AStyleHandlerConstants.ERROR_REPEATED_TIMEOUT,
+                       timeoutMessage,
+                       FormatterTimeoutRecorder.getFormatterName(command),
+                       timeoutCount));
+    }
+
+
+    /**
+     * Records the timeout of a formatter process.
+     *
+     * @param command the command line of the process that timed out
+     *
+     * @return the number of timeouts of the formatter, including this one
+     */
+    private static int recordTimeout(List<String> command)
+    {
+        final Activator activator = Activator.getDefault();
+        return activator != null ? activator.getTimeoutRecorder().recordTimeout(command) : 1;
+    }
+
+
+    /**
+     * Advances the progress of a formatting run. Formatting processes report their
+     * progress concurrently, so the progress monitor is only accessed by one thread at a time.
+     *
+     * @param progress the progress monitor of the formatting run
+     * @param work the number of files that were completed
+     * @param completedFile the file that was completed, or null if it is unknown
+     */
+    private static void reportProgress(SubMonitor progress, int work, File completedFile)
+    {
+        synchronized (progress) {
+            progress.worked(work);
+
+            if (completedFile != null)
+                progress.subTask(completedFile.getName());
+        }
+    }
+
+
+    /**
+     * Refreshes the files that were formatted before the formatting was canceled,
+     * so the workspace does not show outdated contents.
+     *
+     * @param formattedFiles the files that were changed by the formatter so far
+     */
+    private static void refreshCanceledFiles(Collection<File> formattedFiles)
+    {
+        // the refresh must not be aborted by the canceled monitor
+        synchronized (formattedFiles) {
+            refreshFiles(new ArrayList<>(formattedFiles), new NullProgressMonitor());
+        }
+    }
+
+
+    /**
+     * Sums up the sizes of files.
+     *
+     * @param files the files of which the sizes are summed up
+     *
+     * @return the number of bytes of all files
+     */
+    static long getTotalSize(Collection<File> files)
+    {
+        long totalSize = 0;
+
+        for (File file : files)
+            totalSize += file.length();
+
+        return totalSize;
+    }
+
+
+    /**
+     * Formats source code in memory by streaming it through an AStyle process,
+     * preferably one of the {@linkplain FormatterProcessPool}.
+     * Projects that use a harvester formatting script cannot be formatted in memory,
+     * because the script requires a file path.
+     *
+     * @param project the project to which the source code belongs
+     * @param content the source code that is to be formatted
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return the formatted source code, or null if it could not be formatted in memory
+     */
+    public static byte[] formatInMemory(IProject project, byte[] content, IProgressMonitor monitor)
+    {
+        if (getHarvesterFormattingScript(project) != null)
+            return null;
+
+        // skip contents that are known to be formatted already
+        final FormattedFileCache cache = getFormattedFileCache();
+        final String fingerprint = cache != null ? cache.getFingerprint(null) : null;
+
+        final String contentHash = fingerprint != null ? FormattedFileCache.hash(content) : null;
+
+        if (fingerprint != null && cache.isFormatted(contentHash, fingerprint))
+            return content;
+
+        // contents that were formatted by other workspaces are copied from the shared cache
+        final SharedFormatCache sharedCache = getSharedFormatCache(fingerprint);
+        final byte[] sharedContent = sharedCache != null ? sharedCache.get(contentHash, fingerprint) : null;
+
+        if (sharedContent != null) {
+            cache.markFormatted(FormattedFileCache.hash(sharedContent), fingerprint);
+            return sharedContent;
+        }
+
+        try {
+            final FormatterWorker worker = acquireWorker(true);
+
+            if (worker == null)
+                return null;
+
+            final long timeout = FormatterConfiguration.getCurrent().getProcessTimeout(content.length);
+            final byte[] formattedContent;
+
+            try {
+                formattedContent = worker.format(content, timeout, monitor);
+            } catch (TimeoutException e) {
+                recordTimeout(worker.getCommand());
+                return null;
+            }
+
+            // never replace content with nothing
+            if (worker.getReturnCode() != 0 || formattedContent.length == 0 && content.length != 0)
+                return null;
+
+            // remember the formatted content
+            if (fingerprint != null)
+                cache.markFormatted(FormattedFileCache.hash(formattedContent), fingerprint);
+
+            if (sharedCache != null)
+                sharedCache.put(contentHash, fingerprint, formattedContent);
+
+            return formattedContent;
+
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Retrieves a formatter process that reads source code from stdin.
+     *
+     * @param isStartAllowed if true, a new process is started if the pool is disabled
+     *
+     * @throws IOException if a new formatter process could not be started
+     *
+     * @return a formatter worker, or null if no process is available
+     */
+    private static FormatterWorker acquireWorker(boolean isStartAllowed) throws IOException
+    {
+        final Activator activator = Activator.getDefault();
+        final FormatterWorker pooledWorker = activator != null
+                                             ? activator.getFormatterPool().acquire()
+                                             : null;
+
+        if (pooledWorker != null || !isStartAllowed)
+            return pooledWorker;
+
+        final ProcessBuilder processBuilder = createDefaultStreamFormattingProcess();
+        return processBuilder != null ? new FormatterWorker(processBuilder) : null;
+    }
+
+
+    /**
+     * Formats a single file by streaming it through a pre-started formatter process
+     * of the {@linkplain FormatterProcessPool}. The file is only written if its content
+     * was changed by the formatter.
+     *
+     * @param file the file that is to be formatted
+     * @param project the project to which the file belongs
+     * @param errorPrefix a short error message that appears if the formatting fails
+     * @param successMessage a short message that appears if the formatting was successful
+     * @param cache a cache in which the formatted content is remembered, or null
+     * @param fingerprint the fingerprint of the formatter configuration, or null
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws OperationCanceledException if the monitor was canceled during the formatting
+     *
+     * @return a feedback message of the formatting process, or null if no
+     *          pooled formatter process is available
+     */
+    private static FeedbackMessage formatWithPooledWorker(File file, IProject project, String errorPrefix, String successMessage, FormattedFileCache cache, String fingerprint, IProgressMonitor monitor)
+    {
+        final String processOutput;
+
+        try {
+            final FormatterWorker worker = acquireWorker(false);
+
+            if (worker == null)
+                return null;
+
+            final byte[] unformattedContent = Files.readAllBytes(file.toPath());
+            final long timeout = FormatterConfiguration.getCurrent().getProcessTimeout(unformattedContent.length);
+            final byte[] formattedContent;
+
+            try {
+                formattedContent = worker.format(unformattedContent, timeout, monitor);
+            } catch (TimeoutException e) {
+                return createTimeoutError(worker.getCommand(), timeout, errorPrefix);
+            }
+
+            // handle erroneous return code
+            if (worker.getReturnCode() != 0)
+                return FeedbackMessage.CreateError(
+                           String.format(
+                               AStyleHandlerConstants.ERROR_RETURN,
+                               "",
+                               worker.getErrorOutput(),
+                               errorPrefix,
+                               worker.getReturnCode()));
+
+            // never overwrite a file with nothing
+            if (formattedContent.length == 0 && unformattedContent.length != 0)
+                return FeedbackMessage.CreateError(
+                           String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+
+            if (Arrays.equals(unformattedContent, formattedContent))
+                processOutput = "";
+            else {
+                Files.write(file.toPath(), formattedContent);
+                processOutput = String.format(AStyleProcessConstants.FORMATTED_FILE_OUTPUT, file.getPath());
+                refreshFiles(Collections.singletonList(file), monitor);
+            }
+
+            // remember the formatted content
+            if (cache != null) {
+                final String formattedHash = FormattedFileCache.hash(formattedContent);
+                cache.updateContentHash(file, formattedHash);
+
+                if (fingerprint != null)
+                    cache.markFormatted(file, formattedHash, fingerprint);
+            }
+
+            final SharedFormatCache sharedCache = getSharedFormatCache(fingerprint);
+
+            if (sharedCache != null)
+                sharedCache.put(FormattedFileCache.hash(unformattedContent), fingerprint, formattedContent);
+
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            return FeedbackMessage.CreateError(
+                       String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
+        }
+
+        markClean(project, file, Collections.singletonList(file), fingerprint);
+
+        return FeedbackMessage.CreateInfo(String.format(successMessage, processOutput));
+    }
 
-        // abort if project is missing
-        if (project == null)
-            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_PROJECT);
 
-        // abort if file to be formatted is missing
-        if (filePath == null)
-            return FeedbackMessage.CreateError(AStyleHandlerConstants.ERROR_NO_FILE);
+    /**
+     * Retrieves all files of a folder that changed since the folder was completely formatted.
+     *
+     * @param folder the folder that is to be formatted
+     * @param project the project to which the folder belongs
+     * @param pathFilter the file patterns of the project
+     * @param fingerprint the fingerprint of the current formatter configuration, or null
+     *
+     * @return a list of changed source files, or null if the folder was not completely
+     *         formatted with the current formatter configuration before
+     */
+    private static List<File> getDirtyFiles(File folder, IProject project, PathFilter pathFilter, String fingerprint)
+    {
+        final Activator activator = Activator.getDefault();
 
-        // abort if any path is missing
-        if (formattingBuilder == null)
-            return FeedbackMessage.CreateError(
-                       String.format(AStyleHandlerConstants.ERROR_NO_PATH, errorPrefix));
+        if (activator == null)
+            return null;
 
-        final String processOutput;
+        final DirtyFileTracker tracker = activator.getDirtyFileTracker();
 
-        try {
-            // execute command
-            final Process formattingProcess = formattingBuilder.start();
-            int returnCode = formattingProcess.waitFor();
+        if (tracker.getDirtyFiles(project, folder, fingerprint) == null)
+            return null;
 
-            // read returned string
-            final BufferedReader outputReader = new BufferedReader(
-                new InputStreamReader(
-                    formattingProcess.getInputStream(),
-                    StandardCharsets.UTF_8));
+        // files that changed outside of Eclipse are only tracked after a refresh
+        refreshFolder(folder);
+        final List<File> dirtyFiles = tracker.getDirtyFiles(project, folder, fingerprint);
 
-            processOutput = outputReader.lines().collect(Collectors.joining("\n"));
+        // excluded files stay dirty, in case the file patterns change
+        if (dirtyFiles != null)
+            dirtyFiles.removeIf((File dirtyFile) -> !isIncluded(dirtyFile, project, pathFilter));
 
-            // handle erroneous return code
-            if (returnCode != 0) {
-                // read returned error string
-                final BufferedReader errorReader =
-                    new BufferedReader(
-                    new InputStreamReader(
-                        formattingProcess.getErrorStream(),
-                        StandardCharsets.UTF_8));
-                final String errorOutput = errorReader.lines().collect(Collectors.joining("\n"));
+        return dirtyFiles;
+    }
 
-                return FeedbackMessage.CreateError(
-                           String.format(
-                               AStyleHandlerConstants.ERROR_RETURN,
-                               processOutput,
-                               errorOutput,
-                               errorPrefix,
-                               returnCode));
-            }
 
-        } catch (IOException | InterruptedException e) {
+    /**
+     * Refreshes a folder and all of its files, so that the resource changes of files
+     * that were modified outside of Eclipse are reported to the {@linkplain DirtyFileTracker}.
+     *
+     * @param folder the folder that is to be refreshed
+     */
+    private static void refreshFolder(File folder)
+    {
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+
+        try {
+            // a folder can be part of multiple projects via links
+            for (IContainer container : workspaceRoot.findContainersForLocationURI(folder.toURI()))
+                container.refreshLocal(IResource.DEPTH_INFINITE, new NullProgressMonitor());
+
+        } catch (CoreException e) {
             e.printStackTrace();
-            return FeedbackMessage.CreateError(
-                       String.format(AStyleHandlerConstants.ERROR_GENERIC, errorPrefix));
         }
+    }
+
+
+    /**
+     * Retrieves all Java source files within multiple folders, and the files that
+     * are no folders themselves. Files that are found multiple times are only listed once.
+     *
+     * @param targets the files and folders that are to be formatted
+     *
+     * @return a list of distinct source files
+     */
+    public static List<File> collectSourceFiles(Collection<File> targets)
+    {
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+        final Set<File> sourceFiles = new LinkedHashSet<>();
+
+        for (File target : targets) {
+            final IResource[] resources = target.isDirectory()
+                                          ? workspaceRoot.findContainersForLocationURI(target.toURI())
+                                          : workspaceRoot.findFilesForLocationURI(target.toURI());
+            final IProject project = resources.length != 0 ? resources[0].getProject() : null;
+            final PathFilter pathFilter = FormatterConfiguration.getCurrent().getPathFilter(project);
+
+            if (target.isDirectory())
+                sourceFiles.addAll(collectSourceFiles(target, project, pathFilter, Collections.emptySet()));
+
+            else if (isIncluded(target, project, pathFilter))
+                sourceFiles.add(target);
+        }
+
+        return new ArrayList<>(sourceFiles);
+    }
+
+
+    /**
+     * Retrieves the source files of a folder or file outside of the workspace.
+     * Paths are matched relative to the folder, or relative to the parent folder of the file.
+     *
+     * @param target a folder or file that is to be formatted
+     * @param pathFilter the filter that decides which files are formatted
+     *
+     * @return a list of source files
+     */
+    public static List<File> collectSourceFiles(File target, PathFilter pathFilter)
+    {
+        if (target.isDirectory())
+            return collectSourceFiles(target, null, pathFilter, Collections.emptySet());
+
+        return isIncluded(target, null, pathFilter)
+               ? Collections.singletonList(target)
+               : Collections.emptyList();
+    }
+
+
+    /**
+     * Checks if a file is to be formatted according to the file patterns of its project.
+     *
+     * @param file the file that is to be checked
+     * @param project the project to which the file belongs, or null
+     *
+     * @return true if the file is not excluded via the file patterns
+     */
+    public static boolean isIncluded(File file, IProject project)
+    {
+        return isIncluded(file, project, FormatterConfiguration.getCurrent().getPathFilter(project));
+    }
+
+
+    /**
+     * Checks if a file is matched by a path filter.
+     *
+     * @param file the file that is to be checked
+     * @param project the project to which the file belongs, or null
+     * @param pathFilter the filter of the project
+     *
+     * @return true if the file is not excluded by the filter
+     */
+    private static boolean isIncluded(File file, IProject project, PathFilter pathFilter)
+    {
+        final Path filterRoot = getFilterRoot(project, file.getParentFile());
+        return pathFilter.match(filterRoot.relativize(file.toPath())).isIncluded();
+    }
+
+
+    /**
+     * Retrieves the folder to which the paths that are matched by a path filter are relative.
+     * This is the project folder, unless the formatted folder lies outside of the project.
+     *
+     * @param project the project that is formatted, or null
+     * @param folder the folder that is formatted
+     *
+     * @return the root folder of the file patterns
+     */
+    private static Path getFilterRoot(IProject project, File folder)
+    {
+        final Path folderPath = folder.toPath();
+        final IPath projectLocation = project != null ? project.getLocation() : null;
+
+        if (projectLocation != null) {
+            final Path projectPath = projectLocation.toFile().toPath();
+
+            if (folderPath.startsWith(projectPath))
+                return projectPath;
+        }
+
+        return folderPath;
+    }
+
+
+    /**
+     * Retrieves all source files within a folder and its sub-folders that are included
+     * by a path filter. Folders that are excluded, or that cannot contain included files,
+     * are skipped entirely, without traversing them.
+     *
+     * @param folder the folder that is to be formatted
+     * @param project the project to which the folder belongs, or null
+     * @param pathFilter the filter of the project
+     * @param excludedFolders folders that are not to be traversed
+     *
+     * @return a list of source files
+     */
+    private static List<File> collectSourceFiles(File folder, IProject project, PathFilter pathFilter, Set<File> excludedFolders)
+    {
+        final Path folderPath = folder.toPath();
+        final PathFilter.State folderState = pathFilter.match(getFilterRoot(project, folder).relativize(folderPath));
+
+        if (folderState.isPruned())
+            return Collections.emptyList();
+
+        final List<File> sourceFiles = new LinkedList<>();
+
+        // the matching states of the folders that are currently visited
+        final Deque<PathFilter.State> folderStates = new ArrayDeque<>();
 
-        // try to refresh the project's changed files
         try {
-            project.refreshLocal(IResource.DEPTH_INFINITE, null);
+            Files.walkFileTree(folderPath, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+                {
+                    final PathFilter.State directoryState = folderStates.isEmpty()
+                                                            ? folderState
+                                                            : pathFilter.descend(folderStates.peek(), directory.getFileName().toString());
+
+                    if (directoryState.isPruned() || excludedFolders.contains(directory.toFile()))
+                        return FileVisitResult.SKIP_SUBTREE;
+
+                    folderStates.push(directoryState);
+                    return FileVisitResult.CONTINUE;
+                }
+
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path directory, IOException e)
+                {
+                    folderStates.pop();
+                    return FileVisitResult.CONTINUE;
+                }
+
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                {
+                    if (attributes.isRegularFile()
+                        && pathFilter.descend(folderStates.peek(), file.getFileName().toString()).isIncluded())
+                        sourceFiles.add(file.toFile());
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+
+        return sourceFiles;
+    }
+
+
+    /**
+     * Marks files as formatted, so they are skipped by future folder formatting
+     * until they change, and deletes the markers of previous checks that reported
+     * them as unformatted.
+     *
+     * @param project the project to which the formatted files belong
+     * @param formattedRoot the folder or file that was formatted
+     * @param formattedFiles the files that were passed to the formatter
+     * @param fingerprint the fingerprint of the formatter configuration, or null
+     */
+    private static void markClean(IProject project, File formattedRoot, Collection<File> formattedFiles, String fingerprint)
+    {
+        final Activator activator = Activator.getDefault();
+
+        if (activator != null)
+            activator.getDirtyFileTracker().markFormatted(project, formattedRoot, formattedFiles, fingerprint);
+
+        // all included files of a formatted folder are formatted
+        deleteMarkers(formattedRoot.isDirectory() ? Collections.singletonList(formattedRoot) : formattedFiles);
+    }
+
+
+    /**
+     * Marks files of arbitrary projects as formatted, so they are skipped by
+     * future folder formatting until they change, and deletes the markers of
+     * previous checks that reported them as unformatted.
+     *
+     * @param formattedFiles the files that were passed to the formatter
+     */
+    private static void markClean(Collection<File> formattedFiles)
+    {
+        final Activator activator = Activator.getDefault();
+
+        if (activator != null)
+            activator.getDirtyFileTracker().markFormatted(formattedFiles);
+
+        deleteMarkers(formattedFiles);
+    }
 
+
+    /**
+     * Deletes the unformatted file markers of formatted folders and files.
+     *
+     * @param formattedTargets the folders and files that were formatted
+     */
+    private static void deleteMarkers(Collection<File> formattedTargets)
+    {
+        try {
+            FormatCheckUtils.deleteMarkers(formattedTargets, new NullProgressMonitor());
         } catch (CoreException e) {
             e.printStackTrace();
         }
+    }
 
-        return FeedbackMessage.CreateInfo(String.format(successMessage, processOutput));
+
+    /**
+     * Returns the source folders and output folders of a project.
+     *
+     * @param project the project of which the folders are retrieved
+     *
+     * @return the source folders of the project, or null if the plugin is not active
+     */
+    private static SourceRoots getSourceRoots(IProject project)
+    {
+        final Activator activator = Activator.getDefault();
+        return activator != null ? activator.getSourceRootCache().getSourceRoots(project) : null;
+    }
+
+
+    /**
+     * Returns the cache of formatted file contents.
+     *
+     * @return the cache of formatted file contents, or null if the plugin is not active
+     */
+    private static FormattedFileCache getFormattedFileCache()
+    {
+        final Activator activator = Activator.getDefault();
+        return activator != null ? activator.getFormattedFileCache() : null;
+    }
+
+
+    /**
+     * Returns the cache of formatted files that may be shared with other workspaces.
+     *
+     * @param fingerprint the fingerprint of the formatter configuration, or null if it is unknown
+     *
+     * @return the shared format cache, or null if it is disabled or the fingerprint is unknown
+     */
+    private static SharedFormatCache getSharedFormatCache(String fingerprint)
+    {
+        return fingerprint != null ? FormatterConfiguration.getCurrent().getSharedFormatCache() : null;
+    }
+
+
+    /**
+     * Refreshes formatted files in a single workspace operation, so Eclipse notices
+     * their changes while only sending a single resource change event.
+     *
+     * @param files the files that were changed by the formatter
+     * @param monitor a progress monitor that is checked for cancellation
+     */
+    private static void refreshFiles(Collection<File> files, IProgressMonitor monitor)
+    {
+        if (files.isEmpty())
+            return;
+
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        final IWorkspaceRoot workspaceRoot = workspace.getRoot();
+
+        // try to refresh the changed files
+        try {
+            workspace.run((IProgressMonitor refreshMonitor) -> {
+                for (File file : files) {
+                    // a file can be part of multiple projects via links
+                    for (IFile workspaceFile : workspaceRoot.findFilesForLocationURI(file.toURI()))
+                        workspaceFile.refreshLocal(IResource.DEPTH_ZERO, refreshMonitor);
+                }
+            }, null, IWorkspace.AVOID_UPDATE, monitor);
+
+        } catch (CoreException e) {
+            e.printStackTrace();
+        }
     }
 
 
     /**
-     * Returns a process builder for running a formatting process.
-     * If the current project uses the HarvesterUtils astyle-format script,
-     * this script is preferred over the plugin preferences.
+     * Returns process builders for formatting the files of a folder or a single file.
+     * Unless a harvester script is used, the files of a folder are passed explicitly to
+     * AStyle, split into shards of equal byte size that can be formatted in parallel.
+     * AStyle never searches folders itself, so only harvester scripts receive folder paths.
      *
      * @param filePath the absolute filepath to the folder or file that is to be formatted
+     * @param isFolder if true, the file path points to a folder
+     * @param harvesterScript the harvester formatting script of the project, or null
+     * @param unformattedFiles the files that need to be formatted
+     * @param isCompleteFolder if true, the unformatted files are all source files of the folder
      *
-     * @return a formatting process builder
+     * @return a list of formatting process builders, or null if a required path is missing
      */
-    public static ProcessBuilder createFormattingProcess(String filePath)
+    private static List<ProcessBuilder> createFormattingProcesses(String filePath, boolean isFolder, File harvesterScript, Collection<File> unformattedFiles, boolean isCompleteFolder)
     {
-        // add * to folders in order to format recursively
-        if (new File(filePath).isDirectory()) {
-            if (filePath.charAt(filePath.length() - 1) != File.separatorChar)
-                filePath += File.separatorChar;
+        if (harvesterScript == null) {
+            // the files were collected by a filtered walk, so AStyle must not search the folder itself
+            if (isFolder)
+                return createDefaultFormattingProcesses(unformattedFiles);
 
-            filePath += '*';
+            final ProcessBuilder formattingBuilder = createDefaultFormattingProcess(filePath);
+            return formattingBuilder != null ? Collections.singletonList(formattingBuilder) : null;
         }
 
-        // if the project has a formatting util script, use that instead
-        final int sourceIndex = filePath.indexOf("src");
-        final String projectPath =
-            (sourceIndex > 0)
-            ? filePath.substring(0, filePath.indexOf("src") - 1)
-            : filePath;
-        final File formattingUtilScript = new File(projectPath + AStyleHandlerConstants.HARVESTER_FORMATTING_SCRIPT);
+        final String harvesterPath;
+
+        if (!isFolder)
+            harvesterPath = filePath;
 
-        if (formattingUtilScript.exists())
-            return createHarvesterFormattingProcess(filePath, formattingUtilScript);
+        // the harvester script can either format a single file or a whole folder
+        else if (unformattedFiles.size() == 1 && !isCompleteFolder)
+            harvesterPath = unformattedFiles.iterator().next().getPath();
+
+        // add * to folders in order to let the harvester script format them recursively
+        else if (filePath.charAt(filePath.length() - 1) != File.separatorChar)
+            harvesterPath = filePath + File.separatorChar + '*';
         else
-            return createDefaultFormattingProcess(filePath);
+            harvesterPath = filePath + '*';
+
+        return Collections.singletonList(createHarvesterFormattingProcess(harvesterPath, harvesterScript));
+    }
+
+
+    /**
+     * Returns a process builder for an AStyle process that formats source code
+     * that is passed via stdin and writes the result to stdout, using the formatter
+     * defined via the plugin preferences.
+     *
+     * @return a process builder for formatting via standard streams, or null
+     *          if a required path is missing
+     */
+    public static ProcessBuilder createDefaultStreamFormattingProcess()
+    {
+        final List<String> streamCommand = FormatterConfiguration.getCurrent().getStreamCommand();
+
+        // return null if a required path is missing
+        if (streamCommand == null)
+            return null;
+
+        return new ProcessBuilder(new ArrayList<>(streamCommand));
     }
 
 
+    /**
+     * Returns the harvester formatting script of a project.
+     *
+     * @param project the project that is to be formatted
+     *
+     * @return the formatting script, or null if the project does not have one
+     */
+    private static File getHarvesterFormattingScript(IProject project)
+    {
+        final Activator activator = Activator.getDefault();
+
+        if (activator == null)
+            return null;
+
+        return activator.getHarvesterScriptCache().getFormattingScript(project);
+    }
+
 
     /**
      * Returns a process builder for running the scripts/formatting/astyle-format
@@ -168,7 +1359,7 @@ public class FormattingUtils
      *
      * @return a process builder for formatting the active project
      */
-    private static ProcessBuilder createHarvesterFormattingProcess(String filePath, File formattingScript)
+    static ProcessBuilder createHarvesterFormattingProcess(String filePath, File formattingScript)
     {
         final String scriptFullPath = formattingScript.getAbsolutePath();
 
@@ -182,50 +1373,162 @@ public class FormattingUtils
     }
 
 
+    /**
+     * Returns process builders for formatting multiple files using the formatter
+     * defined via the plugin preferences. The files are split into as many shards
+     * of equal byte size as there are parallel processes. Each shard is distributed to
+     * as few processes as possible without exceeding the maximum command line length.
+     *
+     * @param files the files that are to be formatted
+     *
+     * @return a list of process builders, or null if a required path is missing
+     */
+    private static List<ProcessBuilder> createDefaultFormattingProcesses(Collection<File> files)
+    {
+        return createDefaultFormattingProcesses(files, FormatterConfiguration.getCurrent());
+    }
+
+
+    /**
+     * Returns process builders for formatting multiple files using the formatter
+     * defined via a specified configuration. The files are split into as many shards
+     * of equal byte size as there are parallel processes. Each shard is distributed to
+     * as few processes as possible without exceeding the maximum command line length.
+     *
+     * @param files the files that are to be formatted
+     * @param configuration the configuration that defines the formatter and the parallelism
+     *
+     * @return a list of process builders, or null if a required path is missing
+     */
+    public static List<ProcessBuilder> createDefaultFormattingProcesses(Collection<File> files, FormatterConfiguration configuration)
+    {
+        final ProcessBuilder baseBuilder = createDefaultFormattingProcess(files.iterator().next().getPath(), configuration);
+
+        // return null if a required path is missing
+        if (baseBuilder == null)
+            return null;
+
+        // all arguments but the file path are shared by all processes
+        final List<String> baseCommand = baseBuilder.command();
+        baseCommand.remove(baseCommand.size() - 1);
+
+        final int baseCommandLength = String.join(" ", baseCommand).length();
+        final List<ProcessBuilder> builders = new LinkedList<>();
+
+        for (List<File> shard : ShardingUtils.splitBySize(files, configuration.getParallelProcessCount())) {
+            List<String> command = new ArrayList<>(baseCommand);
+            int commandLength = baseCommandLength;
+
+            for (File file : shard) {
+                final String fileArgument = String.format(
+                                                AStyleHandlerConstants.FILE_PATH_QUOTED,
+                                                FormatterConfiguration.escapeWhitespace(file.getPath()));
+
+                // start a new process if the command line would become too long
+                if (command.size() > baseCommand.size()
+                    && commandLength + fileArgument.length() + 1 > AStyleHandlerConstants.MAX_COMMAND_LINE_LENGTH) {
+                    builders.add(new ProcessBuilder(command));
+                    command = new ArrayList<>(baseCommand);
+                    commandLength = baseCommandLength;
+                }
+
+                command.add(fileArgument);
+                commandLength += fileArgument.length() + 1;
+            }
+
+            builders.add(new ProcessBuilder(command));
+        }
+
+        return builders;
+    }
+
+
+    /**
+     * Checks if the complete output of formatting processes is to be kept. This is only
+     * the case if feedback messages are displayed in text boxes, because the status bar
+     * only shows the last line.
+     *
+     * @return true if the complete output of formatting processes is to be kept
+     */
+    private static boolean isKeepingFullOutput()
+    {
+        return FormatterConfiguration.getCurrent().getFeedbackStyle() == FeedbackStyle.TextBox;
+    }
+
+
     /**
      * Returns a process builder for running formatting the project using the
      * formatter defined via the plugin preferences.
      *
-     * @param unescapedFilePath the absolute path of the folder or file that is to be formatted
+     * @param unescapedFilePath the absolute path of the file that is to be formatted
      *
      * @return a process builder for formatting the active project
      */
     private static ProcessBuilder createDefaultFormattingProcess(String unescapedFilePath)
     {
-        final String filePath =
-            unescapedFilePath.replaceAll(" ", AStyleHandlerConstants.WHITESPACE_ESCAPE);
+        return createDefaultFormattingProcess(unescapedFilePath, FormatterConfiguration.getCurrent());
+    }
 
-        // get astyle binary path from preferences
-        final String binPath = AStylePreferenceConstants.STORE
-                               .getString(AStylePreferenceConstants.BINARY_PATH_OPTION)
-                               .replaceAll(" ", AStyleHandlerConstants.WHITESPACE_ESCAPE);
 
-        // get astyle options ini path from preferences
-        final String optionsPath = AStylePreferenceConstants.STORE
-                                   .getString(AStylePreferenceConstants.OPTIONS_FILE_PATH_OPTION)
-                                   .replaceAll(" ", AStyleHandlerConstants.WHITESPACE_ESCAPE);
+    /**
+     * Returns a process builder for formatting a file using the
+     * formatter defined via a specified configuration.
+     *
+     * @param unescapedFilePath the absolute path of the file that is to be formatted
+     * @param configuration the configuration that defines the formatter
+     *
+     * @return a process builder, or null if a required path is missing
+     */
+    private static ProcessBuilder createDefaultFormattingProcess(String unescapedFilePath, FormatterConfiguration configuration)
+    {
+        final String filePath = FormatterConfiguration.escapeWhitespace(unescapedFilePath);
 
         // return null if a required path is missing
-        if (binPath.isEmpty() || optionsPath.isEmpty())
+        if (!configuration.isFormatterDefined())
             return null;
 
-        // add recursion flag if the filepath points to a folder
-        else if (filePath.charAt(filePath.length() - 1) == '*')
-            return new ProcessBuilder(
-                       String.format(AStyleHandlerConstants.ASTYLE_BIN_CMD, binPath),
-                       AStyleHandlerConstants.RECURSIVE_CMD_PARAM,
-                       AStyleHandlerConstants.NO_BACKUP_CMD_PARAM,
-                       AStyleHandlerConstants.ONLY_FORMATTED_CMD_PARAM,
-                       String.format(AStyleHandlerConstants.OPTIONS_CMD_PARAM, optionsPath),
-                       String.format(AStyleHandlerConstants.JAVA_FILE_PATH_QUOTED, filePath)
-                   );
-        else
-            return new ProcessBuilder(
-                       String.format(AStyleHandlerConstants.ASTYLE_BIN_CMD, binPath),
-                       AStyleHandlerConstants.NO_BACKUP_CMD_PARAM,
-                       AStyleHandlerConstants.ONLY_FORMATTED_CMD_PARAM,
-                       String.format(AStyleHandlerConstants.OPTIONS_CMD_PARAM, optionsPath),
-                       String.format(AStyleHandlerConstants.FILE_PATH_QUOTED, filePath)
-                   );
+        return new ProcessBuilder(
+                   configuration.getBinaryCommand(),
+                   AStyleHandlerConstants.NO_BACKUP_CMD_PARAM,
+                   configuration.getOptionsParameter(),
+                   String.format(AStyleHandlerConstants.FILE_PATH_QUOTED, filePath)
+               );
+    }
+
+
+    /**
+     * This exception carries the error feedback of a formatting process
+     * that ran in a separate thread.
+     *
+     * @author GeRDI Project
+     */
+    private static class FormattingException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FeedbackMessage feedback;
+
+
+        /**
+         * Constructor that requires the error feedback.
+         *
+         * @param feedback the error feedback of the formatting process
+         */
+        FormattingException(FeedbackMessage feedback)
+        {
+            super();
+            this.feedback = feedback;
+        }
+
+
+        /**
+         * Returns the error feedback of the formatting process.
+         *
+         * @return the error feedback of the formatting process
+         */
+        FeedbackMessage getFeedback()
+        {
+            return feedback;
+        }
     }
 }
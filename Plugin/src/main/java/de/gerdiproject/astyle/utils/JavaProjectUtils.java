@@ -0,0 +1,112 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+import de.gerdiproject.astyle.cache.SourceRoots;
+
+/**
+ * This helper class offers static methods for retrieving the build path of Java projects.
+ * It is the only class that accesses the optional Java Development Tools, and must
+ * not be loaded if they are not installed.
+ *
+ * @author GeRDI Project
+ */
+public class JavaProjectUtils
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private JavaProjectUtils()
+    {
+
+    }
+
+
+    /**
+     * Retrieves the source folders and output folders from the classpath of a Java project.
+     * Derived source folders, such as generated sources, are skipped.
+     *
+     * @param project the project of which the source folders are retrieved
+     *
+     * @return the source folders of the project, or null if it is no Java project
+     *
+     * @throws CoreException if the classpath of the project could not be read
+     */
+    public static SourceRoots getSourceRoots(IProject project) throws CoreException
+    {
+        if (!project.isOpen() || !project.hasNature(JavaCore.NATURE_ID))
+            return null;
+
+        final IJavaProject javaProject = JavaCore.create(project);
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+
+        final List<File> sourceFolders = new LinkedList<>();
+        final Set<File> outputFolders = new HashSet<>();
+        addLocation(workspaceRoot, javaProject.getOutputLocation(), outputFolders);
+
+        for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+            if (entry.getEntryKind() != IClasspathEntry.CPE_SOURCE)
+                continue;
+
+            addLocation(workspaceRoot, entry.getOutputLocation(), outputFolders);
+
+            final IResource sourceFolder = workspaceRoot.findMember(entry.getPath());
+
+            if (sourceFolder != null && !sourceFolder.isDerived(IResource.CHECK_ANCESTORS))
+                addLocation(workspaceRoot, entry.getPath(), sourceFolders);
+        }
+
+        return new SourceRoots(AStyleEclipseUtils.removeNestedFiles(sourceFolders), outputFolders);
+    }
+
+
+    /**
+     * Adds the file system location of a workspace resource to a collection,
+     * if the resource exists.
+     *
+     * @param workspaceRoot the root of the workspace
+     * @param workspacePath the workspace path of the resource, or null
+     * @param locations the collection to which the location is added
+     */
+    private static void addLocation(IWorkspaceRoot workspaceRoot, IPath workspacePath, Collection<File> locations)
+    {
+        if (workspacePath == null)
+            return;
+
+        final IResource resource = workspaceRoot.findMember(workspacePath);
+
+        if (resource != null && resource.getLocation() != null)
+            locations.add(resource.getLocation().toFile());
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * This class decides which files are formatted, by matching their paths against
+ * include and exclude glob patterns. All patterns are compiled into two tries over
+ * path segments, which are traversed segment by segment while a directory is walked.
+ * This way, folders that cannot contain any included file, or that are excluded
+ * themselves, are pruned without visiting their contents.
+ * <p>
+ * Paths are relative to a root folder, usually the project folder. Patterns consist of
+ * segments that are separated by slashes. A segment may contain the wildcards '*' and '?',
+ * and the segment '**' matches any number of folders. Patterns that do not contain a slash,
+ * such as "*.java", match files and folders at any depth.
+ *
+ * @author GeRDI Project
+ */
+public final class PathFilter
+{
+    private static final String SEPARATOR = "/";
+    private static final String ANY_FOLDERS = "**";
+
+    private final Node includeRoot;
+    private final Node excludeRoot;
+    private final State rootState;
+
+
+    /**
+     * Constructor that compiles the patterns.
+     *
+     * @param includePatterns the patterns of files that are to be formatted
+     * @param excludePatterns the patterns of files and folders that are never to be formatted
+     */
+    public PathFilter(Collection<String> includePatterns, Collection<String> excludePatterns)
+    {
+        this.includeRoot = compile(includePatterns);
+        this.excludeRoot = compile(excludePatterns);
+        this.rootState = new State(closure(includeRoot), closure(excludeRoot));
+    }
+
+
+    /**
+     * Returns the matching state of the root folder.
+     *
+     * @return the matching state of the root folder
+     */
+    public State getRootState()
+    {
+        return rootState;
+    }
+
+
+    /**
+     * Matches a single path segment, advancing the matching state from a folder
+     * to one of its files or sub-folders.
+     *
+     * @param parentState the matching state of the parent folder
+     * @param segment the name of the file or sub-folder
+     *
+     * @return the matching state of the file or sub-folder
+     */
+    public State descend(State parentState, String segment)
+    {
+        // everything within an excluded folder is excluded as well
+        if (parentState.isExcluded)
+            return parentState;
+
+        return new State(
+                   descend(parentState.includeNodes, segment),
+                   descend(parentState.excludeNodes, segment));
+    }
+
+
+    /**
+     * Matches a path that is relative to the root folder.
+     *
+     * @param relativePath a path that is relative to the root folder
+     *
+     * @return the matching state of the path
+     */
+    public State match(Path relativePath)
+    {
+        State state = rootState;
+
+        for (Path segment : relativePath) {
+            final String name = segment.toString();
+
+            if (!name.isEmpty())
+                state = descend(state, name);
+        }
+
+        return state;
+    }
+
+
+    /**
+     * Builds a trie from glob patterns.
+     *
+     * @param patterns the glob patterns
+     *
+     * @return the root node of the trie
+     */
+    private static Node compile(Collection<String> patterns)
+    {
+        final Node root = new Node(false);
+
+        for (String pattern : patterns) {
+            String normalizedPattern = pattern.trim().replace('\\', '/');
+
+            if (normalizedPattern.isEmpty())
+                continue;
+
+            // patterns without folders match at any depth, leading slashes anchor patterns at the root
+            if (normalizedPattern.indexOf('/') == -1)
+                normalizedPattern = ANY_FOLDERS + SEPARATOR + normalizedPattern;
+
+            Node node = root;
+
+            for (String segment : normalizedPattern.split(SEPARATOR)) {
+                if (!segment.isEmpty())
+                    node = node.getOrAddChild(segment);
+            }
+
+            node.isTerminal = true;
+        }
+
+        return root;
+    }
+
+
+    /**
+     * Advances a set of trie nodes by a path segment.
+     *
+     * @param nodes the trie nodes that were reached by the parent folder
+     * @param segment the name of a file or folder
+     *
+     * @return the trie nodes that are reached by the file or folder
+     */
+    private static Node[] descend(Node[] nodes, String segment)
+    {
+        final Set<Node> reachedNodes = new LinkedHashSet<>();
+
+        for (Node node : nodes) {
+            // '**' consumes any segment and stays where it is
+            if (node.isAnyFolders)
+                addClosure(node, reachedNodes);
+
+            final Node literalChild = node.literalChildren.get(segment);
+
+            if (literalChild != null)
+                addClosure(literalChild, reachedNodes);
+
+            for (Node wildcardChild : node.wildcardChildren.values()) {
+                if (wildcardChild.segmentPattern.matcher(segment).matches())
+                    addClosure(wildcardChild, reachedNodes);
+            }
+        }
+
+        return reachedNodes.toArray(new Node[reachedNodes.size()]);
+    }
+
+
+    /**
+     * Retrieves a trie node along with the nodes that can be reached from it
+     * without consuming a segment.
+     *
+     * @param node a trie node
+     *
+     * @return the node and all nodes that are reached by skipping '**' segments
+     */
+    private static Node[] closure(Node node)
+    {
+        final Set<Node> reachedNodes = new LinkedHashSet<>();
+        addClosure(node, reachedNodes);
+        return reachedNodes.toArray(new Node[reachedNodes.size()]);
+    }
+
+
+    /**
+     * Adds a trie node along with the nodes that can be reached from it
+     * without consuming a segment to a set.
+     *
+     * @param node a trie node
+     * @param reachedNodes the set to which the nodes are added
+     */
+    private static void addClosure(Node node, Set<Node> reachedNodes)
+    {
+        Node currentNode = node;
+
+        // '**' may also match no segment at all
+        while (currentNode != null && reachedNodes.add(currentNode))
+            currentNode = currentNode.anyFoldersChild;
+    }
+
+
+    /**
+     * This class represents the trie nodes that were reached by matching a path.
+     *
+     * @author GeRDI Project
+     */
+    public static final class State
+    {
+        private final Node[] includeNodes;
+        private final Node[] excludeNodes;
+        private final boolean isExcluded;
+
+
+        /**
+         * Constructor that requires the reached trie nodes.
+         *
+         * @param includeNodes the reached nodes of the include trie
+         * @param excludeNodes the reached nodes of the exclude trie
+         */
+        private State(Node[] includeNodes, Node[] excludeNodes)
+        {
+            this.includeNodes = includeNodes;
+            this.excludeNodes = excludeNodes;
+            this.isExcluded = isAnyTerminal(excludeNodes);
+        }
+
+
+        /**
+         * Checks if the path is matched by an exclude pattern.
+         * Files and folders within an excluded folder are excluded, too.
+         *
+         * @return true if the path is excluded
+         */
+        public boolean isExcluded()
+        {
+            return isExcluded;
+        }
+
+
+        /**
+         * Checks if the path is matched by an include pattern, and not excluded.
+         *
+         * @return true if the file is to be formatted
+         */
+        public boolean isIncluded()
+        {
+            return !isExcluded && isAnyTerminal(includeNodes);
+        }
+
+
+        /**
+         * Checks if no path within a folder can be included, so that the
+         * folder does not need to be visited.
+         *
+         * @return true if the folder can be skipped
+         */
+        public boolean isPruned()
+        {
+            return isExcluded || includeNodes.length == 0;
+        }
+
+
+        /**
+         * Checks if any of multiple trie nodes ends a pattern.
+         *
+         * @param nodes the trie nodes that are to be checked
+         *
+         * @return true if a pattern ends at one of the nodes
+         */
+        private static boolean isAnyTerminal(Node[] nodes)
+        {
+            for (Node node : nodes) {
+                if (node.isTerminal)
+                    return true;
+            }
+
+            return false;
+        }
+    }
+
+
+    /**
+     * This class represents a path segment of one or more patterns.
+     *
+     * @author GeRDI Project
+     */
+    private static final class Node
+    {
+        private final Map<String, Node> literalChildren = new HashMap<>();
+        private final Map<String, Node> wildcardChildren = new LinkedHashMap<>();
+        private final boolean isAnyFolders;
+        private Pattern segmentPattern;
+        private Node anyFoldersChild;
+        private boolean isTerminal;
+
+
+        /**
+         * Constructor that creates a node without children.
+         *
+         * @param isAnyFolders if true, the node represents a '**' segment
+         */
+        Node(boolean isAnyFolders)
+        {
+            this.isAnyFolders = isAnyFolders;
+        }
+
+
+        /**
+         * Retrieves the child node of a pattern segment, adding it if it does not exist yet.
+         * Patterns that share a prefix also share the nodes of that prefix.
+         *
+         * @param segment a pattern segment
+         *
+         * @return the child node of the segment
+         */
+        Node getOrAddChild(String segment)
+        {
+            if (ANY_FOLDERS.equals(segment)) {
+                if (anyFoldersChild == null)
+                    anyFoldersChild = new Node(true);
+
+                return anyFoldersChild;
+            }
+
+            if (segment.indexOf('*') == -1 && segment.indexOf('?') == -1)
+                return literalChildren.computeIfAbsent(segment, (String literal) -> new Node(false));
+
+            return wildcardChildren.computeIfAbsent(segment, (String glob) -> {
+                final Node wildcardChild = new Node(false);
+                wildcardChild.segmentPattern = compileSegment(glob);
+                return wildcardChild;
+            });
+        }
+
+
+        /**
+         * Converts a pattern segment with wildcards to a regular expression.
+         *
+         * @param glob a pattern segment with wildcards
+         *
+         * @return a regular expression that matches the same names as the segment
+         */
+        private static Pattern compileSegment(String glob)
+        {
+            final StringBuilder regex = new StringBuilder();
+            int literalStart = 0;
+
+            for (int i = 0; i < glob.length(); i++) {
+                final char c = glob.charAt(i);
+
+                if (c == '*' || c == '?') {
+                    if (i > literalStart)
+                        regex.append(Pattern.quote(glob.substring(literalStart, i)));
+
+                    regex.append(c == '*' ? ".*" : ".");
+                    literalStart = i + 1;
+                }
+            }
+
+            if (literalStart < glob.length())
+                regex.append(Pattern.quote(glob.substring(literalStart)));
+
+            return Pattern.compile(regex.toString());
+        }
+    }
+}
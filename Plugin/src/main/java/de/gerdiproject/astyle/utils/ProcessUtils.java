@@ -0,0 +1,186 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import de.gerdiproject.astyle.handlers.AStyleHandlerConstants;
+
+/**
+ * This helper class offers static methods for supervising formatting processes.
+ *
+ * @author GeRDI Project
+ */
+public class ProcessUtils
+{
+    private static final Method GET_DESCENDANTS = findMethod(Process.class, "descendants");
+    private static final Method DESTROY_HANDLE = findMethod(findClass("java.lang.ProcessHandle"), "destroyForcibly");
+
+
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private ProcessUtils()
+    {
+
+    }
+
+
+    /**
+     * Waits for a process to finish, while periodically checking if the
+     * progress monitor was canceled. If so, or if the thread is interrupted,
+     * the process is destroyed.
+     *
+     * @param process the process that is to be awaited
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws OperationCanceledException if the monitor was canceled
+     *
+     * @return the exit value of the process
+     */
+    public static int waitFor(Process process, IProgressMonitor monitor) throws InterruptedException
+    {
+        try {
+            return waitFor(process, 0, monitor);
+        } catch (TimeoutException e) {
+            // cannot happen without a timeout
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Waits for a process to finish, while periodically checking if the
+     * progress monitor was canceled or the deadline passed. If so, or if the
+     * thread is interrupted, the process and all of its child processes are destroyed.
+     *
+     * @param process the process that is to be awaited
+     * @param timeout the milliseconds after which the process is destroyed, or 0 if it may run forever
+     * @param monitor a progress monitor that is checked for cancellation
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws TimeoutException if the process did not finish in time
+     * @throws OperationCanceledException if the monitor was canceled
+     *
+     * @return the exit value of the process
+     */
+    public static int waitFor(Process process, long timeout, IProgressMonitor monitor) throws InterruptedException, TimeoutException
+    {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        try {
+            while (!process.waitFor(AStyleHandlerConstants.CANCEL_POLLING_INTERVAL, TimeUnit.MILLISECONDS)) {
+                if (monitor.isCanceled()) {
+                    destroyProcessTree(process);
+                    throw new OperationCanceledException();
+                }
+
+                if (timeout > 0 && System.nanoTime() - deadline > 0) {
+                    destroyProcessTree(process);
+                    throw new TimeoutException();
+                }
+            }
+        } catch (InterruptedException e) {
+            destroyProcessTree(process);
+            throw e;
+        }
+
+        return process.exitValue();
+    }
+
+
+    /**
+     * Destroys a process and all processes that were started by it, such as
+     * AStyle processes that were started by a harvester formatting script.
+     * Child processes can only be found since Java 9, on older Java runtimes
+     * only the process itself is destroyed.
+     *
+     * @param process the process that is to be destroyed
+     */
+    public static void destroyProcessTree(Process process)
+    {
+        if (GET_DESCENDANTS != null && DESTROY_HANDLE != null) {
+            try (Stream<?> descendants = (Stream<?>) GET_DESCENDANTS.invoke(process)) {
+                descendants.forEach(ProcessUtils::destroyHandle);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // destroy at least the process itself
+            }
+        }
+
+        process.destroyForcibly();
+    }
+
+
+    /**
+     * Destroys a process via its Java 9 ProcessHandle.
+     *
+     * @param processHandle a java.lang.ProcessHandle
+     */
+    private static void destroyHandle(Object processHandle)
+    {
+        try {
+            DESTROY_HANDLE.invoke(processHandle);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the process may have terminated in the meantime
+        }
+    }
+
+
+    /**
+     * Looks up a class that may not exist in the current Java runtime.
+     *
+     * @param className the fully qualified name of the class
+     *
+     * @return the class, or null if it does not exist
+     */
+    private static Class<?> findClass(String className)
+    {
+        try {
+            return Class.forName(className);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Looks up a public method without parameters that may not exist in the current Java runtime.
+     *
+     * @param declaringClass the class that declares the method, or null
+     * @param methodName the name of the method
+     *
+     * @return the method, or null if it does not exist
+     */
+    private static Method findMethod(Class<?> declaringClass, String methodName)
+    {
+        if (declaringClass == null)
+            return null;
+
+        try {
+            return declaringClass.getMethod(methodName);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+/**
+ * This helper class offers static methods for creating the scheduling rules of
+ * formatting jobs. Formatting changes files outside of the workspace API and refreshes
+ * them afterwards, so the jobs must not run concurrently with builds or other jobs
+ * that modify the same projects.
+ *
+ * @author GeRDI Project
+ */
+public class SchedulingRuleUtils
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private SchedulingRuleUtils()
+    {
+
+    }
+
+
+    /**
+     * Creates a scheduling rule that covers all projects that contain the folders and files
+     * which are to be formatted. A location can be part of multiple projects via links,
+     * and folders may contain nested projects, all of whose files are refreshed after the
+     * formatting.
+     *
+     * @param targets the folders and files that are to be formatted
+     *
+     * @return a rule that combines the affected projects, or null if no project is affected
+     */
+    public static ISchedulingRule createProjectRule(Collection<File> targets)
+    {
+        final IWorkspaceRoot workspaceRoot = ResourcesPlugin.getWorkspace().getRoot();
+        final Set<IProject> projects = new LinkedHashSet<>();
+
+        for (File target : targets) {
+            final boolean isFolder = target.isDirectory();
+            final IResource[] resources = isFolder
+                                          ? workspaceRoot.findContainersForLocationURI(target.toURI())
+                                          : workspaceRoot.findFilesForLocationURI(target.toURI());
+
+            // the workspace root does not belong to any project
+            for (IResource resource : resources) {
+                if (resource.getProject() != null)
+                    projects.add(resource.getProject());
+            }
+
+            if (isFolder) {
+                for (IProject project : workspaceRoot.getProjects()) {
+                    final IPath projectLocation = project.getLocation();
+
+                    if (projectLocation != null && projectLocation.toFile().toPath().startsWith(target.toPath()))
+                        projects.add(project);
+                }
+            }
+        }
+
+        return MultiRule.combine(projects.toArray(new ISchedulingRule[projects.size()]));
+    }
+
+
+    /**
+     * Creates a scheduling rule that covers a project and all projects that contain
+     * the folders and files which are to be formatted.
+     *
+     * @param project the project that is formatted
+     * @param targets the folders and files of the project that are to be formatted
+     *
+     * @return a rule that combines the affected projects
+     */
+    public static ISchedulingRule createProjectRule(IProject project, Collection<File> targets)
+    {
+        return MultiRule.combine(project, createProjectRule(targets));
+    }
+}
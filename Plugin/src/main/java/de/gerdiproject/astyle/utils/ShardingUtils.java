@@ -0,0 +1,124 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This helper class offers static methods for distributing files to multiple
+ * formatting processes.
+ *
+ * @author GeRDI Project
+ */
+public class ShardingUtils
+{
+    /**
+     * Private constructor, because this is just a collection of useful methods.
+     */
+    private ShardingUtils()
+    {
+
+    }
+
+
+    /**
+     * Splits files into shards of roughly equal byte size. The largest files are
+     * distributed first, each to the shard that is currently the smallest.
+     *
+     * @param files the files that are to be distributed
+     * @param maxShardCount the maximum number of shards
+     *
+     * @return a list of non-empty shards
+     */
+    public static List<List<File>> splitBySize(Collection<File> files, int maxShardCount)
+    {
+        final int shardCount = Math.max(1, Math.min(maxShardCount, files.size()));
+
+        // sort files descending by size
+        final List<SizedFile> sizedFiles = new ArrayList<>(files.size());
+
+        for (File file : files)
+            sizedFiles.add(new SizedFile(file, file.length()));
+
+        sizedFiles.sort(Comparator.comparingLong((SizedFile sizedFile) -> sizedFile.size).reversed());
+
+        // always add the next file to the smallest shard
+        final PriorityQueue<Shard> shardQueue =
+            new PriorityQueue<>(shardCount, Comparator.comparingLong((Shard shard) -> shard.size));
+
+        for (int i = 0; i < shardCount; i++)
+            shardQueue.add(new Shard());
+
+        for (SizedFile sizedFile : sizedFiles) {
+            final Shard smallestShard = shardQueue.poll();
+            smallestShard.files.add(sizedFile.file);
+            smallestShard.size += sizedFile.size;
+            shardQueue.add(smallestShard);
+        }
+
+        final List<List<File>> shards = new ArrayList<>(shardCount);
+
+        for (Shard shard : shardQueue) {
+            if (!shard.files.isEmpty())
+                shards.add(shard.files);
+        }
+
+        return shards;
+    }
+
+
+    /**
+     * This class represents a file along with its size in bytes.
+     *
+     * @author GeRDI Project
+     */
+    private static class SizedFile
+    {
+        private final File file;
+        private final long size;
+
+
+        /**
+         * Constructor that sets all fields.
+         *
+         * @param file the file
+         * @param size the size of the file in bytes
+         */
+        SizedFile(File file, long size)
+        {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+
+    /**
+     * This class represents a group of files that are formatted by the same process.
+     *
+     * @author GeRDI Project
+     */
+    private static class Shard
+    {
+        private final List<File> files = new ArrayList<>();
+        private long size;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright © 2026 GeRDI Project (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.astyle.utils;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+/**
+ * This progress monitor cancels itself when a deadline is exceeded.
+ * It is used for formatting processes that block the UI thread and
+ * must never hang.
+ *
+ * @author GeRDI Project
+ */
+public class TimeoutProgressMonitor extends NullProgressMonitor
+{
+    private final long deadline;
+
+
+    /**
+     * Constructor that sets the deadline relative to the current time.
+     *
+     * @param timeout the number of milliseconds after which the monitor is canceled
+     */
+    public TimeoutProgressMonitor(long timeout)
+    {
+        super();
+        this.deadline = System.currentTimeMillis() + timeout;
+    }
+
+
+    @Override
+    public boolean isCanceled()
+    {
+        return super.isCanceled() || System.currentTimeMillis() > deadline;
+    }
+}